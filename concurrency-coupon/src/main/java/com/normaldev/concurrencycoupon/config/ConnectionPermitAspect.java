@@ -0,0 +1,80 @@
+package com.normaldev.concurrencycoupon.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 가상 스레드 모드에서 커넥션 풀 크기만큼만 동시에 진입시키는 세마포어
+ *
+ * 플랫폼 스레드는 Tomcat 스레드 풀(기본 200개)이 동시 요청 수를 제한했지만, 가상 스레드는 요청마다 하나씩 만들어지므로
+ * 수천 개의 요청이 한꺼번에 Hikari/Redisson 커넥션을 기다리게 된다. 커넥션 대기 타임아웃과 풀 내부 경합을 피하기 위해
+ * 풀 크기와 같은 공정 세마포어로 먼저 줄을 세운다. (가상 스레드는 세마포어 대기 중 캐리어 스레드를 반납한다)
+ *
+ * 허가는 실제로 커넥션을 쓰는 호출에만 건다. 분산 락을 기다리는 동안에는 허가를 들고 있지 않는다.
+ * (Redisson은 Pub/Sub 구독으로, LettuceLock은 서버 안의 세마포어로 기다리므로 대기 중에 커넥션을 쓰지 않는다.
+ *  락 대기까지 허가를 들고 있으면 락을 기다리는 요청들이 허가를 모두 차지해 Redis를 쓰지 않는 요청까지 막힌다)
+ * - Redis 허가: 발급 경로의 Redis 스크립트 호출 (CouponClaimRegistry, LuaCouponService.issue)
+ * - DB 허가: service 패키지의 @Transactional 메서드 (분산 락을 잡은 뒤 CouponIssueService.issue에서 얻는다)
+ *
+ * 순서: 재시도(@Retryable) → DB 허가 → 트랜잭션 → Redis 허가
+ * - Redis 허가는 스크립트 한 번 동안만 들고 있고 그 안에서 DB 허가를 얻지 않으므로 허가끼리 교착 상태가 생기지 않는다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Slf4j
+@Aspect
+@Component
+@Profile("virtual")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConnectionPermitAspect {
+
+    private final Semaphore dbPermits;
+    private final Semaphore redisPermits;
+    private final long acquireTimeoutMillis;
+
+    public ConnectionPermitAspect(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int dbPoolSize,
+            @Value("${coupon.redis.connection-pool-size:50}") int redisPoolSize,
+            @Value("${coupon.permit.acquire-timeout-millis:5000}") long acquireTimeoutMillis) {
+        this.dbPermits = new Semaphore(dbPoolSize, true);
+        this.redisPermits = new Semaphore(redisPoolSize, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    // LuaCouponService.issue는 락 대기 없이 스크립트 1~2번과 메모리 큐 적재(offer-timeout 이내)로 끝난다
+    @Around("execution(* com.normaldev.concurrencycoupon.service.redis.CouponClaimRegistry.*(..))" +
+            " || execution(* com.normaldev.concurrencycoupon.service.redis.LuaCouponService.issue(..))")
+    public Object withRedisPermit(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedWithPermit(redisPermits, "Redis", joinPoint);
+    }
+
+    @Around("execution(* com.normaldev.concurrencycoupon.service..*(..))" +
+            " && @annotation(org.springframework.transaction.annotation.Transactional)")
+    public Object withDbPermit(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedWithPermit(dbPermits, "DB", joinPoint);
+    }
+
+    private Object proceedWithPermit(Semaphore permits, String resource, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("{} 커넥션 허가 획득 실패 - {}", resource, joinPoint.getSignature().toShortString());
+            throw new IllegalStateException("쿠폰 발급 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        try {
+            return joinPoint.proceed();
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.normaldev.concurrencycoupon.config;
 
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
 import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,6 +10,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -26,6 +28,9 @@ public class RedisConfig {
     @Value("${spring.data.redis.port}")
     private int port;
 
+    @Value("${coupon.redis.connection-pool-size:50}")
+    private int connectionPoolSize;
+
     @Bean
     public RedisConnectionFactory redisConnectionFactory() {
         return new LettuceConnectionFactory(host, port);
@@ -43,6 +48,16 @@ public class RedisConfig {
         return redisTemplate;
     }
 
+    /**
+     * Lettuce 락 해제 알림(Pub/Sub) 구독
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory());
+        return container;
+    }
+
     /**
      * Redisson 클라이언트 설정
      */
@@ -51,11 +66,19 @@ public class RedisConfig {
         Config config = new Config();
         config.useSingleServer()
                 .setAddress("redis://" + host + ":" + port)
-                .setConnectionPoolSize(50)
+                .setConnectionPoolSize(connectionPoolSize)
                 .setConnectionMinimumIdleSize(10)
                 .setRetryAttempts(3)
                 .setRetryInterval(1500);
 
         return Redisson.create(config);
     }
+
+    /**
+     * Redisson Reactive 클라이언트 (같은 연결을 사용)
+     */
+    @Bean
+    public RedissonReactiveClient redissonReactiveClient(RedissonClient redissonClient) {
+        return redissonClient.reactive();
+    }
 }
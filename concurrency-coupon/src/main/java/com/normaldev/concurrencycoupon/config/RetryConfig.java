@@ -1,14 +1,16 @@
 package com.normaldev.concurrencycoupon.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.retry.annotation.EnableRetry;
 
 /**
+ * 재시도를 가장 바깥에서 수행 (재시도 대기 중에는 커넥션 허가/트랜잭션을 잡고 있지 않도록)
  *
  * @author junnukim1007gmail.com
  * @date 26. 1. 4.
  */
-@EnableRetry
+@EnableRetry(order = Ordered.HIGHEST_PRECEDENCE)
 @Configuration
 public class RetryConfig {
 }
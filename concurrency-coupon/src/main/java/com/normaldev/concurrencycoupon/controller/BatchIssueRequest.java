@@ -0,0 +1,20 @@
+package com.normaldev.concurrencycoupon.controller;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 대량 발급 요청
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public record BatchIssueRequest(Long couponId, List<Long> userIds) {
+
+    /**
+     * couponId와 userIds가 있고 userIds에 null이 없어야 한다
+     */
+    public boolean isValid() {
+        return couponId != null && userIds != null && userIds.stream().allMatch(Objects::nonNull);
+    }
+}
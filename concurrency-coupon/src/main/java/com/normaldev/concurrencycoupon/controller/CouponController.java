@@ -1,9 +1,25 @@
 package com.normaldev.concurrencycoupon.controller;
 
+import com.normaldev.concurrencycoupon.service.CouponAlreadyIssuedException;
 import com.normaldev.concurrencycoupon.service.CouponService;
+import com.normaldev.concurrencycoupon.service.IssueResult;
+import com.normaldev.concurrencycoupon.service.admission.AdmissionQueue;
+import com.normaldev.concurrencycoupon.service.admission.IssueTicket;
+import com.normaldev.concurrencycoupon.service.idempotency.IdempotencyStore;
+import com.normaldev.concurrencycoupon.service.idempotency.StoredResponse;
+import com.normaldev.concurrencycoupon.service.redis.ReactiveCouponService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  *
@@ -16,21 +32,155 @@ import org.springframework.web.bind.annotation.*;
 public class CouponController {
 
     private final CouponService couponService;
+    private final ReactiveCouponService reactiveCouponService;
+    private final AdmissionQueue admissionQueue;
+    private final IdempotencyStore idempotencyStore;
+
+    // true면 발급 요청을 대기열에 넣고 대기표만 바로 돌려준다
+    @Value("${coupon.admission.enabled:false}")
+    private boolean admissionEnabled;
 
+    /**
+     * Idempotency-Key 헤더를 보내면 같은 키로 다시 요청해도 처음 응답을 그대로 돌려준다.
+     * 결과가 정해진 응답만 저장하고, 일시적인 실패(5xx)나 예외로 끝나면 키를 지워 다시 시도할 수 있게 한다.
+     */
     @PostMapping("/issue")
     public ResponseEntity<String> issueCoupon(
             @RequestParam Long userId,
-            @RequestParam Long couponId
+            @RequestParam Long couponId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) {
 
+        if (idempotencyKey == null) {
+            return issue(userId, couponId);
+        }
+
+        String fingerprint = IdempotencyStore.fingerprint(userId, couponId);
+        Optional<StoredResponse> previous = idempotencyStore.begin(idempotencyKey, fingerprint);
+        if (previous.isPresent()) {
+            return ResponseEntity.status(previous.get().status()).body(previous.get().body());
+        }
+
+        boolean completed = false;
+        try {
+            ResponseEntity<String> response = issue(userId, couponId);
+            completed = completeIfTerminal(idempotencyKey, fingerprint, response);
+            return response;
+        } finally {
+            if (!completed) {
+                idempotencyStore.abandon(idempotencyKey);
+            }
+        }
+    }
+
+    // 결과가 정해진 응답(5xx가 아닌 응답)만 저장한다
+    private boolean completeIfTerminal(String idempotencyKey, String fingerprint, ResponseEntity<String> response) {
+        if (response.getStatusCode().is5xxServerError()) {
+            return false;
+        }
+        idempotencyStore.complete(idempotencyKey, fingerprint,
+                new StoredResponse(response.getStatusCode().value(), response.getBody()));
+        return true;
+    }
+
+    private ResponseEntity<String> issue(Long userId, Long couponId) {
+        if (admissionEnabled) {
+            String ticket = admissionQueue.admit(userId, couponId);
+            return ResponseEntity.accepted()
+                    .header("Location", "/api/coupons/tickets/" + ticket)
+                    .body(ticket);
+        }
+
         try {
             couponService.issue(userId, couponId);
             return ResponseEntity.ok("쿠폰 발급 성공");
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body("쿠폰 발급 실패: " + e.getMessage());
+        } catch (RuntimeException e) {
+            return failure(e);
         }
     }
 
+    /**
+     * 품절, 이미 발급, 없는 쿠폰처럼 다시 보내도 결과가 같은 실패는 400,
+     * 락 대기 초과나 Redis/DB 장애처럼 다시 시도하면 성공할 수 있는 실패는 503
+     */
+    private static ResponseEntity<String> failure(Throwable e) {
+        boolean rejected = e instanceof IllegalArgumentException
+                || e instanceof CouponAlreadyIssuedException
+                || e instanceof DataIntegrityViolationException;
+        HttpStatus status = rejected ? HttpStatus.BAD_REQUEST : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body("쿠폰 발급 실패: " + e.getMessage());
+    }
+
+    /**
+     * 대량 발급 (요청한 userIds와 같은 순서로 사용자별 결과를 돌려준다, couponId/userIds가 없으면 400)
+     */
+    @PostMapping("/issue-batch")
+    public ResponseEntity<List<IssueResult>> issueCouponBatch(
+            @RequestBody BatchIssueRequest request
+    ) {
+
+        if (!request.isValid()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(couponService.issueBatch(request.couponId(), request.userIds()));
+    }
+
+    /**
+     * 락을 기다리는 동안 Tomcat 스레드를 반납하는 발급 (Spring MVC 비동기 요청으로 Mono 처리)
+     * Idempotency-Key 처리는 /issue와 같다. (Redis 호출은 블로킹이므로 boundedElastic에서 실행)
+     */
+    @PostMapping("/issue-reactive")
+    public Mono<ResponseEntity<String>> issueCouponReactive(
+            @RequestParam Long userId,
+            @RequestParam Long couponId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+
+        if (idempotencyKey == null) {
+            return issueReactive(userId, couponId);
+        }
+
+        String fingerprint = IdempotencyStore.fingerprint(userId, couponId);
+        return Mono.fromCallable(() -> idempotencyStore.begin(idempotencyKey, fingerprint))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(previous -> previous.isPresent()
+                        ? Mono.just(ResponseEntity.status(previous.get().status()).body(previous.get().body()))
+                        : issueReactive(userId, couponId)
+                                .flatMap(response -> Mono.fromCallable(() -> {
+                                    if (!completeIfTerminal(idempotencyKey, fingerprint, response)) {
+                                        idempotencyStore.abandon(idempotencyKey);
+                                    }
+                                    return response;
+                                }).subscribeOn(Schedulers.boundedElastic()))
+                                .doOnError(e -> idempotencyStore.abandon(idempotencyKey))
+                                .doOnCancel(() -> idempotencyStore.abandon(idempotencyKey)));
+    }
+
+    private Mono<ResponseEntity<String>> issueReactive(Long userId, Long couponId) {
+        return reactiveCouponService.issue(userId, couponId)
+                .thenReturn(ResponseEntity.ok("쿠폰 발급 성공"))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(failure(e)));
+    }
+
+    /**
+     * 대기표 결과 조회 (waitMillis 동안 처리 완료를 기다리는 롱 폴링, 0이면 바로 응답)
+     */
+    @GetMapping("/tickets/{ticket}")
+    public DeferredResult<IssueTicket> getTicket(
+            @PathVariable String ticket,
+            @RequestParam(defaultValue = "0") long waitMillis
+    ) {
+
+        if (waitMillis <= 0) {
+            DeferredResult<IssueTicket> result = new DeferredResult<>();
+            result.setResult(admissionQueue.find(ticket));
+            return result;
+        }
+
+        return admissionQueue.await(ticket, waitMillis);
+    }
+
     @GetMapping("/stock")
     public ResponseEntity<Integer> getStock(
             @RequestParam Long couponId
@@ -32,4 +32,8 @@ public class Coupon {
     public void decrease() {
         this.stock -= 1;
     }
+
+    public void decrease(int quantity) {
+        this.stock -= quantity;
+    }
 }
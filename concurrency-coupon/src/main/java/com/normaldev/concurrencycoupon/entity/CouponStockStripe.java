@@ -0,0 +1,42 @@
+package com.normaldev.concurrencycoupon.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 쿠폰 재고를 N개로 나눈 조각 (Striped Stock)
+ *
+ * 한 쿠폰의 재고를 여러 행에 나눠 담아, 동시 요청이 한 행에 몰리지 않게 한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Getter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+        name = "coupon_stock_stripe",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"coupon_id", "stripe"})
+        }
+)
+public class CouponStockStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long couponId;
+
+    @Column(nullable = false)
+    private int stripe;
+
+    @Column(nullable = false)
+    private int stock;
+}
@@ -0,0 +1,56 @@
+package com.normaldev.concurrencycoupon.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * CouponIssue 대량 INSERT
+ *
+ * CouponIssue는 IDENTITY 전략이라 JPA saveAll()로는 배치 INSERT가 되지 않아 JdbcTemplate으로 multi-row INSERT를 만든다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CouponIssueJdbcRepository {
+
+    private static final String INSERT_PREFIX = "INSERT IGNORE INTO coupon_issue (coupon_id, user_id) VALUES ";
+    private static final String DECREASE_STOCK =
+            "UPDATE coupon SET stock = stock - ?, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * multi-row INSERT IGNORE: 이미 발급된 (coupon_id, user_id)는 건너뛴다.
+     *
+     * @return 실제로 들어간 행 수
+     */
+    public int insertIgnore(Long couponId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        sql.append(String.join(",", Collections.nCopies(userIds.size(), "(?,?)")));
+
+        Object[] args = new Object[userIds.size() * 2];
+        int i = 0;
+        for (Long userId : userIds) {
+            args[i++] = couponId;
+            args[i++] = userId;
+        }
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+
+    /**
+     * 재고 차감 (@Version도 올려서 엔티티로 읽은 쪽의 낙관적 락이 변경을 알아채게 한다)
+     */
+    public void decreaseStock(Long couponId, int quantity) {
+        jdbcTemplate.update(DECREASE_STOCK, quantity, couponId);
+    }
+}
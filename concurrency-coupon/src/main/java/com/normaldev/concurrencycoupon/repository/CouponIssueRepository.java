@@ -2,6 +2,11 @@ package com.normaldev.concurrencycoupon.repository;
 
 import com.normaldev.concurrencycoupon.entity.CouponIssue;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  *
@@ -9,4 +14,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @date 25. 12. 26.
  */
 public interface CouponIssueRepository extends JpaRepository<CouponIssue, Long> {
+
+    @Query("SELECT i.userId FROM CouponIssue i WHERE i.couponId = :couponId AND i.userId IN :userIds")
+    List<Long> findIssuedUserIds(@Param("couponId") Long couponId, @Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,46 @@
+package com.normaldev.concurrencycoupon.repository;
+
+import com.normaldev.concurrencycoupon.entity.CouponStockStripe;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public interface CouponStockStripeRepository extends JpaRepository<CouponStockStripe, Long> {
+
+    /**
+     * 재고가 남아 있을 때만 1 차감 (조건부 UPDATE)
+     *
+     * @return 차감했으면 1, 조각의 재고가 없으면 0
+     */
+    @Modifying
+    @Query("UPDATE CouponStockStripe s SET s.stock = s.stock - 1 " +
+            "WHERE s.couponId = :couponId AND s.stripe = :stripe AND s.stock > 0")
+    int decreaseIfAvailable(@Param("couponId") Long couponId, @Param("stripe") int stripe);
+
+    /**
+     * 재입고된 재고를 조각에 나눠 더한다
+     */
+    @Modifying
+    @Query("UPDATE CouponStockStripe s SET s.stock = s.stock + :quantity " +
+            "WHERE s.couponId = :couponId AND s.stripe = :stripe")
+    int increaseStock(@Param("couponId") Long couponId, @Param("stripe") int stripe, @Param("quantity") int quantity);
+
+    @Query("SELECT s.stripe FROM CouponStockStripe s WHERE s.couponId = :couponId ORDER BY s.stripe")
+    List<Integer> findStripes(@Param("couponId") Long couponId);
+
+    @Query("SELECT s.stripe FROM CouponStockStripe s WHERE s.couponId = :couponId AND s.stock > 0 ORDER BY s.stripe")
+    List<Integer> findStripesWithStock(@Param("couponId") Long couponId);
+
+    @Query("SELECT COALESCE(SUM(s.stock), 0) FROM CouponStockStripe s WHERE s.couponId = :couponId")
+    long sumStock(@Param("couponId") Long couponId);
+
+    boolean existsByCouponId(Long couponId);
+}
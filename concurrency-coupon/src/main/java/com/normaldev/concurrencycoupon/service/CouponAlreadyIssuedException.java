@@ -0,0 +1,14 @@
+package com.normaldev.concurrencycoupon.service;
+
+/**
+ * 이미 발급받은 사용자의 발급 요청
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public class CouponAlreadyIssuedException extends IllegalStateException {
+
+    public CouponAlreadyIssuedException(String message) {
+        super(message);
+    }
+}
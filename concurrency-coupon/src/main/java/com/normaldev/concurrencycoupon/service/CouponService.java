@@ -1,5 +1,10 @@
 package com.normaldev.concurrencycoupon.service;
 
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  *
  * @author junnukim1007gmail.com
@@ -10,4 +15,26 @@ public interface CouponService {
     void issue(Long userId, Long couponId);
 
     Integer getStock(Long couponId);
+
+    /**
+     * 여러 사용자에게 한 번에 발급한다.
+     * 기본 구현은 issue()를 한 명씩 호출하며, 대량 발급을 지원하는 구현은 재정의한다.
+     * 잘못된 요청(품절 포함)과 중복 발급이 아닌 실패는 결과를 확정하지 못한 것으로 보고 retryable 로 돌려준다.
+     *
+     * @return userIds와 같은 순서의 사용자별 결과
+     */
+    default List<IssueResult> issueBatch(Long couponId, List<Long> userIds) {
+        List<IssueResult> results = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            try {
+                issue(userId, couponId);
+                results.add(IssueResult.issued(userId));
+            } catch (IllegalArgumentException | CouponAlreadyIssuedException | DataIntegrityViolationException e) {
+                results.add(IssueResult.failed(userId, e.getMessage()));
+            } catch (RuntimeException e) {
+                results.add(IssueResult.retryable(userId, e.getMessage()));
+            }
+        }
+        return results;
+    }
 }
@@ -0,0 +1,14 @@
+package com.normaldev.concurrencycoupon.service;
+
+/**
+ * 쿠폰 재고가 없어 발급하지 못함
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public class CouponSoldOutException extends IllegalArgumentException {
+
+    public CouponSoldOutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.normaldev.concurrencycoupon.service;
+
+/**
+ * 사용자별 발급 결과
+ *
+ * retryable: 발급 여부를 확정하지 못한 실패 (DB 연결 끊김, 락 타임아웃, 커밋 실패 등).
+ * 품절, 이미 발급, 잘못된 요청처럼 다시 시도해도 같은 결과인 실패는 false.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public record IssueResult(Long userId, boolean issued, String message, boolean retryable) {
+
+    public static IssueResult issued(Long userId) {
+        return new IssueResult(userId, true, null, false);
+    }
+
+    public static IssueResult failed(Long userId, String message) {
+        return new IssueResult(userId, false, message, false);
+    }
+
+    public static IssueResult retryable(Long userId, String message) {
+        return new IssueResult(userId, false, message, true);
+    }
+}
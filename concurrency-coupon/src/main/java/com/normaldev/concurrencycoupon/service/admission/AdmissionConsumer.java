@@ -0,0 +1,221 @@
+package com.normaldev.concurrencycoupon.service.admission;
+
+import com.normaldev.concurrencycoupon.service.CouponService;
+import com.normaldev.concurrencycoupon.service.IssueResult;
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 발급 대기열 소비자
+ *
+ * Stream 컨슈머 그룹으로 대기열을 batch-size 만큼씩 읽어 쿠폰별로 issueBatch 한 번에 발급하고, 대기표에 사용자별 결과를 남긴 뒤 ACK 한다.
+ * issueBatch 자체가 실패하거나 사용자별 결과가 retryable(DB 장애 등)이면 결과를 확정하지 않고 ACK 하지 않아 아래 회수 과정으로 다시 처리한다.
+ * 발급은 BulkCouponIssueService가 하므로 분산 락, CouponClaimRegistry, LocalStockGate를 거치지 않는다. (BulkCouponIssueService 참고)
+ *
+ * ACK 하지 못한 레코드 회수:
+ * - 같은 이름으로 다시 뜬 소비자는 기동 시 자기 대기 목록(PEL)부터 다시 읽는다.
+ * - 죽었거나 이름이 바뀐 소비자(consumer-name은 기본값이 HOSTNAME이라 컨테이너마다 바뀐다)의 레코드는
+ *   claim-idle-millis 동안 ACK 되지 않으면 살아 있는 소비자가 XAUTOCLAIM으로 가져와 처리한다.
+ *   가져온 레코드는 자기 PEL에 들어오므로 PEL부터 다시 읽는다. (결과는 처음 남긴 것만 유지된다)
+ *
+ * 배치 하나는 도착 순서대로 처리하지만, 소비자가 여럿이면(서버당 consumers, 서버 수) 배치가 동시에 처리되므로
+ * 전체 도착 순서는 보장하지 않는다. 서버 하나, 소비자 하나일 때만 Stream 순서 그대로 발급된다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "coupon.admission.enabled", havingValue = "true")
+public class AdmissionConsumer {
+
+    static final String GROUP = "coupon-issuers";
+
+    private static final RedisScript<List> AUTOCLAIM_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/admission-autoclaim.lua"), List.class);
+    private static final Duration BLOCK_TIME = Duration.ofSeconds(2);
+    private static final long RETRY_BACKOFF_MILLIS = 1_000L;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final CouponService couponService;
+    private final AdmissionQueue admissionQueue;
+    private final int batchSize;
+    private final int consumerCount;
+    private final String consumerName;
+    private final long claimIdleMillis;
+
+    private final List<Thread> consumers = new ArrayList<>();
+    private volatile boolean running;
+
+    public AdmissionConsumer(RedisTemplate<String, String> redisTemplate,
+                             CouponService couponService,
+                             AdmissionQueue admissionQueue,
+                             @Value("${coupon.admission.batch-size:100}") int batchSize,
+                             @Value("${coupon.admission.consumers:1}") int consumerCount,
+                             @Value("${coupon.admission.consumer-name:${HOSTNAME:local}}") String consumerName,
+                             @Value("${coupon.admission.claim-idle-millis:30000}") long claimIdleMillis) {
+        this.redisTemplate = redisTemplate;
+        this.couponService = couponService;
+        this.admissionQueue = admissionQueue;
+        this.batchSize = batchSize;
+        this.consumerCount = consumerCount;
+        this.consumerName = consumerName;
+        this.claimIdleMillis = claimIdleMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        createGroup();
+
+        running = true;
+        for (int i = 0; i < consumerCount; i++) {
+            Consumer consumer = Consumer.from(GROUP, consumerName + "-" + i);
+            Thread thread = new Thread(() -> consume(consumer), "coupon-admission-consumer-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            consumers.add(thread);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread thread : consumers) {
+            thread.join(BLOCK_TIME.toMillis() * 2);
+        }
+    }
+
+    // 컨슈머 그룹이 이미 있으면 그대로 사용 (Stream이 없으면 함께 생성)
+    private void createGroup() {
+        byte[] key = CouponRedisKeys.admissionStream().getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.streamCommands().xGroupCreate(key, GROUP, ReadOffset.from("0"), true));
+        } catch (DataAccessException e) {
+            log.debug("발급 대기열 컨슈머 그룹이 이미 존재: {}", e.getMessage());
+        }
+    }
+
+    private void consume(Consumer consumer) {
+        // 처음에는 이전에 읽고 ACK 하지 못한 레코드부터, 다 처리하면 새 레코드를 읽는다
+        ReadOffset offset = ReadOffset.from("0");
+        long nextClaimAt = 0L;
+
+        while (running) {
+            try {
+                if (System.currentTimeMillis() >= nextClaimAt) {
+                    nextClaimAt = System.currentTimeMillis() + claimIdleMillis;
+                    if (claimStale(consumer) > 0) {
+                        offset = ReadOffset.from("0");
+                    }
+                }
+
+                List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                        consumer,
+                        StreamReadOptions.empty().count(batchSize).block(BLOCK_TIME),
+                        StreamOffset.create(CouponRedisKeys.admissionStream(), offset));
+
+                if (records == null || records.isEmpty()) {
+                    offset = ReadOffset.lastConsumed();
+                    continue;
+                }
+                issue(records);
+            } catch (RuntimeException e) {
+                log.warn("발급 대기열 처리 실패, {}ms 후 재시도", RETRY_BACKOFF_MILLIS, e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    // 다른 소비자가 claim-idle-millis 넘게 ACK 하지 않은 레코드를 이 소비자의 PEL로 가져온다
+    private int claimStale(Consumer consumer) {
+        List<?> claimed = redisTemplate.execute(AUTOCLAIM_SCRIPT, List.of(CouponRedisKeys.admissionStream()),
+                GROUP, consumer.getName(), String.valueOf(claimIdleMillis), String.valueOf(batchSize));
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        log.info("ACK 되지 않은 대기열 레코드 {}건 회수 - consumer: {}", claimed.size(), consumer.getName());
+        return claimed.size();
+    }
+
+    // 배치 안의 요청을 쿠폰별로 모아 issueBatch 한 번으로 발급 (쿠폰 안에서는 도착 순서 유지)
+    private void issue(List<MapRecord<String, Object, Object>> records) {
+        Map<Long, List<MapRecord<String, Object, Object>>> recordsByCoupon = new LinkedHashMap<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            Long couponId = Long.valueOf((String) record.getValue().get("couponId"));
+            recordsByCoupon.computeIfAbsent(couponId, id -> new ArrayList<>()).add(record);
+        }
+
+        List<RecordId> done = new ArrayList<>(records.size());
+        for (Map.Entry<Long, List<MapRecord<String, Object, Object>>> coupon : recordsByCoupon.entrySet()) {
+            List<MapRecord<String, Object, Object>> couponRecords = coupon.getValue();
+            List<Long> userIds = couponRecords.stream()
+                    .map(record -> Long.valueOf((String) record.getValue().get("userId")))
+                    .toList();
+
+            try {
+                // 사용자별 결과로 대기표를 하나씩 정리한다 (issueBatch는 chunk 실패도 사용자별 결과로 돌려준다)
+                List<IssueResult> results = couponService.issueBatch(coupon.getKey(), userIds);
+                int retrying = 0;
+                for (int i = 0; i < couponRecords.size(); i++) {
+                    IssueResult result = results.get(i);
+                    if (result.retryable()) {
+                        // DB 장애 등으로 확정하지 못한 결과는 대기표에 남기지 않고 ACK 하지 않는다 (아래와 같은 회수 경로)
+                        retrying++;
+                        continue;
+                    }
+                    admissionQueue.complete(couponRecords.get(i).getId().getValue(), result.issued(), result.message());
+                    done.add(couponRecords.get(i).getId());
+                }
+                if (retrying > 0) {
+                    log.warn("발급 대기열 발급 결과 미확정, 다시 처리하도록 남겨둠 - couponId: {}, {}건", coupon.getKey(), retrying);
+                }
+            } catch (RuntimeException e) {
+                // 결과를 알 수 없는 실패(Redis/DB 장애 등)는 실패로 확정하지 않고 ACK 하지 않는다
+                // (PEL에 남은 레코드는 claim-idle-millis 뒤 XAUTOCLAIM으로 다시 처리된다)
+                log.warn("발급 대기열 쿠폰 처리 실패, 다시 처리하도록 남겨둠 - couponId: {}, {}건",
+                        coupon.getKey(), couponRecords.size(), e);
+            }
+        }
+
+        if (done.isEmpty()) {
+            return;
+        }
+        RecordId[] ids = done.toArray(RecordId[]::new);
+        redisTemplate.opsForStream().acknowledge(CouponRedisKeys.admissionStream(), GROUP, ids);
+        redisTemplate.opsForStream().delete(CouponRedisKeys.admissionStream(), ids);
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
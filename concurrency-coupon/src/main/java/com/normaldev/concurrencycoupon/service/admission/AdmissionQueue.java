@@ -0,0 +1,149 @@
+package com.normaldev.concurrencycoupon.service.admission;
+
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 쿠폰 발급 대기열 (Redis Stream)
+ *
+ * 발급 요청은 Stream에 도착 순서대로 쌓고, Stream 레코드 ID를 대기표로 바로 돌려준다. (Redis 왕복 1번)
+ * 실제 발급은 AdmissionConsumer가 배치 단위로 처리하고 결과를 대기표 키에 남긴다.
+ * Stream에 쌓이는 순서는 모든 서버에서 하나지만, 여러 소비자(여러 서버 포함)가 배치를 동시에 처리하면
+ * 발급 순서는 배치 안에서만 도착 순서를 따른다.
+ * 결과 조회는 롱 폴링으로, 처리 완료 알림(Pub/Sub)을 받으면 기다리던 요청에 바로 응답한다.
+ * Stream에도 없고 결과도 없는 대기표(잘못된 대기표, 결과 보관 시간이 지난 대기표)는 NOT_FOUND로 응답한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Component
+public class AdmissionQueue implements MessageListener {
+
+    public static final String TICKET_DONE_CHANNEL = "coupon:ticket:done";
+
+    private static final String FAILED_PREFIX = "FAILED:";
+    private static final long MAX_WAIT_MILLIS = 30_000L;
+    private static final Pattern TICKET_PATTERN = Pattern.compile("\\d+-\\d+");
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration ticketTtl;
+
+    // 이 서버에서 결과를 기다리는 롱 폴링 요청
+    private final Map<String, Set<DeferredResult<IssueTicket>>> waiters = new ConcurrentHashMap<>();
+
+    public AdmissionQueue(RedisTemplate<String, String> redisTemplate,
+                          RedisMessageListenerContainer listenerContainer,
+                          @Value("${coupon.admission.ticket-ttl-seconds:600}") long ticketTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.ticketTtl = Duration.ofSeconds(ticketTtlSeconds);
+        listenerContainer.addMessageListener(this, new ChannelTopic(TICKET_DONE_CHANNEL));
+    }
+
+    /**
+     * 발급 요청을 대기열 끝에 넣고 대기표를 돌려준다.
+     */
+    public String admit(Long userId, Long couponId) {
+        RecordId recordId = redisTemplate.opsForStream().add(
+                StreamRecords.string(Map.of(
+                        "userId", String.valueOf(userId),
+                        "couponId", String.valueOf(couponId)))
+                        .withStreamKey(CouponRedisKeys.admissionStream()));
+
+        return recordId.getValue();
+    }
+
+    /**
+     * 대기표 상태 조회 (결과가 없으면 Stream에 남아 있을 때만 대기 중, 아니면 NOT_FOUND)
+     */
+    public IssueTicket find(String ticket) {
+        if (!TICKET_PATTERN.matcher(ticket).matches()) {
+            return IssueTicket.notFound(ticket);
+        }
+
+        // 소비자는 결과를 남긴 뒤 레코드를 지우므로, 레코드를 먼저 확인하면 "레코드도 결과도 없음"을 잘못 볼 일이 없다
+        boolean queued = isQueued(ticket);
+        String result = redisTemplate.opsForValue().get(CouponRedisKeys.ticket(ticket));
+        if (result == null) {
+            return queued ? IssueTicket.waiting(ticket) : IssueTicket.notFound(ticket);
+        }
+        if (result.startsWith(FAILED_PREFIX)) {
+            return new IssueTicket(ticket, TicketStatus.FAILED, result.substring(FAILED_PREFIX.length()));
+        }
+        return new IssueTicket(ticket, TicketStatus.ISSUED, null);
+    }
+
+    /**
+     * 처리가 끝날 때까지 최대 timeout(상한 30초) 동안 기다리는 롱 폴링 조회
+     */
+    public DeferredResult<IssueTicket> await(String ticket, long timeoutMillis) {
+        DeferredResult<IssueTicket> deferred =
+                new DeferredResult<>(Math.min(timeoutMillis, MAX_WAIT_MILLIS), IssueTicket.waiting(ticket));
+
+        Set<DeferredResult<IssueTicket>> ticketWaiters = waiters.computeIfAbsent(ticket, t -> ConcurrentHashMap.newKeySet());
+        ticketWaiters.add(deferred);
+        deferred.onCompletion(() -> removeWaiter(ticket, deferred));
+
+        // 등록하기 전에 이미 끝났을 수 있으므로 등록 후 한 번 확인
+        IssueTicket current = find(ticket);
+        if (current.isDone()) {
+            deferred.setResult(current);
+        }
+        return deferred;
+    }
+
+    /**
+     * 처리 결과를 남기고 기다리는 요청을 깨운다. (AdmissionConsumer가 호출)
+     * 회수(XAUTOCLAIM)로 같은 레코드가 다시 처리될 수 있으므로 처음 남긴 결과를 덮어쓰지 않는다.
+     */
+    void complete(String ticket, boolean issued, String message) {
+        String result = issued ? TicketStatus.ISSUED.name() : FAILED_PREFIX + message;
+        redisTemplate.opsForValue().setIfAbsent(CouponRedisKeys.ticket(ticket), result, ticketTtl);
+        redisTemplate.convertAndSend(TICKET_DONE_CHANNEL, ticket);
+    }
+
+    private boolean isQueued(String ticket) {
+        List<MapRecord<String, Object, Object>> records =
+                redisTemplate.opsForStream().range(CouponRedisKeys.admissionStream(), Range.closed(ticket, ticket));
+        return records != null && !records.isEmpty();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String ticket = new String(message.getBody(), StandardCharsets.UTF_8);
+        Set<DeferredResult<IssueTicket>> ticketWaiters = waiters.get(ticket);
+        if (ticketWaiters == null) {
+            return;
+        }
+
+        IssueTicket result = find(ticket);
+        for (DeferredResult<IssueTicket> deferred : ticketWaiters) {
+            deferred.setResult(result);
+        }
+    }
+
+    private void removeWaiter(String ticket, DeferredResult<IssueTicket> deferred) {
+        waiters.computeIfPresent(ticket, (t, ticketWaiters) -> {
+            ticketWaiters.remove(deferred);
+            return ticketWaiters.isEmpty() ? null : ticketWaiters;
+        });
+    }
+}
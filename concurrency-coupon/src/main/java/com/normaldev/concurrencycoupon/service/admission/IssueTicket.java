@@ -0,0 +1,22 @@
+package com.normaldev.concurrencycoupon.service.admission;
+
+/**
+ * 발급 대기표 조회 결과
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public record IssueTicket(String ticket, TicketStatus status, String message) {
+
+    public static IssueTicket waiting(String ticket) {
+        return new IssueTicket(ticket, TicketStatus.WAITING, null);
+    }
+
+    public static IssueTicket notFound(String ticket) {
+        return new IssueTicket(ticket, TicketStatus.NOT_FOUND, null);
+    }
+
+    public boolean isDone() {
+        return status != TicketStatus.WAITING;
+    }
+}
@@ -0,0 +1,16 @@
+package com.normaldev.concurrencycoupon.service.admission;
+
+/**
+ * 발급 대기표 상태
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public enum TicketStatus {
+
+    WAITING,
+    ISSUED,
+    FAILED,
+    // 발급한 적 없는 대기표이거나 결과 보관 시간(ticket-ttl-seconds)이 지난 대기표
+    NOT_FOUND
+}
@@ -0,0 +1,155 @@
+package com.normaldev.concurrencycoupon.service.bulk;
+
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.repository.CouponIssueJdbcRepository;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.IssueResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 대량 쿠폰 발급
+ *
+ * 한 명씩 발급하면 사용자마다 락 획득 + 트랜잭션이 반복된다. 여기서는 chunk-size 명씩 트랜잭션 하나로
+ * 1. 쿠폰 행에 비관적 락을 잡고
+ * 2. 이미 발급받은 사용자를 IN 조회 한 번으로 걸러낸 뒤
+ * 3. 남은 재고만큼 multi-row INSERT로 발급 이력을 저장하고, 실제로 들어간 만큼 재고를 차감한다.
+ * 예약(차감)과 저장이 같은 트랜잭션이라 저장에 실패한 chunk는 통째로 롤백되고, 해당 사용자만 실패로 응답한다.
+ * DB 장애처럼 결과를 확정할 수 없는 실패는 retryable 결과로 돌려줘 호출하는 쪽이 다시 시도할 수 있게 한다.
+ * (돌려줄 재고가 없으므로 보상 처리도 없다. 실패한 chunk가 있어도 다음 chunk는 계속 처리한다)
+ *
+ * 분산 락, CouponClaimRegistry, LocalStockGate를 거치지 않는다.
+ * 초과 발급과 중복 발급은 쿠폰 행 락과 (coupon_id, user_id) 유니크 제약이 막지만,
+ * - 대량 발급으로 받은 사용자가 단건 발급을 요청하면 Bitmap에는 기록이 없어 DB 유니크 제약에서야 거절되고
+ * - 각 서버의 LocalStockGate는 대량 발급으로 줄어든 재고를 refresh-interval 뒤에야 알게 된다. (덜 거르는 쪽으로만 틀린다)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Slf4j
+@Service
+public class BulkCouponIssueService {
+
+    private static final String ALREADY_ISSUED = "이미 발급받은 쿠폰입니다.";
+    private static final String SOLD_OUT = "쿠폰 재고가 없습니다.";
+
+    private final CouponRepository couponRepository;
+    private final CouponIssueRepository issueRepository;
+    private final CouponIssueJdbcRepository issueJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BulkCouponIssueService(CouponRepository couponRepository,
+                                  CouponIssueRepository issueRepository,
+                                  CouponIssueJdbcRepository issueJdbcRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${coupon.bulk.chunk-size:1000}") int chunkSize) {
+        this.couponRepository = couponRepository;
+        this.issueRepository = issueRepository;
+        this.issueJdbcRepository = issueJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * chunk가 실패해도 예외를 던지지 않고 사용자별 결과로 돌려준다. (DB 장애로 실패한 chunk는 {@link IssueResult#retryable()})
+     *
+     * @return userIds와 같은 순서의 사용자별 결과
+     */
+    public List<IssueResult> issueBatch(Long couponId, List<Long> userIds) {
+        Map<Long, IssueResult> results = new HashMap<>();
+
+        // 요청 안의 중복은 처음 한 번만 발급 대상으로 본다
+        List<Long> candidates = new ArrayList<>(new LinkedHashSet<>(userIds));
+
+        boolean soldOut = false;
+        for (List<Long> chunk : chunks(candidates)) {
+            if (soldOut) {
+                chunk.forEach(userId -> results.put(userId, IssueResult.failed(userId, SOLD_OUT)));
+                continue;
+            }
+            soldOut = issueChunk(couponId, chunk, results);
+        }
+
+        return toOrderedResults(userIds, results);
+    }
+
+    /**
+     * @return 이 chunk로 재고가 모두 소진됐으면 true (남은 chunk는 DB에 가지 않고 품절로 응답)
+     */
+    private boolean issueChunk(Long couponId, List<Long> chunk, Map<Long, IssueResult> results) {
+        Map<Long, IssueResult> chunkResults = new HashMap<>();
+        try {
+            Boolean soldOut = transactionTemplate.execute(status -> {
+                Coupon coupon = couponRepository.findByIdWithPessimisticLock(couponId)
+                        .orElseThrow(() -> new IllegalArgumentException("쿠폰을 찾을 수 없습니다."));
+
+                Set<Long> issued = new HashSet<>(issueRepository.findIssuedUserIds(couponId, chunk));
+                int available = Math.max(coupon.getStock(), 0);
+                List<Long> granted = new ArrayList<>();
+                for (Long userId : chunk) {
+                    if (issued.contains(userId)) {
+                        chunkResults.put(userId, IssueResult.failed(userId, ALREADY_ISSUED));
+                    } else if (granted.size() < available) {
+                        granted.add(userId);
+                    } else {
+                        chunkResults.put(userId, IssueResult.failed(userId, SOLD_OUT));
+                    }
+                }
+
+                // 조회 이후 쿠폰 행 락 없이 다른 경로로 먼저 발급된 사용자는 INSERT IGNORE로 건너뛰고 들어간 만큼만 차감한다
+                // (해당 사용자는 이미 쿠폰을 가지고 있으므로 발급으로 응답)
+                int inserted = issueJdbcRepository.insertIgnore(couponId, granted);
+                coupon.decrease(inserted);
+                granted.forEach(userId -> chunkResults.put(userId, IssueResult.issued(userId)));
+                return coupon.getStock() <= 0;
+            });
+
+            results.putAll(chunkResults);
+            return Boolean.TRUE.equals(soldOut);
+        } catch (RuntimeException e) {
+            // 트랜잭션이 롤백되어 재고도 이력도 바뀌지 않았다
+            log.warn("쿠폰 대량 발급 chunk 실패 - couponId: {}, {}명", couponId, chunk.size(), e);
+            // 쿠폰이 없는 등 잘못된 요청은 확정 실패, 그 밖(DB 연결 끊김, 락 타임아웃, 커밋 실패 등)은 다시 시도할 수 있는 실패
+            if (e instanceof IllegalArgumentException) {
+                chunk.forEach(userId -> results.put(userId, IssueResult.failed(userId, e.getMessage())));
+            } else {
+                chunk.forEach(userId -> results.put(userId, IssueResult.retryable(userId, "쿠폰 발급 저장 실패")));
+            }
+            return false;
+        }
+    }
+
+    private List<List<Long>> chunks(List<Long> userIds) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < userIds.size(); from += chunkSize) {
+            chunks.add(userIds.subList(from, Math.min(from + chunkSize, userIds.size())));
+        }
+        return chunks;
+    }
+
+    // 같은 사용자가 여러 번 들어 있으면 첫 번째만 결과를 그대로, 나머지는 중복 요청으로 응답
+    private static List<IssueResult> toOrderedResults(List<Long> userIds, Map<Long, IssueResult> results) {
+        List<IssueResult> ordered = new ArrayList<>(userIds.size());
+        Set<Long> seen = new HashSet<>();
+        for (Long userId : userIds) {
+            if (seen.add(userId)) {
+                ordered.add(results.get(userId));
+            } else {
+                ordered.add(IssueResult.failed(userId, "같은 요청에 중복된 사용자입니다."));
+            }
+        }
+        return ordered;
+    }
+}
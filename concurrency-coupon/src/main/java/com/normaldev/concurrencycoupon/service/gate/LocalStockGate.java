@@ -0,0 +1,156 @@
+package com.normaldev.concurrencycoupon.service.gate;
+
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.CouponAlreadyIssuedException;
+import com.normaldev.concurrencycoupon.service.CouponSoldOutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 분산 락 앞에 두는 서버(JVM) 로컬 재고 게이트
+ *
+ * 품절된 쿠폰이나 이미 발급받은 사용자의 요청을 Redis/DB 호출 없이 메모리에서 바로 거절한다.
+ * 쿠폰마다 마지막으로 확인한 재고만큼 토큰을 두고, 토큰을 얻은 요청만 분산 락 경로로 보낸다.
+ * (선착순 이벤트는 대부분의 요청이 품절 이후에 들어오므로, 이 요청들이 락과 DB 조회를 하지 않게 된다)
+ *
+ * 재고는 줄어들기만 하므로 로컬 토큰은 실제 재고보다 많거나 같다. 즉 게이트는 통과시킬 요청을 덜 거르는 쪽으로만 틀리고,
+ * 최종 판단은 여전히 분산 락 안의 DB가 한다. 토큰이 떨어지거나 품절로 본 뒤 refresh-interval이 지나면 DB 재고로 다시 맞춘다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Component
+public class LocalStockGate {
+
+    private final CouponRepository couponRepository;
+    private final long refreshIntervalMillis;
+
+    private final Map<Long, Gate> gates = new ConcurrentHashMap<>();
+
+    public LocalStockGate(CouponRepository couponRepository,
+                          @Value("${coupon.gate.refresh-interval-millis:1000}") long refreshIntervalMillis) {
+        this.couponRepository = couponRepository;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * 분산 락 경로로 들어가기 전에 토큰을 얻는다. 끝나면 반드시 {@link #issued} 또는 {@link #failed}를 호출해야 한다.
+     *
+     * @throws CouponAlreadyIssuedException 이미 발급받은 사용자인 경우
+     * @throws IllegalStateException 토큰이 남아 있지 않은 경우
+     * @throws CouponSoldOutException 품절된 쿠폰인 경우
+     */
+    public void enter(Long userId, Long couponId) {
+        Gate gate = gates.computeIfAbsent(couponId, this::load);
+
+        if (gate.claimedUsers.contains(userId)) {
+            throw new CouponAlreadyIssuedException("이미 발급받은 쿠폰입니다.");
+        }
+
+        if (!gate.soldOut && gate.tokens.decrementAndGet() >= 0) {
+            return;
+        }
+        if (!gate.soldOut) {
+            gate.tokens.incrementAndGet();
+        }
+
+        refreshIfStale(couponId, gate);
+        if (gate.soldOut) {
+            throw new CouponSoldOutException("쿠폰 재고가 없습니다.");
+        }
+        // 토큰은 모두 다른 요청이 들고 있다 (그 요청들이 실패하면 토큰이 돌아온다)
+        throw new IllegalStateException("쿠폰 발급 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+    }
+
+    /**
+     * 발급 성공: 토큰을 소모하고 사용자를 기록한다.
+     */
+    public void issued(Long userId, Long couponId) {
+        Gate gate = gates.get(couponId);
+        if (gate != null) {
+            gate.claimedUsers.add(userId);
+        }
+    }
+
+    /**
+     * 발급 실패: 품절이면 게이트를 닫고, 중복 발급이면 사용자를 기록하고, 그 밖의 실패는 토큰을 돌려준다.
+     */
+    public void failed(Long userId, Long couponId, RuntimeException cause) {
+        Gate gate = gates.get(couponId);
+        if (gate == null) {
+            return;
+        }
+
+        if (cause instanceof CouponSoldOutException) {
+            gate.markSoldOut();
+            return;
+        }
+        if (cause instanceof CouponAlreadyIssuedException || cause instanceof DataIntegrityViolationException) {
+            gate.claimedUsers.add(userId);
+        }
+        gate.tokens.incrementAndGet();
+    }
+
+    /**
+     * 쿠폰의 로컬 상태를 버린다 (재고를 다시 채웠을 때 등). 다음 요청에서 DB 재고로 다시 만든다.
+     */
+    public void evict(Long couponId) {
+        gates.remove(couponId);
+    }
+
+    private Gate load(Long couponId) {
+        Gate gate = new Gate();
+        gate.reset(currentStock(couponId));
+        return gate;
+    }
+
+    // 한 요청만 DB를 조회하고, 나머지는 기다리지 않고 현재 상태로 판단한다
+    private void refreshIfStale(Long couponId, Gate gate) {
+        if (System.currentTimeMillis() - gate.refreshedAt < refreshIntervalMillis) {
+            return;
+        }
+        if (!gate.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            gate.reset(currentStock(couponId));
+        } finally {
+            gate.refreshing.set(false);
+        }
+    }
+
+    private int currentStock(Long couponId) {
+        return couponRepository.findById(couponId)
+                .orElseThrow(() -> new IllegalArgumentException("쿠폰을 찾을 수 없습니다."))
+                .getStock();
+    }
+
+    private static final class Gate {
+
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private final Set<Long> claimedUsers = ConcurrentHashMap.newKeySet();
+        private volatile boolean soldOut;
+        private volatile long refreshedAt;
+
+        void reset(int stock) {
+            soldOut = stock <= 0;
+            tokens.set(Math.max(stock, 0));
+            refreshedAt = System.currentTimeMillis();
+        }
+
+        void markSoldOut() {
+            soldOut = true;
+            tokens.set(0);
+            refreshedAt = System.currentTimeMillis();
+        }
+    }
+}
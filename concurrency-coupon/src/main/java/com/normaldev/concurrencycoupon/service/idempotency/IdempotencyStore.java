@@ -0,0 +1,103 @@
+package com.normaldev.concurrencycoupon.service.idempotency;
+
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Idempotency-Key 헤더로 받은 요청의 응답 저장소
+ *
+ * 클라이언트가 타임아웃 등으로 같은 요청을 다시 보내도, 처음 처리한 응답을 그대로 돌려줘서 발급이 두 번 일어나지 않게 한다.
+ * 처리를 시작할 때 SET NX로 키를 선점하고, 처리가 끝나면 응답으로 덮어쓴다.
+ *
+ * - 결과가 정해진 응답(발급 성공, 품절, 이미 발급 등)만 저장한다. 다시 시도하면 결과가 달라질 수 있는 실패(락 대기 초과,
+ *   Redis/DB 장애 등)는 {@link #abandon}으로 키를 지워 같은 키로 다시 시도할 수 있게 한다.
+ * - 키와 함께 요청 파라미터의 지문(fingerprint)을 저장하고, 같은 키가 다른 파라미터로 들어오면 422로 거절한다.
+ *
+ * 저장 형식: "지문|IN_PROGRESS" 또는 "지문|상태 코드|본문"
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String SEPARATOR = "|";
+    private static final Duration IN_PROGRESS_TTL = Duration.ofSeconds(30);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration responseTtl;
+
+    public IdempotencyStore(RedisTemplate<String, String> redisTemplate,
+                            @Value("${coupon.idempotency.ttl-hours:24}") long ttlHours) {
+        this.redisTemplate = redisTemplate;
+        this.responseTtl = Duration.ofHours(ttlHours);
+    }
+
+    /**
+     * 요청 파라미터로 지문을 만든다. (같은 키로 다른 요청을 보냈는지 확인하는 용도)
+     */
+    public static String fingerprint(Object... params) {
+        return Arrays.stream(params).map(String::valueOf).collect(Collectors.joining(":"));
+    }
+
+    /**
+     * 처리를 시작한다.
+     *
+     * @return 처음 들어온 키면 빈 값, 이미 처리했거나 처리 중이거나 다른 요청에 쓰인 키면 돌려줄 응답
+     */
+    public Optional<StoredResponse> begin(String idempotencyKey, String fingerprint) {
+        String key = CouponRedisKeys.idempotency(idempotencyKey);
+
+        Boolean first = redisTemplate.opsForValue().setIfAbsent(key, fingerprint + SEPARATOR + IN_PROGRESS, IN_PROGRESS_TTL);
+        if (Boolean.TRUE.equals(first)) {
+            return Optional.empty();
+        }
+
+        String stored = redisTemplate.opsForValue().get(key);
+        if (stored == null) {
+            // 확인하는 사이 처리 중이던 요청이 실패해 키가 지워진 경우
+            return Optional.of(new StoredResponse(409, "같은 요청을 처리 중입니다. 잠시 후 다시 시도해주세요."));
+        }
+
+        int fingerprintEnd = stored.indexOf(SEPARATOR);
+        if (fingerprintEnd < 0 || !stored.substring(0, fingerprintEnd).equals(fingerprint)) {
+            return Optional.of(new StoredResponse(422, "다른 요청에 사용된 Idempotency-Key입니다."));
+        }
+
+        String outcome = stored.substring(fingerprintEnd + 1);
+        if (IN_PROGRESS.equals(outcome)) {
+            // 처리 중이던 요청이 끝나거나 만료되기 전에 다시 들어온 경우
+            return Optional.of(new StoredResponse(409, "같은 요청을 처리 중입니다. 잠시 후 다시 시도해주세요."));
+        }
+
+        int statusEnd = outcome.indexOf(SEPARATOR);
+        return Optional.of(new StoredResponse(
+                Integer.parseInt(outcome.substring(0, statusEnd)),
+                outcome.substring(statusEnd + 1)));
+    }
+
+    /**
+     * 결과가 정해진 응답을 저장한다.
+     */
+    public void complete(String idempotencyKey, String fingerprint, StoredResponse response) {
+        redisTemplate.opsForValue().set(
+                CouponRedisKeys.idempotency(idempotencyKey),
+                fingerprint + SEPARATOR + response.status() + SEPARATOR + response.body(),
+                responseTtl);
+    }
+
+    /**
+     * 다시 시도하면 결과가 달라질 수 있는 실패로 끝났을 때 키를 지운다. (같은 키로 다시 처리할 수 있음)
+     */
+    public void abandon(String idempotencyKey) {
+        redisTemplate.delete(CouponRedisKeys.idempotency(idempotencyKey));
+    }
+}
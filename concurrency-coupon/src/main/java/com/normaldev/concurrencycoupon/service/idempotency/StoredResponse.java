@@ -0,0 +1,10 @@
+package com.normaldev.concurrencycoupon.service.idempotency;
+
+/**
+ * 멱등키로 저장해 둔 응답
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public record StoredResponse(int status, String body) {
+}
@@ -0,0 +1,58 @@
+package com.normaldev.concurrencycoupon.service.redis;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 쿠폰별 발급 사용자 기록 (Redis Bitmap)
+ *
+ * 중복 발급은 원래 재고를 차감한 뒤 coupon_issue의 (coupon_id, user_id) 유니크 제약 위반으로 알게 된다.
+ * 발급 전에 사용자를 Bitmap에 원자적으로 표시(SETBIT)하고, 이미 표시돼 있으면 DB에 가기 전에 거절한다.
+ * userId 하나당 1비트라 1억 명도 약 12MB면 되고, max-bitmap-user-id보다 큰 ID는 Set에 담는다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Component
+public class CouponClaimRegistry {
+
+    private static final RedisScript<Long> CLAIM_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/coupon-claim.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/coupon-claim-release.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String maxBitmapUserId;
+
+    public CouponClaimRegistry(RedisTemplate<String, String> redisTemplate,
+                               @Value("${coupon.claim.max-bitmap-user-id:100000000}") long maxBitmapUserId) {
+        this.redisTemplate = redisTemplate;
+        this.maxBitmapUserId = String.valueOf(maxBitmapUserId);
+    }
+
+    /**
+     * 사용자를 발급 대상으로 표시한다.
+     *
+     * @return 처음 표시했으면 true, 이미 발급받은 사용자면 false
+     */
+    public boolean claim(Long couponId, Long userId) {
+        Long result = redisTemplate.execute(CLAIM_SCRIPT, keys(couponId), String.valueOf(userId), maxBitmapUserId);
+        return Long.valueOf(1L).equals(result);
+    }
+
+    /**
+     * 발급이 취소된 사용자의 표시를 지운다.
+     */
+    public void release(Long couponId, Long userId) {
+        redisTemplate.execute(RELEASE_SCRIPT, keys(couponId), String.valueOf(userId), maxBitmapUserId);
+    }
+
+    private static List<String> keys(Long couponId) {
+        return List.of(CouponRedisKeys.claimed(couponId), CouponRedisKeys.claimedLarge(couponId));
+    }
+}
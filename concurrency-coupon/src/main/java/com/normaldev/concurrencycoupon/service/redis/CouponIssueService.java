@@ -4,11 +4,20 @@ import com.normaldev.concurrencycoupon.entity.Coupon;
 import com.normaldev.concurrencycoupon.entity.CouponIssue;
 import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
 import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.CouponSoldOutException;
+import com.normaldev.concurrencycoupon.service.CouponAlreadyIssuedException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
+ * 분산 락 안에서 실행하는 발급 트랜잭션
+ *
+ * 재고를 보기 전에 CouponClaimRegistry(Redis Bitmap)에 사용자를 먼저 표시해서,
+ * 중복 요청은 DB에 가지 않고 거절하고 재고도 두 번 차감하지 않는다.
+ * 트랜잭션이 롤백되면(품절 등) 표시를 지워 다시 요청할 수 있게 한다.
  *
  * @author junnukim1007gmail.com
  * @date 26. 1. 4.
@@ -19,17 +28,34 @@ public class CouponIssueService {
 
     private final CouponRepository couponRepository;
     private final CouponIssueRepository issueRepository;
+    private final CouponClaimRegistry claimRegistry;
 
     @Transactional
     public void issue(Long userId, Long couponId) {
+        if (!claimRegistry.claim(couponId, userId)) {
+            throw new CouponAlreadyIssuedException("이미 발급받은 쿠폰입니다.");
+        }
+        releaseClaimOnRollback(userId, couponId);
+
         Coupon coupon = couponRepository.findById(couponId)
                 .orElseThrow();
 
         if (coupon.getStock() <= 0) {
-            throw new IllegalArgumentException("재고 없음");
+            throw new CouponSoldOutException("재고 없음");
         }
 
         coupon.decrease();
         issueRepository.save(new CouponIssue(couponId, userId));
     }
+
+    private void releaseClaimOnRollback(Long userId, Long couponId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    claimRegistry.release(couponId, userId);
+                }
+            }
+        });
+    }
 }
@@ -0,0 +1,69 @@
+package com.normaldev.concurrencycoupon.service.redis;
+
+/**
+ * 쿠폰 발급에 사용하는 Redis 키
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public final class CouponRedisKeys {
+
+    private CouponRedisKeys() {
+    }
+
+    /**
+     * 남은 재고 (String, 정수)
+     */
+    public static String stock(Long couponId) {
+        return "coupon:stock:" + couponId;
+    }
+
+    /**
+     * 발급받은 사용자 ID (Set)
+     */
+    public static String issued(Long couponId) {
+        return "coupon:issued:" + couponId;
+    }
+
+    /**
+     * DB에 아직 반영되지 않은 발급 건 저널 (Hash, 필드: couponId:userId, 값: 발급 시각 epoch millis)
+     */
+    public static String pendingIssues() {
+        return "coupon:issue:pending";
+    }
+
+    /**
+     * 발급 대기열 (Stream, 도착 순서대로 쌓인 발급 요청)
+     */
+    public static String admissionStream() {
+        return "coupon:admission";
+    }
+
+    /**
+     * 대기표 처리 결과 (String, 처리 후 일정 시간 유지)
+     */
+    public static String ticket(String ticketId) {
+        return "coupon:ticket:" + ticketId;
+    }
+
+    /**
+     * 발급받은 사용자 (Bitmap, userId 번째 비트)
+     */
+    public static String claimed(Long couponId) {
+        return "coupon:claimed:" + couponId;
+    }
+
+    /**
+     * Bitmap에 담기에는 userId가 너무 큰 발급 사용자 (Set)
+     */
+    public static String claimedLarge(Long couponId) {
+        return "coupon:claimed-large:" + couponId;
+    }
+
+    /**
+     * 멱등키로 처리한 응답 (String, 일정 시간 유지)
+     */
+    public static String idempotency(String idempotencyKey) {
+        return "coupon:idempotency:" + idempotencyKey;
+    }
+}
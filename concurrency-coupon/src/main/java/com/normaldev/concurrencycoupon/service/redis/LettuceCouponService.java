@@ -3,17 +3,22 @@ package com.normaldev.concurrencycoupon.service.redis;
 import com.normaldev.concurrencycoupon.entity.Coupon;
 import com.normaldev.concurrencycoupon.repository.CouponRepository;
 import com.normaldev.concurrencycoupon.service.CouponService;
+import com.normaldev.concurrencycoupon.service.IssueResult;
+import com.normaldev.concurrencycoupon.service.bulk.BulkCouponIssueService;
+import com.normaldev.concurrencycoupon.service.gate.LocalStockGate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Primary;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.List;
 
 /**
  * Lettuce로 분산 락 구현
  *
+ * 락 대기는 LettuceLock이 Pub/Sub 해제 알림으로 처리한다 (스핀 락 X)
+ *
  * @author junnukim1007gmail.com
  * @date 26. 1. 4.
  */
@@ -24,19 +29,40 @@ public class LettuceCouponService implements CouponService {
 
     private final CouponRepository couponRepository;
     private final CouponIssueService couponIssueService;
-    private final RedisTemplate<String, String> redisTemplate;
+    private final LettuceLock lettuceLock;
+    private final LocalStockGate stockGate;
+    private final BulkCouponIssueService bulkCouponIssueService;
 
     private static final String LOCK_KEY_PREFIX = "coupon:lock:";
-    private static final long LOCK_TIMEOUT_SECONDS = 3L;
-    private static final long RETRY_DELAY_MS = 50L;
-    private static final int MAX_RETRY_COUNT = 100;
+    private static final Duration WAIT_TIME = Duration.ofSeconds(5);  // 락 획득 대기 시간
+    private static final Duration LEASE_TIME = Duration.ofSeconds(3); // 락 자동 해제 시간
 
     @Override
     public void issue(Long userId, Long couponId) {
+        // 품절/중복 요청은 락을 잡기 전에 메모리에서 거절
+        stockGate.enter(userId, couponId);
+
+        try {
+            issueWithLock(userId, couponId);
+            stockGate.issued(userId, couponId);
+        } catch (RuntimeException e) {
+            stockGate.failed(userId, couponId, e);
+            throw e;
+        }
+    }
 
+    private void issueWithLock(Long userId, Long couponId) {
         String lockKey = LOCK_KEY_PREFIX + couponId;
 
-        if (!acquireLock(lockKey)) {
+        String token;
+        try {
+            token = lettuceLock.tryLock(lockKey, WAIT_TIME, LEASE_TIME);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalArgumentException("락 획득 중 인터럽트 발생", e);
+        }
+
+        if (token == null) {
             throw new IllegalArgumentException("락 획득에 실패하였습니다. 잠시 후 다시 시도해주세요");
         }
 
@@ -44,41 +70,17 @@ public class LettuceCouponService implements CouponService {
             // 실제 비즈니스 로직 수행
             couponIssueService.issue(userId, couponId);
         } finally {
-            // 락 해제
-            releaseLock(lockKey);
+            // 락 해제 (내가 잡은 락일 때만)
+            lettuceLock.unlock(lockKey, token);
         }
-
     }
 
-    private boolean acquireLock(String key) {
-        int retryCount = 0;
-
-        while (retryCount < MAX_RETRY_COUNT) {
-            Boolean success = redisTemplate.opsForValue()
-                    .setIfAbsent(key, "locked", Duration.ofSeconds(LOCK_TIMEOUT_SECONDS));
-
-            if (Boolean.TRUE.equals(success)) {
-                return true;
-            }
-
-            retryCount++;
-
-            try {
-                Thread.sleep(RETRY_DELAY_MS);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new IllegalArgumentException("락 획득 중 인터럽트 발생", e);
-            }
-        }
-
-        return false;
-    }
-
-    private void releaseLock(String key) {
-        Boolean deleted = redisTemplate.delete(key);
-        if (Boolean.TRUE.equals(deleted)) {
-            log.debug("락 해제 성공: {}", key);
-        }
+    /**
+     * 대량 발급은 분산 락 없이 chunk마다 쿠폰 행 락을 잡고 재고 차감과 저장을 한 트랜잭션으로 처리한다
+     */
+    @Override
+    public List<IssueResult> issueBatch(Long couponId, List<Long> userIds) {
+        return bulkCouponIssueService.issueBatch(couponId, userIds);
     }
 
     @Override
@@ -0,0 +1,166 @@
+package com.normaldev.concurrencycoupon.service.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lettuce(SET NX PX) 기반 분산 락 - Pub/Sub으로 해제 알림을 받아 대기
+ *
+ * - 락 값에 요청마다 만든 토큰을 저장하고, 해제는 Lua 스크립트로 토큰이 같을 때만 지운다.
+ *   (락이 만료된 뒤 다른 요청이 잡은 락을 지우는 문제 방지)
+ * - 해제할 때 채널로 락 키를 발행하고, 기다리던 요청은 sleep 대신 이 알림을 받고 바로 다시 시도한다.
+ *   알림이 오지 않는 경우(락 만료)에 대비해 남은 TTL(PTTL)만큼만 기다린다.
+ * - 같은 서버 안의 대기 요청은 키마다 공정(FIFO) 세마포어로 줄을 세워, 맨 앞 요청만 Redis에 락을 요청한다.
+ *   FIFO는 서버 하나 안에서만 지켜진다. 서버끼리는 줄이 없으므로 해제 알림을 받고 먼저 SET NX에 성공한
+ *   서버의 맨 앞 요청이 락을 잡는다 (서버 간 도착 순서는 보장하지 않음).
+ * - 키마다 대기열을 만들고, 대기 중이거나 락을 잡고 있는 요청이 하나도 없으면 지운다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Slf4j
+@Component
+public class LettuceLock implements MessageListener {
+
+    public static final String RELEASE_CHANNEL = "coupon:lock:released";
+
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/lock-release.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Map<String, Waiters> waiters = new ConcurrentHashMap<>();
+
+    public LettuceLock(RedisTemplate<String, String> redisTemplate, RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        listenerContainer.addMessageListener(this, new ChannelTopic(RELEASE_CHANNEL));
+    }
+
+    /**
+     * 락 획득을 시도한다.
+     *
+     * @return 획득하면 해제할 때 넘겨야 하는 토큰, waitTime 안에 획득하지 못하면 null
+     */
+    public String tryLock(String key, Duration waitTime, Duration leaseTime) throws InterruptedException {
+        long deadline = System.nanoTime() + waitTime.toNanos();
+        Waiters queue = join(key);
+
+        // 같은 서버 안에서는 먼저 온 요청부터 (맨 앞 요청만 Redis에 접근)
+        boolean turn = false;
+        try {
+            turn = queue.turn.tryAcquire(waitTime.toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            if (!turn) {
+                leave(key);
+            }
+        }
+        if (!turn) {
+            return null;
+        }
+
+        String token = UUID.randomUUID().toString();
+        try {
+            while (true) {
+                // 지난번 대기 중에 쌓인 알림은 버리고, 시도와 대기 사이에 온 알림만 받는다
+                queue.released.drainPermits();
+
+                Boolean acquired = redisTemplate.opsForValue().setIfAbsent(key, token, leaseTime);
+                if (Boolean.TRUE.equals(acquired)) {
+                    return token;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    queue.turn.release();
+                    leave(key);
+                    return null;
+                }
+
+                // 해제 알림 또는 락 만료 중 먼저 오는 쪽까지만 대기
+                Long ttl = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+                long waitNanos = ttl == null || ttl < 0
+                        ? remaining
+                        : Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(ttl));
+                queue.released.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException | RuntimeException e) {
+            queue.turn.release();
+            leave(key);
+            throw e;
+        }
+    }
+
+    /**
+     * 토큰이 일치할 때만 락을 해제하고 대기 중인 요청을 깨운다.
+     */
+    public void unlock(String key, String token) {
+        try {
+            Long released = redisTemplate.execute(RELEASE_SCRIPT, List.of(key), token, RELEASE_CHANNEL);
+            if (Long.valueOf(1L).equals(released)) {
+                log.debug("락 해제 성공: {}", key);
+            } else {
+                log.warn("이미 만료되었거나 다른 요청이 잡은 락: {}", key);
+            }
+        } finally {
+            Waiters queue = waiters.get(key);
+            if (queue != null) {
+                queue.turn.release();
+                leave(key);
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String key = new String(message.getBody(), StandardCharsets.UTF_8);
+        Waiters queue = waiters.get(key);
+        if (queue != null) {
+            queue.released.release();
+        }
+    }
+
+    // 키의 대기열에 들어간다 (없으면 만든다). compute 안에서 세므로 지워지는 대기열에 들어가는 일이 없다
+    private Waiters join(String key) {
+        return waiters.compute(key, (k, queue) -> {
+            Waiters joined = queue == null ? new Waiters() : queue;
+            joined.users++;
+            return joined;
+        });
+    }
+
+    // 대기를 포기했거나 락을 해제한 요청이 대기열에서 빠진다. 마지막 요청이면 대기열을 지운다
+    private void leave(String key) {
+        waiters.computeIfPresent(key, (k, queue) -> --queue.users == 0 ? null : queue);
+    }
+
+    boolean hasWaiters(String key) {
+        return waiters.containsKey(key);
+    }
+
+    private static final class Waiters {
+
+        // 대기 중이거나 락을 잡고 있는 요청 수 (waiters.compute 안에서만 바꾼다)
+        private int users;
+
+        // 서버 안에서 락을 요청할 차례 (공정 모드로 FIFO 보장)
+        private final Semaphore turn = new Semaphore(1, true);
+
+        // 해제 알림 (맨 앞 요청 하나만 기다린다)
+        private final Semaphore released = new Semaphore(0);
+    }
+}
@@ -0,0 +1,108 @@
+package com.normaldev.concurrencycoupon.service.redis;
+
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.CouponAlreadyIssuedException;
+import com.normaldev.concurrencycoupon.service.CouponService;
+import com.normaldev.concurrencycoupon.service.writebehind.CouponIssueEntry;
+import com.normaldev.concurrencycoupon.service.writebehind.CouponIssueWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Redis Lua 스크립트로 락 없이 쿠폰 발급
+ *
+ * 재고와 발급받은 사용자 목록을 Redis에 두고, 중복 확인 + 재고 확인 + 차감을 Lua 스크립트 하나로 원자적으로 처리한다.
+ * Redis는 스크립트를 단일 스레드에서 실행하므로 락이 필요 없고, 요청 스레드는 Redis 왕복 1번으로 발급 여부가 결정된다.
+ * (재고는 Redis가 기준이며, 처음 요청이 들어왔을 때 DB 재고를 SET NX로 적재한다)
+ *
+ * 발급 이력과 DB 재고는 CouponIssueWriter가 모아서 비동기로 반영하므로 요청 지연에 DB 쓰기가 포함되지 않는다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LuaCouponService implements CouponService {
+
+    private static final RedisScript<Long> ISSUE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/coupon-issue.lua"), Long.class);
+    private static final RedisScript<Long> ROLLBACK_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/coupon-issue-rollback.lua"), Long.class);
+
+    private static final long ISSUED = 1L;
+    private static final long SOLD_OUT = 0L;
+    private static final long DUPLICATED = -1L;
+    private static final long NOT_LOADED = -2L;
+
+    private final CouponRepository couponRepository;
+    private final CouponIssueWriter issueWriter;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Override
+    public void issue(Long userId, Long couponId) {
+        long result = claim(userId, couponId);
+
+        if (result == NOT_LOADED) {
+            loadStock(couponId);
+            result = claim(userId, couponId);
+        }
+
+        if (result == DUPLICATED) {
+            throw new CouponAlreadyIssuedException("이미 발급받은 쿠폰입니다.");
+        }
+        if (result == SOLD_OUT) {
+            throw new IllegalArgumentException("쿠폰 재고가 없습니다.");
+        }
+        if (result != ISSUED) {
+            throw new IllegalStateException("쿠폰 발급 중 알 수 없는 응답: " + result);
+        }
+
+        CouponIssueEntry entry = new CouponIssueEntry(couponId, userId);
+        if (!issueWriter.enqueue(entry)) {
+            // DB 반영 큐가 가득 차 있으면 Redis에서 차감한 재고와 발급 기록을 되돌린다 (백프레셔)
+            redisTemplate.execute(ROLLBACK_SCRIPT, keys(couponId), String.valueOf(userId), entry.journalField());
+            log.warn("쿠폰 발급 큐 포화로 보상 처리 - userId: {}, couponId: {}", userId, couponId);
+            throw new IllegalStateException("쿠폰 발급 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+    }
+
+    @Override
+    public Integer getStock(Long couponId) {
+        String stock = redisTemplate.opsForValue().get(CouponRedisKeys.stock(couponId));
+        if (stock != null) {
+            return Integer.valueOf(stock);
+        }
+
+        return findCoupon(couponId).getStock();
+    }
+
+    private long claim(Long userId, Long couponId) {
+        String journalField = new CouponIssueEntry(couponId, userId).journalField();
+        Long result = redisTemplate.execute(ISSUE_SCRIPT, keys(couponId), String.valueOf(userId), journalField,
+                String.valueOf(System.currentTimeMillis()));
+        return result == null ? NOT_LOADED : result;
+    }
+
+    // 여러 서버/스레드가 동시에 적재해도 처음 한 번만 반영되도록 SET NX
+    private void loadStock(Long couponId) {
+        Coupon coupon = findCoupon(couponId);
+        redisTemplate.opsForValue().setIfAbsent(CouponRedisKeys.stock(couponId), String.valueOf(coupon.getStock()));
+    }
+
+    private Coupon findCoupon(Long couponId) {
+        return couponRepository.findById(couponId)
+                .orElseThrow(() -> new IllegalArgumentException("쿠폰을 찾을 수 없습니다."));
+    }
+
+    private static List<String> keys(Long couponId) {
+        return List.of(CouponRedisKeys.stock(couponId), CouponRedisKeys.issued(couponId), CouponRedisKeys.pendingIssues());
+    }
+}
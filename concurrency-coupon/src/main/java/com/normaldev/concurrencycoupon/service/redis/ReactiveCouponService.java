@@ -0,0 +1,72 @@
+package com.normaldev.concurrencycoupon.service.redis;
+
+import com.normaldev.concurrencycoupon.service.gate.LocalStockGate;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RLockReactive;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redisson Reactive API로 스레드를 막지 않는 쿠폰 발급
+ *
+ * RedissonCouponService는 tryLock에서 최대 5초 동안 요청 스레드를 붙잡는다.
+ * 여기서는 락 대기를 Mono로 돌려주므로, 락을 기다리는 동안에는 어떤 스레드도 점유하지 않는다.
+ * (JPA는 블로킹이므로 락을 잡은 뒤의 DB 작업만 boundedElastic 스케줄러에서 실행한다)
+ *
+ * 다른 락 방식과 같이 LocalStockGate를 락 앞에 두어 품절/중복 요청은 락을 기다리지 않고 거절한다.
+ * 게이트는 처음 한 번(또는 갱신할 때) DB 재고를 조회하므로 enter도 boundedElastic에서 실행한다.
+ * 중복 발급 확인(CouponClaimRegistry)은 락 안의 CouponIssueService가 그대로 한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveCouponService {
+
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final CouponIssueService couponIssueService;
+    private final LocalStockGate stockGate;
+
+    private static final String LOCK_KEY_PREFIX = "coupon:lock:";
+    private static final long WAIT_TIME_SECONDS = 5L;  // 락 획득 대기 시간
+    private static final long LEASE_TIME_SECONDS = 3L; // 락 자동 해제 시간
+
+    public Mono<Void> issue(Long userId, Long couponId) {
+        // enter가 성공했을 때만 issued/failed로 토큰을 정산한다 (enter 실패는 토큰을 가져가지 않음)
+        return Mono.fromRunnable(() -> stockGate.enter(userId, couponId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.defer(() -> issueWithLock(userId, couponId)
+                        .doOnSuccess(ignored -> stockGate.issued(userId, couponId))
+                        .doOnError(RuntimeException.class, e -> stockGate.failed(userId, couponId, e))
+                        // 클라이언트가 끊으면 토큰을 돌려준다 (이미 시작한 DB 작업이 끝나도 게이트는 덜 거르는 쪽으로만 틀린다)
+                        .doOnCancel(() -> stockGate.failed(userId, couponId,
+                                new IllegalStateException("쿠폰 발급 요청이 취소되었습니다.")))));
+    }
+
+    private Mono<Void> issueWithLock(Long userId, Long couponId) {
+        RLockReactive lock = redissonReactiveClient.getLock(LOCK_KEY_PREFIX + couponId);
+
+        // 리액티브 체인은 실행 스레드가 바뀌므로, 스레드 ID 대신 요청마다 만든 ID로 락 소유자를 구분한다
+        long ownerId = ThreadLocalRandom.current().nextLong();
+
+        return Mono.usingWhen(
+                lock.tryLock(WAIT_TIME_SECONDS, LEASE_TIME_SECONDS, TimeUnit.SECONDS, ownerId),
+                acquired -> {
+                    if (!acquired) {
+                        return Mono.error(new IllegalStateException("쿠폰 발급 요청이 많습니다. 잠시 후 다시 시도해주세요."));
+                    }
+                    return Mono.fromRunnable(() -> couponIssueService.issue(userId, couponId))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .then();
+                },
+                // 성공/실패/취소 모두 락을 잡았을 때만 해제
+                acquired -> acquired ? lock.unlock(ownerId) : Mono.empty()
+        );
+    }
+}
@@ -3,6 +3,9 @@ package com.normaldev.concurrencycoupon.service.redis;
 import com.normaldev.concurrencycoupon.entity.Coupon;
 import com.normaldev.concurrencycoupon.repository.CouponRepository;
 import com.normaldev.concurrencycoupon.service.CouponService;
+import com.normaldev.concurrencycoupon.service.IssueResult;
+import com.normaldev.concurrencycoupon.service.bulk.BulkCouponIssueService;
+import com.normaldev.concurrencycoupon.service.gate.LocalStockGate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
@@ -11,6 +14,7 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -27,6 +31,8 @@ public class RedissonCouponService implements CouponService {
     private final CouponRepository couponRepository;
     private final CouponIssueService couponIssueService;
     private final RedissonClient redissonClient;
+    private final LocalStockGate stockGate;
+    private final BulkCouponIssueService bulkCouponIssueService;
 
     private static final String LOCK_KEY_PREFIX = "coupon:lock:";
     private static final long WAIT_TIME_SECONDS = 5L;  // 락 획득 대기 시간
@@ -34,6 +40,19 @@ public class RedissonCouponService implements CouponService {
 
     @Override
     public void issue(Long userId, Long couponId) {
+        // 품절/중복 요청은 락을 잡기 전에 메모리에서 거절
+        stockGate.enter(userId, couponId);
+
+        try {
+            issueWithLock(userId, couponId);
+            stockGate.issued(userId, couponId);
+        } catch (RuntimeException e) {
+            stockGate.failed(userId, couponId, e);
+            throw e;
+        }
+    }
+
+    private void issueWithLock(Long userId, Long couponId) {
         String lockKey = LOCK_KEY_PREFIX + couponId;
         RLock lock = redissonClient.getLock(lockKey);
 
@@ -63,6 +82,14 @@ public class RedissonCouponService implements CouponService {
         }
     }
 
+    /**
+     * 대량 발급은 분산 락 없이 chunk마다 쿠폰 행 락을 잡고 재고 차감과 저장을 한 트랜잭션으로 처리한다
+     */
+    @Override
+    public List<IssueResult> issueBatch(Long couponId, List<Long> userIds) {
+        return bulkCouponIssueService.issueBatch(couponId, userIds);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Integer getStock(Long couponId) {
@@ -0,0 +1,166 @@
+package com.normaldev.concurrencycoupon.service.striped;
+
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.entity.CouponIssue;
+import com.normaldev.concurrencycoupon.entity.CouponStockStripe;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.repository.CouponStockStripeRepository;
+import com.normaldev.concurrencycoupon.service.CouponService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 재고를 여러 행으로 나눠 단일 행 경합을 없앤 코드 (Striped Stock)
+ *
+ * 비관적 락/낙관적 락은 모든 요청이 coupon 행 하나를 두고 경쟁한다.
+ * 여기서는 재고를 stripe-count 개의 행으로 나누고, 요청마다 임의의 조각에서 조건부 UPDATE로 1개를 차감한다.
+ * 고른 조각이 바닥나면 재고가 남은 다른 조각에서 빌려온다.
+ * 동시에 잡히는 행 락이 조각 수만큼 나뉘므로 처리량이 조각 수에 비례해 늘어난다.
+ *
+ * 처음 발급할 때 Coupon.stock을 조각으로 "옮긴다" (조각에 나눠 담고 Coupon.stock은 그만큼 0으로 줄인다).
+ * 따라서 남은 재고는 항상 Coupon.stock + 조각의 합이고, Coupon.stock만 읽는 다른 발급 방식은
+ * 조각으로 옮겨간 재고를 쓰지 못할 뿐 초과 발급하지 않는다.
+ * 조각이 모두 바닥났을 때 Coupon.stock이 다시 채워져 있으면(재입고) 그만큼 조각으로 옮긴 뒤 다시 시도한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Service
+public class StripedCouponService implements CouponService {
+
+    private final CouponRepository couponRepository;
+    private final CouponIssueRepository issueRepository;
+    private final CouponStockStripeRepository stripeRepository;
+    private final int stripeCount;
+
+    // 조각이 커밋된 것을 확인한 쿠폰 (매 요청마다 존재 여부를 조회하지 않도록)
+    private final Set<Long> splitCoupons = ConcurrentHashMap.newKeySet();
+
+    public StripedCouponService(CouponRepository couponRepository,
+                                CouponIssueRepository issueRepository,
+                                CouponStockStripeRepository stripeRepository,
+                                @Value("${coupon.stripe.count:8}") int stripeCount) {
+        this.couponRepository = couponRepository;
+        this.issueRepository = issueRepository;
+        this.stripeRepository = stripeRepository;
+        this.stripeCount = stripeCount;
+    }
+
+    @Override
+    @Transactional
+    public void issue(Long userId, Long couponId) {
+        if (!splitCoupons.contains(couponId)) {
+            moveStockToStripes(couponId);
+        }
+
+        if (!decreaseAnyStripe(couponId) && !(refillIfNeeded(couponId) && decreaseAnyStripe(couponId))) {
+            throw new IllegalArgumentException("쿠폰 재고가 없습니다.");
+        }
+
+        issueRepository.save(new CouponIssue(couponId, userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Integer getStock(Long couponId) {
+        return findCoupon(couponId).getStock() + Math.toIntExact(stripeRepository.sumStock(couponId));
+    }
+
+    /**
+     * 쿠폰의 조각 확인 캐시를 버린다 (조각을 지우고 다시 만들 때 등). 다음 요청에서 조각 상태를 다시 확인한다.
+     */
+    public void evict(Long couponId) {
+        splitCoupons.remove(couponId);
+    }
+
+    // 임의의 조각에서 먼저 차감하고, 실패하면 재고가 남은 조각을 시작 위치 다음부터 차례로 시도
+    private boolean decreaseAnyStripe(Long couponId) {
+        int start = ThreadLocalRandom.current().nextInt(stripeCount);
+        if (stripeRepository.decreaseIfAvailable(couponId, start) == 1) {
+            return true;
+        }
+
+        List<Integer> candidates = stripeRepository.findStripesWithStock(couponId);
+        int from = 0;
+        while (from < candidates.size() && candidates.get(from) <= start) {
+            from++;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            int stripe = candidates.get((from + i) % candidates.size());
+            if (stripeRepository.decreaseIfAvailable(couponId, stripe) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 조각이 모두 바닥났을 때만 호출된다 (품절 이후 요청).
+     * 재입고로 Coupon.stock이 채워졌거나, 조각이 지워져 캐시가 오래된 경우 다시 옮긴다.
+     *
+     * @return 조각 상태를 다시 맞췄으면 true (한 번 더 차감을 시도할 가치가 있음)
+     */
+    private boolean refillIfNeeded(Long couponId) {
+        if (findCoupon(couponId).getStock() <= 0 && stripeRepository.existsByCouponId(couponId)) {
+            return false;
+        }
+
+        evict(couponId);
+        moveStockToStripes(couponId);
+        return true;
+    }
+
+    // 쿠폰 행에 비관적 락을 잡고 옮긴다 (동시에 들어온 요청은 락 해제 후 이미 옮겨진 상태를 본다)
+    private void moveStockToStripes(Long couponId) {
+        Coupon coupon = couponRepository.findByIdWithPessimisticLock(couponId)
+                .orElseThrow(() -> new IllegalArgumentException("쿠폰을 찾을 수 없습니다."));
+
+        List<Integer> stripes = stripeRepository.findStripes(couponId);
+        int total = coupon.getStock();
+        if (!stripes.isEmpty()) {
+            // 이미 커밋된 조각이 있으면 캐시에 기록 (이번 트랜잭션이 만든 조각은 커밋 전이므로 기록하지 않는다)
+            splitCoupons.add(couponId);
+            if (total > 0) {
+                for (int i = 0; i < stripes.size(); i++) {
+                    int share = share(total, stripes.size(), i);
+                    if (share > 0) {
+                        stripeRepository.increaseStock(couponId, stripes.get(i), share);
+                    }
+                }
+                coupon.decrease(total);
+            }
+            return;
+        }
+
+        List<CouponStockStripe> created = new ArrayList<>(stripeCount);
+        for (int stripe = 0; stripe < stripeCount; stripe++) {
+            created.add(CouponStockStripe.builder()
+                    .couponId(couponId)
+                    .stripe(stripe)
+                    .stock(share(Math.max(total, 0), stripeCount, stripe))
+                    .build());
+        }
+        stripeRepository.saveAll(created);
+        if (total > 0) {
+            coupon.decrease(total);
+        }
+    }
+
+    // 나머지는 앞쪽 조각에 하나씩 더 준다
+    private static int share(int total, int count, int index) {
+        return total / count + (index < total % count ? 1 : 0);
+    }
+
+    private Coupon findCoupon(Long couponId) {
+        return couponRepository.findById(couponId)
+                .orElseThrow(() -> new IllegalArgumentException("쿠폰을 찾을 수 없습니다"));
+    }
+}
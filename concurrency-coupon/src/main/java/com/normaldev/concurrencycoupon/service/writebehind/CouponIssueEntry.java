@@ -0,0 +1,26 @@
+package com.normaldev.concurrencycoupon.service.writebehind;
+
+/**
+ * DB 반영을 기다리는 쿠폰 발급 건
+ *
+ * Redis 저널(Hash)에는 "couponId:userId" 형태의 필드로, 발급 시각(epoch millis)을 값으로 저장된다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public record CouponIssueEntry(Long couponId, Long userId) {
+
+    public String journalField() {
+        return couponId + ":" + userId;
+    }
+
+    public static CouponIssueEntry fromJournalField(String field) {
+        int separator = field.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("잘못된 저널 항목: " + field);
+        }
+        return new CouponIssueEntry(
+                Long.valueOf(field.substring(0, separator)),
+                Long.valueOf(field.substring(separator + 1)));
+    }
+}
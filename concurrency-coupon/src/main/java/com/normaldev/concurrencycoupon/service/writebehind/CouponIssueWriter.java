@@ -0,0 +1,248 @@
+package com.normaldev.concurrencycoupon.service.writebehind;
+
+import com.normaldev.concurrencycoupon.repository.CouponIssueJdbcRepository;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 쿠폰 발급 건을 모아서 DB에 비동기로 반영 (Write-Behind)
+ *
+ * 요청 스레드는 발급 건을 큐에 넣기만 하고, 별도 스레드가 batch-size 만큼 모아
+ * 쿠폰별로 multi-row INSERT IGNORE 한 번 + 재고 UPDATE 한 번으로 반영한다.
+ * (CouponIssue는 IDENTITY 전략이라 JPA로는 배치 INSERT가 되지 않아 CouponIssueJdbcRepository를 사용한다)
+ *
+ * - 백프레셔: 큐가 가득 차면 offer-timeout 동안만 기다리고 실패를 돌려준다.
+ * - 장애 복구: 발급 건은 Lua 스크립트에서 Redis 저널에 발급 시각과 함께 기록되고, DB 커밋 후에 지운다.
+ *   replay-interval 마다 (기동 직후 포함) 그보다 오래 남아 있는 저널을 다시 반영하므로,
+ *   서버가 죽어 큐가 유실되거나 다른 서버가 반영하지 못한 건도 재기동을 기다리지 않고 처리된다.
+ *   INSERT IGNORE로 이미 들어간 건은 건너뛰고, 실제로 들어간 건수만큼만 재고를 차감하므로 재실행해도 안전하다.
+ * - INSERT IGNORE는 중복 외의 오류도 경고로 바꿔 건너뛰므로, 들어간 행 수가 요청보다 적으면 실제로 저장됐는지 다시 확인한다.
+ *   중복이 아닌데 빠진 건은 에러 로그를 남기고 저널에 그대로 두어 다음 재처리 때 다시 시도한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Slf4j
+@Component
+public class CouponIssueWriter {
+
+    private static final long RETRY_BACKOFF_MILLIS = 1_000L;
+
+    private final CouponIssueJdbcRepository issueJdbcRepository;
+    private final CouponIssueRepository issueRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final BlockingQueue<CouponIssueEntry> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final long replayIntervalMillis;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public CouponIssueWriter(CouponIssueJdbcRepository issueJdbcRepository,
+                             CouponIssueRepository issueRepository,
+                             TransactionTemplate transactionTemplate,
+                             RedisTemplate<String, String> redisTemplate,
+                             @Value("${coupon.write-behind.queue-capacity:10000}") int queueCapacity,
+                             @Value("${coupon.write-behind.batch-size:500}") int batchSize,
+                             @Value("${coupon.write-behind.flush-interval-millis:50}") long flushIntervalMillis,
+                             @Value("${coupon.write-behind.offer-timeout-millis:100}") long offerTimeoutMillis,
+                             @Value("${coupon.write-behind.replay-interval-millis:60000}") long replayIntervalMillis) {
+        this.issueJdbcRepository = issueJdbcRepository;
+        this.issueRepository = issueRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.redisTemplate = redisTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.replayIntervalMillis = replayIntervalMillis;
+    }
+
+    /**
+     * 발급 건을 큐에 넣는다.
+     *
+     * @return 큐가 offer-timeout 동안 계속 가득 차 있었으면 false
+     */
+    public boolean enqueue(CouponIssueEntry entry) {
+        try {
+            return queue.offer(entry, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        flusher = new Thread(this::run, "coupon-issue-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void run() {
+        List<CouponIssueEntry> batch = new ArrayList<>(batchSize);
+        long nextReplayAt = 0L;
+        while (running || !queue.isEmpty()) {
+            try {
+                if (running && System.currentTimeMillis() >= nextReplayAt) {
+                    replayJournal();
+                    nextReplayAt = System.currentTimeMillis() + replayIntervalMillis;
+                }
+
+                CouponIssueEntry first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                flushWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    /**
+     * replay-interval 보다 오래 저널에 남아 있는 발급 건을 다시 반영한다.
+     * (최근 건은 아직 어느 서버의 큐에 들어 있을 수 있으므로 건너뛴다. 다시 반영해도 안전하지만 불필요한 쓰기를 줄인다)
+     */
+    private void replayJournal() throws InterruptedException {
+        long staleBefore = System.currentTimeMillis() - replayIntervalMillis;
+        ScanOptions options = ScanOptions.scanOptions().count(batchSize).build();
+
+        List<CouponIssueEntry> batch = new ArrayList<>(batchSize);
+        int replayed = 0;
+        try (Cursor<Map.Entry<Object, Object>> cursor =
+                     redisTemplate.opsForHash().scan(CouponRedisKeys.pendingIssues(), options)) {
+            while (cursor.hasNext()) {
+                Map.Entry<Object, Object> journal = cursor.next();
+                if (issuedAt((String) journal.getValue()) > staleBefore) {
+                    continue;
+                }
+
+                batch.add(CouponIssueEntry.fromJournalField((String) journal.getKey()));
+                if (batch.size() == batchSize) {
+                    flushWithRetry(batch);
+                    replayed += batch.size();
+                    batch.clear();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("쿠폰 발급 저널 조회 실패, 다음 주기에 재시도", e);
+        }
+
+        if (!batch.isEmpty()) {
+            flushWithRetry(batch);
+            replayed += batch.size();
+        }
+        if (replayed > 0) {
+            log.info("미반영 쿠폰 발급 {}건 재처리", replayed);
+        }
+    }
+
+    // 발급 시각을 기록하기 전에 남은 저널(값이 빈 문자열)은 오래된 건으로 본다
+    private static long issuedAt(String value) {
+        return value == null || value.isEmpty() ? 0L : Long.parseLong(value);
+    }
+
+    // 실패한 배치는 저널에 남아 있으므로, 종료 중이면 다음 기동 때 재처리하도록 넘긴다
+    private void flushWithRetry(List<CouponIssueEntry> batch) throws InterruptedException {
+        while (true) {
+            try {
+                flush(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.warn("종료 중 쿠폰 발급 {}건 반영 실패, 다음 기동 시 재처리", batch.size(), e);
+                    return;
+                }
+                log.warn("쿠폰 발급 {}건 반영 실패, {}ms 후 재시도", batch.size(), RETRY_BACKOFF_MILLIS, e);
+                Thread.sleep(RETRY_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private void flush(List<CouponIssueEntry> batch) {
+        Map<Long, Set<Long>> usersByCoupon = new LinkedHashMap<>();
+        for (CouponIssueEntry entry : batch) {
+            usersByCoupon.computeIfAbsent(entry.couponId(), id -> new LinkedHashSet<>()).add(entry.userId());
+        }
+
+        Set<CouponIssueEntry> rejected = transactionTemplate.execute(status -> {
+            Set<CouponIssueEntry> notStored = new HashSet<>();
+            for (Map.Entry<Long, Set<Long>> coupon : usersByCoupon.entrySet()) {
+                int inserted = issueJdbcRepository.insertIgnore(coupon.getKey(), coupon.getValue());
+                if (inserted > 0) {
+                    issueJdbcRepository.decreaseStock(coupon.getKey(), inserted);
+                }
+                if (inserted < coupon.getValue().size()) {
+                    notStored.addAll(findNotStored(coupon.getKey(), coupon.getValue()));
+                }
+            }
+            return notStored;
+        });
+
+        // 저장되지 않은 건은 저널에 남겨 다음 재처리 때 다시 시도한다
+        Object[] fields = batch.stream()
+                .filter(entry -> rejected == null || !rejected.contains(entry))
+                .map(CouponIssueEntry::journalField)
+                .toArray();
+        if (fields.length > 0) {
+            redisTemplate.opsForHash().delete(CouponRedisKeys.pendingIssues(), fields);
+        }
+    }
+
+    /**
+     * INSERT IGNORE가 건너뛴 행 중 중복(이미 발급된 건)이 아닌 것을 찾는다.
+     * 같은 트랜잭션 안이므로 방금 들어간 행과 원래 있던 행이 모두 보이고, 여기에도 없는 건은 다른 오류로 무시된 것이다.
+     */
+    private List<CouponIssueEntry> findNotStored(Long couponId, Set<Long> userIds) {
+        Set<Long> stored = new HashSet<>(issueRepository.findIssuedUserIds(couponId, userIds));
+
+        List<CouponIssueEntry> notStored = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (!stored.contains(userId)) {
+                notStored.add(new CouponIssueEntry(couponId, userId));
+            }
+        }
+        if (!notStored.isEmpty()) {
+            log.error("중복이 아닌 이유로 INSERT IGNORE에서 제외된 쿠폰 발급 {}건 - couponId: {}, userIds: {}",
+                    notStored.size(), couponId, notStored.stream().map(CouponIssueEntry::userId).toList());
+        }
+        return notStored;
+    }
+}
@@ -0,0 +1,7 @@
+-- 오래 ACK 되지 않은 대기열 레코드를 가져오기 (죽었거나 이름이 바뀐 소비자의 레코드 회수)
+-- KEYS[1] = 대기열 Stream
+-- ARGV[1] = 컨슈머 그룹, ARGV[2] = 가져갈 소비자, ARGV[3] = 최소 대기 시간(ms), ARGV[4] = 최대 개수
+
+-- 결과: { 다음 커서, { 가져온 레코드 ID... }, { 삭제된 ID... } } 중 가져온 ID만 돌려준다
+local claimed = redis.call('XAUTOCLAIM', KEYS[1], ARGV[1], ARGV[2], ARGV[3], '0-0', 'COUNT', ARGV[4], 'JUSTID')
+return claimed[2]
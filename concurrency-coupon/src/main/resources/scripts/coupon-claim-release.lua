@@ -0,0 +1,11 @@
+-- 쿠폰 발급 선점 취소 (발급 트랜잭션이 롤백된 경우)
+-- KEYS[1] = coupon:claimed:{couponId} (Bitmap), KEYS[2] = coupon:claimed-large:{couponId} (Set)
+-- ARGV[1] = userId, ARGV[2] = Bitmap에 담을 최대 userId
+
+local userId = tonumber(ARGV[1])
+if userId >= 0 and userId <= tonumber(ARGV[2]) then
+    redis.call('SETBIT', KEYS[1], userId, 0)
+    return 1
+end
+
+return redis.call('SREM', KEYS[2], ARGV[1])
@@ -0,0 +1,15 @@
+-- 쿠폰 발급 선점 (이미 발급받은 사용자인지 확인하고 표시하는 것을 원자적으로 수행)
+-- KEYS[1] = coupon:claimed:{couponId} (Bitmap), KEYS[2] = coupon:claimed-large:{couponId} (Set)
+-- ARGV[1] = userId, ARGV[2] = Bitmap에 담을 최대 userId (이보다 크면 Set 사용)
+-- return 1: 선점 성공, 0: 이미 발급받은 사용자
+
+local userId = tonumber(ARGV[1])
+if userId >= 0 and userId <= tonumber(ARGV[2]) then
+    -- SETBIT은 이전 비트를 돌려준다
+    if redis.call('SETBIT', KEYS[1], userId, 1) == 1 then
+        return 0
+    end
+    return 1
+end
+
+return redis.call('SADD', KEYS[2], ARGV[1])
@@ -0,0 +1,11 @@
+-- 발급 취소 (DB 반영 큐에 넣지 못했을 때 보상)
+-- KEYS[1] = coupon:stock:{couponId}, KEYS[2] = coupon:issued:{couponId}, KEYS[3] = coupon:issue:pending
+-- ARGV[1] = userId, ARGV[2] = 저널 필드 (couponId:userId)
+-- 발급 목록에 있던 사용자만 재고를 되돌린다 (중복 보상 방지)
+
+if redis.call('SREM', KEYS[2], ARGV[1]) == 1 then
+    redis.call('INCR', KEYS[1])
+    redis.call('HDEL', KEYS[3], ARGV[2])
+    return 1
+end
+return 0
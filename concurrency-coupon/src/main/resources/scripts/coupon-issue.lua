@@ -0,0 +1,21 @@
+-- 쿠폰 발급 (중복 확인 + 재고 확인 + 차감을 한 번에 원자적으로 수행)
+-- KEYS[1] = coupon:stock:{couponId}, KEYS[2] = coupon:issued:{couponId}, KEYS[3] = coupon:issue:pending
+-- ARGV[1] = userId, ARGV[2] = 저널 필드 (couponId:userId), ARGV[3] = 발급 시각 (epoch millis)
+-- return 1: 발급 성공, 0: 재고 없음, -1: 이미 발급받은 사용자, -2: 재고가 Redis에 아직 적재되지 않음
+
+if redis.call('SISMEMBER', KEYS[2], ARGV[1]) == 1 then
+    return -1
+end
+
+local stock = tonumber(redis.call('GET', KEYS[1]))
+if stock == nil then
+    return -2
+end
+if stock <= 0 then
+    return 0
+end
+
+redis.call('DECR', KEYS[1])
+redis.call('SADD', KEYS[2], ARGV[1])
+redis.call('HSET', KEYS[3], ARGV[2], ARGV[3])  -- DB 반영 전까지 남겨두는 저널 (값은 주기적 재처리 대상 판단용)
+return 1
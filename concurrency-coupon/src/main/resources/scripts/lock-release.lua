@@ -0,0 +1,10 @@
+-- 락 해제 (내가 잡은 락일 때만 지우고, 기다리는 서버에 알림)
+-- KEYS[1] = 락 키
+-- ARGV[1] = 락을 잡을 때 저장한 토큰, ARGV[2] = 해제 알림 채널
+
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    redis.call('DEL', KEYS[1])
+    redis.call('PUBLISH', ARGV[2], KEYS[1])
+    return 1
+end
+return 0
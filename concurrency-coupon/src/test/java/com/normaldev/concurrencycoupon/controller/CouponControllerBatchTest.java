@@ -0,0 +1,73 @@
+package com.normaldev.concurrencycoupon.controller;
+
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /issue-batch 요청 검증 테스트
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CouponControllerBatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+
+    @AfterEach
+    void tearDown() {
+        couponIssueRepository.deleteAll();
+        couponRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("couponId 나 userIds 가 없거나 userIds 에 null 이 있으면 400")
+    void rejectInvalidRequest() throws Exception {
+        issueBatch("{\"userIds\": [1, 2]}").andExpect(status().isBadRequest());
+        issueBatch("{\"couponId\": 1}").andExpect(status().isBadRequest());
+        issueBatch("{\"couponId\": 1, \"userIds\": [1, null]}").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("올바른 요청은 사용자별 결과를 요청 순서대로 돌려준다")
+    void issueBatch() throws Exception {
+        couponRepository.saveAndFlush(
+                Coupon.builder()
+                        .id(1L)
+                        .stock(1)
+                .build());
+
+        issueBatch("{\"couponId\": 1, \"userIds\": [1, 2]}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].issued").value(true))
+                .andExpect(jsonPath("$[1].issued").value(false));
+    }
+
+    private ResultActions issueBatch(String body) throws Exception {
+        return mockMvc.perform(post("/api/coupons/issue-batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+}
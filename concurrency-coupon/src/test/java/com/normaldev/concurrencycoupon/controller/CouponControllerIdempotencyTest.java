@@ -0,0 +1,230 @@
+package com.normaldev.concurrencycoupon.controller;
+
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.admission.AdmissionQueue;
+import com.normaldev.concurrencycoupon.service.gate.LocalStockGate;
+import com.normaldev.concurrencycoupon.service.idempotency.IdempotencyStore;
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
+import com.normaldev.concurrencycoupon.service.redis.RedissonCouponService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /issue, /issue-reactive 의 Idempotency-Key 처리 테스트
+ *
+ * - 결과가 정해진 응답(성공, 품절)은 저장하고 다시 보내면 발급 없이 그대로 돌려준다.
+ * - 일시적인 실패(503)와 예외로 끝난 요청은 키를 지워 같은 키로 다시 시도할 수 있다.
+ * - 같은 키를 다른 파라미터로 보내면 422, 처리 중이면 409
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CouponControllerIdempotencyTest {
+
+    private static final long COUPON_ID = 1L;
+    private static final String KEY = "coupon-controller-test";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CouponController couponController;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @MockitoSpyBean
+    private RedissonCouponService couponService;
+
+    @MockitoSpyBean
+    private AdmissionQueue admissionQueue;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+
+    @Autowired
+    private LocalStockGate stockGate;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("성공 응답은 저장되고, 같은 키로 다시 보내면 발급 없이 같은 응답")
+    void replaySuccess() throws Exception {
+        saveCoupon(10);
+
+        issue(1L, KEY).andExpect(status().isOk());
+        issue(1L, KEY).andExpect(status().isOk()).andExpect(content().string("쿠폰 발급 성공"));
+
+        verify(couponService, times(1)).issue(1L, COUPON_ID);
+        assertThat(couponIssueRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("품절처럼 결과가 정해진 실패도 저장되고, 같은 키로 다시 보내면 같은 400")
+    void replaySoldOut() throws Exception {
+        saveCoupon(0);
+
+        issue(1L, KEY).andExpect(status().isBadRequest());
+        issue(1L, KEY).andExpect(status().isBadRequest());
+
+        verify(couponService, times(1)).issue(1L, COUPON_ID);
+    }
+
+    @Test
+    @DisplayName("일시적인 실패(락 대기 초과 등)는 503 으로 응답하고 저장하지 않아 같은 키로 다시 시도하면 처리된다")
+    void retryAfterTransientFailure() throws Exception {
+        saveCoupon(10);
+        doThrow(new IllegalStateException("쿠폰 발급 요청이 많습니다. 잠시 후 다시 시도해주세요."))
+                .when(couponService).issue(anyLong(), anyLong());
+
+        issue(1L, KEY).andExpect(status().isServiceUnavailable());
+        assertThat(redisTemplate.hasKey(CouponRedisKeys.idempotency(KEY))).isFalse();
+
+        doCallRealMethod().when(couponService).issue(anyLong(), anyLong());
+        issue(1L, KEY).andExpect(status().isOk());
+        assertThat(couponIssueRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("처리 중에 예외가 나도(대기열 접수 실패 등) 키가 IN_PROGRESS 로 남지 않아 409 가 아니라 다시 처리된다")
+    void abandonKeyOnException() throws Exception {
+        saveCoupon(10);
+        ReflectionTestUtils.setField(couponController, "admissionEnabled", true);
+        try {
+            doThrow(new RedisConnectionFailureException("Redis 연결 실패"))
+                    .when(admissionQueue).admit(anyLong(), anyLong());
+
+            assertThatThrownBy(() -> issue(1L, KEY)).hasRootCauseInstanceOf(RedisConnectionFailureException.class);
+            assertThat(redisTemplate.hasKey(CouponRedisKeys.idempotency(KEY))).isFalse();
+        } finally {
+            ReflectionTestUtils.setField(couponController, "admissionEnabled", false);
+        }
+
+        issue(1L, KEY).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("같은 키를 다른 파라미터로 보내면 발급하지 않고 422")
+    void rejectKeyReusedWithDifferentParams() throws Exception {
+        saveCoupon(10);
+
+        issue(1L, KEY).andExpect(status().isOk());
+        issue(2L, KEY).andExpect(status().isUnprocessableEntity());
+
+        verify(couponService, never()).issue(2L, COUPON_ID);
+    }
+
+    @Test
+    @DisplayName("같은 키의 요청이 처리 중이면 409")
+    void conflictWhileInProgress() throws Exception {
+        saveCoupon(10);
+        idempotencyStore.begin(KEY, IdempotencyStore.fingerprint(1L, COUPON_ID));
+
+        issue(1L, KEY).andExpect(status().isConflict());
+
+        verify(couponService, never()).issue(1L, COUPON_ID);
+    }
+
+    @Test
+    @DisplayName("/issue-reactive 도 성공 응답을 저장하고 같은 키로 다시 보내면 발급 없이 같은 응답")
+    void replayReactive() throws Exception {
+        saveCoupon(10);
+
+        issueReactive(1L, KEY).andExpect(status().isOk());
+        issueReactive(1L, KEY).andExpect(status().isOk()).andExpect(content().string("쿠폰 발급 성공"));
+
+        assertThat(couponIssueRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("/issue-reactive 도 같은 키를 다른 파라미터로 보내면 422")
+    void rejectReusedKeyReactive() throws Exception {
+        saveCoupon(10);
+
+        issueReactive(1L, KEY).andExpect(status().isOk());
+        issueReactive(2L, KEY).andExpect(status().isUnprocessableEntity());
+
+        assertThat(couponIssueRepository.count()).isEqualTo(1);
+    }
+
+    private ResultActions issueReactive(Long userId, String idempotencyKey) throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/coupons/issue-reactive")
+                        .param("userId", String.valueOf(userId))
+                        .param("couponId", String.valueOf(COUPON_ID))
+                        .header("Idempotency-Key", idempotencyKey))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
+    private ResultActions issue(Long userId, String idempotencyKey) throws Exception {
+        return mockMvc.perform(post("/api/coupons/issue")
+                .param("userId", String.valueOf(userId))
+                .param("couponId", String.valueOf(COUPON_ID))
+                .header("Idempotency-Key", idempotencyKey));
+    }
+
+    private void saveCoupon(int stock) {
+        couponRepository.saveAndFlush(
+                Coupon.builder()
+                        .id(COUPON_ID)
+                        .stock(stock)
+                .build());
+    }
+
+    private void cleanUp() {
+        couponIssueRepository.deleteAll();
+        couponRepository.deleteAll();
+        stockGate.evict(COUPON_ID);
+        redisTemplate.delete(List.of(
+                CouponRedisKeys.idempotency(KEY),
+                CouponRedisKeys.claimed(COUPON_ID),
+                CouponRedisKeys.claimedLarge(COUPON_ID)));
+    }
+}
@@ -0,0 +1,141 @@
+package com.normaldev.concurrencycoupon.service;
+
+import com.normaldev.concurrencycoupon.config.ConnectionPermitAspect;
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.gate.LocalStockGate;
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 플랫폼 스레드 vs 가상 스레드 처리량/지연 시간 측정 (공통 부분)
+ *
+ * 같은 부하(1000명이 재고 100개 쿠폰 요청)를 모드마다 자기 프로필로 실행한다.
+ * (PlatformThreadLatencyTest: 기본 프로필, VirtualThreadLatencyTest: virtual 프로필)
+ * 정확히 재고만큼 발급되는지와 모든 요청이 제한 시간 안에 끝나는지를 검증하고,
+ * 처리량과 p50/p99 지연 시간은 환경에 따라 다르므로 출력만 한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest
+abstract class CouponLatencyTest {
+
+    private static final int REQUEST_COUNT = 1000;
+    private static final int STOCK = 100;
+    private static final long TIMEOUT_SECONDS = 60L;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+
+    @Autowired
+    private LocalStockGate stockGate;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private ObjectProvider<ConnectionPermitAspect> permitAspect;
+
+    @BeforeEach
+    void setUp() {
+        couponIssueRepository.deleteAll();
+        couponRepository.deleteAll();
+
+        couponRepository.saveAndFlush(
+                Coupon.builder()
+                        .id(1L)
+                        .stock(STOCK)
+                .build());
+
+        stockGate.evict(1L);
+        redisTemplate.delete(List.of(CouponRedisKeys.claimed(1L), CouponRedisKeys.claimedLarge(1L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        couponIssueRepository.deleteAll();
+        couponRepository.deleteAll();
+    }
+
+    // 프로필에 따라 허가 세마포어가 켜졌는지 (virtual 프로필에서만 켜진다)
+    protected boolean permitAspectEnabled() {
+        return permitAspect.getIfAvailable() != null;
+    }
+
+    protected void measure(String name, ExecutorService executorService) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(REQUEST_COUNT);
+        long[] latencies = new long[REQUEST_COUNT];
+
+        AtomicInteger success = new AtomicInteger(0);
+        AtomicInteger fail = new AtomicInteger(0);
+
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            int index = i;
+            long userId = i;
+            executorService.submit(() -> {
+                // 큐에서 기다린 시간까지 포함하기 위해 제출 시점부터 잰다
+                long submitted = System.nanoTime();
+                try {
+                    couponService.issue(userId, 1L);
+                    success.incrementAndGet();
+                } catch (Exception e) {
+                    fail.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - submitted;
+                    latch.countDown();
+                }
+            });
+        }
+
+        boolean completed = latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        long testTime = (System.nanoTime() - startTime) / 1_000_000;
+        Arrays.sort(latencies);
+
+        System.out.println("=== " + name + " 측정 결과 ===");
+        System.out.println("성공 카운트: " + success.get());
+        System.out.println("실패 카운트: " + fail.get());
+        System.out.println("실제 발급된 쿠폰 수: " + couponIssueRepository.count());
+        System.out.println("테스트 걸린 시간(ms): " + testTime);
+        System.out.println("처리량(req/s): " + (REQUEST_COUNT * 1000L / Math.max(testTime, 1)));
+        System.out.println("p50(ms): " + percentile(latencies, 50));
+        System.out.println("p99(ms): " + percentile(latencies, 99));
+        System.out.println("===========================");
+
+        assertThat(completed).as("모든 요청이 %d초 안에 끝나야 한다", TIMEOUT_SECONDS).isTrue();
+        assertThat(success.get()).isEqualTo(STOCK);
+        assertThat(fail.get()).isEqualTo(REQUEST_COUNT - STOCK);
+        assertThat(couponIssueRepository.count()).isEqualTo(STOCK);
+        assertThat(couponRepository.findById(1L).orElseThrow().getStock()).isZero();
+    }
+
+    private static double percentile(long[] sortedNanos, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
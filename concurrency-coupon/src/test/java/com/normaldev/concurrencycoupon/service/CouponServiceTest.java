@@ -3,13 +3,17 @@ package com.normaldev.concurrencycoupon.service;
 import com.normaldev.concurrencycoupon.entity.Coupon;
 import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
 import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.gate.LocalStockGate;
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
 
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -33,6 +37,12 @@ class CouponServiceTest {
     @Autowired
     private CouponIssueRepository couponIssueRepository;
 
+    @Autowired
+    private LocalStockGate stockGate;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
     @BeforeEach
     void setUp() {
         couponIssueRepository.deleteAll();
@@ -44,6 +54,10 @@ class CouponServiceTest {
                         .id(1L)
                         .stock(100)
                 .build());
+
+        // 이전 테스트에서 품절/발급 처리된 로컬 게이트와 Redis 발급 기록 초기화
+        stockGate.evict(1L);
+        redisTemplate.delete(List.of(CouponRedisKeys.claimed(1L), CouponRedisKeys.claimedLarge(1L)));
     }
 
     @AfterEach
@@ -0,0 +1,25 @@
+package com.normaldev.concurrencycoupon.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 기본 프로필(Tomcat 플랫폼 스레드, 허가 세마포어 없음)에서 플랫폼 스레드 32개로 측정
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+class PlatformThreadLatencyTest extends CouponLatencyTest {
+
+    @Test
+    @DisplayName("플랫폼 스레드 32개로 1000명 요청 - 정확히 100명 발급")
+    void platformThreadTest() throws InterruptedException {
+        assertThat(permitAspectEnabled()).isFalse();
+
+        measure("플랫폼 스레드", Executors.newFixedThreadPool(32));
+    }
+}
@@ -0,0 +1,27 @@
+package com.normaldev.concurrencycoupon.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * virtual 프로필(가상 스레드, 커넥션 허가 세마포어)에서 요청당 가상 스레드로 측정
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@ActiveProfiles("virtual")
+class VirtualThreadLatencyTest extends CouponLatencyTest {
+
+    @Test
+    @DisplayName("가상 스레드로 1000명 요청 - 허가 세마포어를 거쳐도 정확히 100명 발급")
+    void virtualThreadTest() throws InterruptedException {
+        assertThat(permitAspectEnabled()).isTrue();
+
+        measure("가상 스레드", Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
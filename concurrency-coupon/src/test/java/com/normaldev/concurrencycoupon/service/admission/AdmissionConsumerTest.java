@@ -0,0 +1,197 @@
+package com.normaldev.concurrencycoupon.service.admission;
+
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.repository.CouponIssueJdbcRepository;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.CouponService;
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 발급 대기열 소비자 테스트 (배치 발급, 품절 결과, 죽은 소비자 레코드 회수, DB 장애 시 재처리)
+ *
+ * 소비자는 테스트마다 직접 만들어 시작/종료한다. (coupon.admission.enabled 기본값은 false)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest
+class AdmissionConsumerTest {
+
+    private static final long COUPON_ID = 1L;
+    private static final long TIMEOUT_MILLIS = 10_000L;
+
+    @Autowired
+    private AdmissionQueue admissionQueue;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @MockitoSpyBean
+    private CouponIssueJdbcRepository issueJdbcRepository;
+
+    private AdmissionConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (consumer != null) {
+            consumer.stop();
+        }
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("대기열에 넣은 요청을 발급하고 대기표에 결과를 남긴 뒤 Stream 에서 지운다")
+    void issueQueuedTickets() throws InterruptedException {
+        saveCoupon(10);
+        List<String> tickets = List.of(
+                admissionQueue.admit(1L, COUPON_ID),
+                admissionQueue.admit(2L, COUPON_ID),
+                admissionQueue.admit(3L, COUPON_ID));
+
+        startConsumer("test-node", 30_000L);
+
+        await(() -> tickets.stream().allMatch(ticket -> admissionQueue.find(ticket).isDone()));
+        assertThat(tickets).allMatch(ticket -> admissionQueue.find(ticket).status() == TicketStatus.ISSUED);
+        assertThat(couponIssueRepository.count()).isEqualTo(3);
+        assertThat(couponRepository.findById(COUPON_ID).orElseThrow().getStock()).isEqualTo(7);
+        assertThat(redisTemplate.opsForStream().size(CouponRedisKeys.admissionStream())).isZero();
+    }
+
+    @Test
+    @DisplayName("재고보다 많이 들어오면 먼저 들어온 요청만 발급되고 나머지 대기표는 FAILED")
+    void soldOutTicketsFail() throws InterruptedException {
+        saveCoupon(1);
+        String first = admissionQueue.admit(1L, COUPON_ID);
+        String second = admissionQueue.admit(2L, COUPON_ID);
+
+        startConsumer("test-node", 30_000L);
+
+        await(() -> admissionQueue.find(first).isDone() && admissionQueue.find(second).isDone());
+        assertThat(admissionQueue.find(first).status()).isEqualTo(TicketStatus.ISSUED);
+        assertThat(admissionQueue.find(second).status()).isEqualTo(TicketStatus.FAILED);
+    }
+
+    @Test
+    @DisplayName("죽었거나 이름이 바뀐 소비자가 ACK 하지 못한 레코드는 살아 있는 소비자가 XAUTOCLAIM 으로 가져와 처리한다")
+    void claimPendingOfDeadConsumer() throws InterruptedException {
+        saveCoupon(10);
+        String ticket = admissionQueue.admit(1L, COUPON_ID);
+
+        // 이전 컨테이너(dead-node)가 레코드를 읽고 ACK 하기 전에 죽은 상황
+        redisTemplate.opsForStream().createGroup(CouponRedisKeys.admissionStream(), ReadOffset.from("0"), AdmissionConsumer.GROUP);
+        List<MapRecord<String, Object, Object>> read = redisTemplate.opsForStream().read(
+                Consumer.from(AdmissionConsumer.GROUP, "dead-node"),
+                StreamReadOptions.empty().count(10),
+                StreamOffset.create(CouponRedisKeys.admissionStream(), ReadOffset.lastConsumed()));
+        assertThat(read).hasSize(1);
+        Thread.sleep(300);
+
+        startConsumer("live-node", 200L);
+
+        await(() -> admissionQueue.find(ticket).isDone());
+        assertThat(admissionQueue.find(ticket).status()).isEqualTo(TicketStatus.ISSUED);
+        await(() -> redisTemplate.opsForStream()
+                .pending(CouponRedisKeys.admissionStream(), AdmissionConsumer.GROUP)
+                .getTotalPendingMessages() == 0);
+    }
+
+    @Test
+    @DisplayName("DB 장애로 발급 결과를 확정하지 못하면 대기표를 FAILED 로 남기지 않고 ACK 하지 않아, 회수 후 다시 발급한다")
+    void retryOnDatabaseFailure() throws InterruptedException {
+        saveCoupon(10);
+        doThrow(new DataAccessResourceFailureException("DB 연결 끊김"))
+                .doCallRealMethod()
+                .when(issueJdbcRepository).insertIgnore(anyLong(), anyCollection());
+        String first = admissionQueue.admit(1L, COUPON_ID);
+        String second = admissionQueue.admit(2L, COUPON_ID);
+
+        startConsumer("test-node", 2_000L);
+
+        // 첫 시도는 실패: 대기표는 아직 대기 중이고 레코드는 ACK 되지 않고 PEL에 남아 있다
+        await(() -> mockingDetails(issueJdbcRepository).getInvocations().size() >= 1);
+        Thread.sleep(300);
+        assertThat(redisTemplate.opsForStream()
+                .pending(CouponRedisKeys.admissionStream(), AdmissionConsumer.GROUP)
+                .getTotalPendingMessages()).isEqualTo(2);
+        assertThat(admissionQueue.find(first).status()).isEqualTo(TicketStatus.WAITING);
+        assertThat(admissionQueue.find(second).status()).isEqualTo(TicketStatus.WAITING);
+
+        // claim-idle-millis 뒤 XAUTOCLAIM 으로 회수해 다시 발급한다 (처음 결과가 FAILED 였다면 setIfAbsent 로 남지 않는다)
+        await(() -> admissionQueue.find(first).isDone() && admissionQueue.find(second).isDone());
+        assertThat(admissionQueue.find(first).status()).isEqualTo(TicketStatus.ISSUED);
+        assertThat(admissionQueue.find(second).status()).isEqualTo(TicketStatus.ISSUED);
+        assertThat(couponRepository.findById(COUPON_ID).orElseThrow().getStock()).isEqualTo(8);
+        verify(issueJdbcRepository, atLeast(2)).insertIgnore(anyLong(), anyCollection());
+        await(() -> redisTemplate.opsForStream().size(CouponRedisKeys.admissionStream()) == 0);
+    }
+
+    private void startConsumer(String consumerName, long claimIdleMillis) {
+        consumer = new AdmissionConsumer(redisTemplate, couponService, admissionQueue, 100, 1, consumerName, claimIdleMillis);
+        consumer.start();
+    }
+
+    private void saveCoupon(int stock) {
+        couponRepository.saveAndFlush(
+                Coupon.builder()
+                        .id(COUPON_ID)
+                        .stock(stock)
+                .build());
+    }
+
+    private void cleanUp() {
+        couponIssueRepository.deleteAll();
+        couponRepository.deleteAll();
+        redisTemplate.delete(List.of(
+                CouponRedisKeys.admissionStream(),
+                CouponRedisKeys.claimed(COUPON_ID),
+                CouponRedisKeys.claimedLarge(COUPON_ID)));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
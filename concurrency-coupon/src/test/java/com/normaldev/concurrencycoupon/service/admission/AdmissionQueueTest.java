@@ -0,0 +1,116 @@
+package com.normaldev.concurrencycoupon.service.admission;
+
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 발급 대기열 대기표 조회/롱 폴링 테스트 (소비자 없이 결과를 직접 남긴다)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest
+class AdmissionQueueTest {
+
+    private static final long TIMEOUT_MILLIS = 3_000L;
+
+    @Autowired
+    private AdmissionQueue admissionQueue;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.delete(CouponRedisKeys.admissionStream());
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisTemplate.delete(CouponRedisKeys.admissionStream());
+    }
+
+    @Test
+    @DisplayName("Stream 에 남아 있고 결과가 없는 대기표는 WAITING")
+    void waitingWhileQueued() {
+        String ticket = admissionQueue.admit(1L, 1L);
+
+        assertThat(admissionQueue.find(ticket).status()).isEqualTo(TicketStatus.WAITING);
+    }
+
+    @Test
+    @DisplayName("발급한 적 없는 대기표는 WAITING 이 아니라 NOT_FOUND 이고, 롱 폴링도 기다리지 않고 바로 응답한다")
+    void notFoundForUnknownTicket() {
+        assertThat(admissionQueue.find("1-0").status()).isEqualTo(TicketStatus.NOT_FOUND);
+        assertThat(admissionQueue.find("not-a-ticket").status()).isEqualTo(TicketStatus.NOT_FOUND);
+
+        DeferredResult<IssueTicket> deferred = admissionQueue.await("1-0", 10_000L);
+        assertThat(deferred.hasResult()).isTrue();
+        assertThat(((IssueTicket) deferred.getResult()).status()).isEqualTo(TicketStatus.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("처리가 끝나 Stream 에서 지워진 대기표는 결과로 응답하고, 결과 보관 시간이 지나면 NOT_FOUND")
+    void notFoundAfterResultExpired() {
+        String ticket = admissionQueue.admit(1L, 1L);
+        admissionQueue.complete(ticket, true, null);
+        redisTemplate.opsForStream().delete(CouponRedisKeys.admissionStream(), ticket);
+
+        assertThat(admissionQueue.find(ticket).status()).isEqualTo(TicketStatus.ISSUED);
+
+        // 결과 키 만료
+        redisTemplate.delete(CouponRedisKeys.ticket(ticket));
+        assertThat(admissionQueue.find(ticket).status()).isEqualTo(TicketStatus.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("롱 폴링 중인 요청은 처리 완료 알림을 받으면 바로 결과로 응답한다")
+    void longPollWakesUpOnComplete() throws InterruptedException {
+        String ticket = admissionQueue.admit(1L, 1L);
+        DeferredResult<IssueTicket> deferred = admissionQueue.await(ticket, 10_000L);
+        assertThat(deferred.hasResult()).isFalse();
+
+        admissionQueue.complete(ticket, false, "쿠폰 재고가 없습니다.");
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!deferred.hasResult() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(deferred.hasResult()).isTrue();
+        IssueTicket result = (IssueTicket) deferred.getResult();
+        assertThat(result.status()).isEqualTo(TicketStatus.FAILED);
+        assertThat(result.message()).isEqualTo("쿠폰 재고가 없습니다.");
+    }
+
+    @Test
+    @DisplayName("이미 처리된 대기표는 롱 폴링이 기다리지 않고 바로 응답한다")
+    void longPollAlreadyDone() {
+        String ticket = admissionQueue.admit(1L, 1L);
+        admissionQueue.complete(ticket, true, null);
+
+        DeferredResult<IssueTicket> deferred = admissionQueue.await(ticket, 10_000L);
+
+        assertThat(deferred.hasResult()).isTrue();
+        assertThat(((IssueTicket) deferred.getResult()).status()).isEqualTo(TicketStatus.ISSUED);
+    }
+
+    @Test
+    @DisplayName("같은 대기표가 다시 처리돼도(회수 후 재처리) 처음 남긴 결과를 유지한다")
+    void firstResultWins() {
+        String ticket = admissionQueue.admit(1L, 1L);
+
+        admissionQueue.complete(ticket, true, null);
+        admissionQueue.complete(ticket, false, "이미 발급받은 쿠폰입니다.");
+
+        assertThat(admissionQueue.find(ticket).status()).isEqualTo(TicketStatus.ISSUED);
+    }
+}
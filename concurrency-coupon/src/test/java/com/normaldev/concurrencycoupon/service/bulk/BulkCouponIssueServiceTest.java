@@ -0,0 +1,165 @@
+package com.normaldev.concurrencycoupon.service.bulk;
+
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.entity.CouponIssue;
+import com.normaldev.concurrencycoupon.repository.CouponIssueJdbcRepository;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.CouponService;
+import com.normaldev.concurrencycoupon.service.IssueResult;
+import com.normaldev.concurrencycoupon.service.gate.LocalStockGate;
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doCallRealMethod;
+
+/**
+ * 대량 발급 테스트 (chunk 단위 재고 정산, 일부 chunk 실패, 이미 발급/요청 내 중복, 단건 발급 경로와 함께 쓸 때)
+ *
+ * chunk 여러 개를 만들기 위해 chunk-size를 2로 둔다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest(properties = "coupon.bulk.chunk-size=2")
+class BulkCouponIssueServiceTest {
+
+    private static final long COUPON_ID = 1L;
+
+    @Autowired
+    private BulkCouponIssueService bulkCouponIssueService;
+
+    @Autowired
+    private CouponService couponService;
+
+    @MockitoSpyBean
+    private CouponIssueJdbcRepository issueJdbcRepository;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+
+    @Autowired
+    private LocalStockGate stockGate;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("재고보다 많이 요청하면 재고만큼만 발급하고 재고와 발급 이력이 정확히 맞는다")
+    void stockAccounting() {
+        saveCoupon(5);
+
+        List<IssueResult> results = bulkCouponIssueService.issueBatch(COUPON_ID, List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L));
+
+        assertThat(results).extracting(IssueResult::issued)
+                .containsExactly(true, true, true, true, true, false, false, false);
+        assertThat(results.subList(5, 8)).extracting(IssueResult::message).containsOnly("쿠폰 재고가 없습니다.");
+        assertThat(stock()).isZero();
+        assertThat(couponIssueRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("chunk 하나의 저장이 실패하면 그 chunk만 롤백되어 다시 시도할 수 있는 실패로 응답하고, 나머지 chunk는 발급되며 재고는 발급된 만큼만 준다")
+    void partialChunkFailure() {
+        saveCoupon(10);
+        doCallRealMethod()
+                .doThrow(new DataAccessResourceFailureException("DB 연결 실패"))
+                .doCallRealMethod()
+                .when(issueJdbcRepository).insertIgnore(anyLong(), anyCollection());
+
+        List<IssueResult> results = bulkCouponIssueService.issueBatch(COUPON_ID, List.of(1L, 2L, 3L, 4L, 5L, 6L));
+
+        assertThat(results).extracting(IssueResult::issued).containsExactly(true, true, false, false, true, true);
+        assertThat(results.subList(2, 4)).extracting(IssueResult::message).containsOnly("쿠폰 발급 저장 실패");
+        assertThat(results).extracting(IssueResult::retryable).containsExactly(false, false, true, true, false, false);
+        assertThat(stock()).isEqualTo(6);
+        assertThat(couponIssueRepository.count()).isEqualTo(4);
+        assertThat(couponIssueRepository.findIssuedUserIds(COUPON_ID, List.of(3L, 4L))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("쿠폰이 없으면 예외 대신 모든 사용자를 실패로 응답한다")
+    void unknownCoupon() {
+        List<IssueResult> results = bulkCouponIssueService.issueBatch(COUPON_ID, List.of(1L, 2L, 3L));
+
+        assertThat(results).extracting(IssueResult::issued).containsOnly(false);
+        assertThat(results).extracting(IssueResult::message).containsOnly("쿠폰을 찾을 수 없습니다.");
+        assertThat(results).extracting(IssueResult::retryable).containsOnly(false);
+    }
+
+    @Test
+    @DisplayName("이미 발급받은 사용자와 요청 안의 중복 사용자는 재고를 쓰지 않는다")
+    void alreadyIssuedAndDuplicated() {
+        saveCoupon(10);
+        couponIssueRepository.saveAndFlush(new CouponIssue(COUPON_ID, 1L));
+
+        List<IssueResult> results = bulkCouponIssueService.issueBatch(COUPON_ID, List.of(1L, 2L, 2L));
+
+        assertThat(results).extracting(IssueResult::issued).containsExactly(false, true, false);
+        assertThat(results.get(0).message()).isEqualTo("이미 발급받은 쿠폰입니다.");
+        assertThat(results.get(2).message()).isEqualTo("같은 요청에 중복된 사용자입니다.");
+        assertThat(stock()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("대량 발급은 Bitmap/로컬 게이트를 거치지 않지만, 이후 단건 발급이 중복 발급이나 초과 발급을 하지는 않는다")
+    void singleIssueAfterBulk() {
+        saveCoupon(2);
+        // 단건 발급 경로의 게이트가 대량 발급 전 재고(2)를 기억하고 있는 상황
+        stockGate.enter(100L, COUPON_ID);
+        stockGate.failed(100L, COUPON_ID, new IllegalStateException("취소"));
+
+        bulkCouponIssueService.issueBatch(COUPON_ID, List.of(1L, 2L));
+
+        assertThatThrownBy(() -> couponService.issue(1L, COUPON_ID)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> couponService.issue(3L, COUPON_ID)).isInstanceOf(RuntimeException.class);
+        assertThat(couponIssueRepository.count()).isEqualTo(2);
+        assertThat(stock()).isZero();
+    }
+
+    private void saveCoupon(int stock) {
+        couponRepository.saveAndFlush(
+                Coupon.builder()
+                        .id(COUPON_ID)
+                        .stock(stock)
+                .build());
+    }
+
+    private int stock() {
+        return couponRepository.findById(COUPON_ID).orElseThrow().getStock();
+    }
+
+    private void cleanUp() {
+        couponIssueRepository.deleteAll();
+        couponRepository.deleteAll();
+        stockGate.evict(COUPON_ID);
+        redisTemplate.delete(List.of(CouponRedisKeys.claimed(COUPON_ID), CouponRedisKeys.claimedLarge(COUPON_ID)));
+    }
+}
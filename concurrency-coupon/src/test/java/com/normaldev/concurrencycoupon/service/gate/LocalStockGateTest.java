@@ -0,0 +1,189 @@
+package com.normaldev.concurrencycoupon.service.gate;
+
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.CouponAlreadyIssuedException;
+import com.normaldev.concurrencycoupon.service.CouponService;
+import com.normaldev.concurrencycoupon.service.CouponSoldOutException;
+import com.normaldev.concurrencycoupon.service.redis.CouponIssueService;
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 로컬 재고 게이트 테스트 (품절/중복 사전 거절, 토큰 반환, 토큰 소진, 재고 재확인)
+ *
+ * 게이트는 테스트마다 DB 조회 횟수를 셀 수 있는 CouponRepository로 직접 만든다.
+ * 락 앞에서 거절하는지는 Spring 빈으로 묶인 RedissonCouponService 경로로 확인한다.
+ * (재확인 간격 0: 토큰이 떨어지면 바로 DB 재고를 보고 품절을 판단)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest(properties = "coupon.gate.refresh-interval-millis=0")
+class LocalStockGateTest {
+
+    private static final long COUPON_ID = 1L;
+    private static final long NO_REFRESH_MILLIS = 60_000L;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private LocalStockGate stockGate;
+
+    @MockitoSpyBean
+    private RedissonClient redissonClient;
+
+    @MockitoSpyBean
+    private CouponIssueService couponIssueService;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    private CouponRepository countingRepository;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        countingRepository = mock(CouponRepository.class, delegatesTo(couponRepository));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("품절로 확인된 쿠폰은 분산 락과 발급 로직까지 가지 않고 거절한다")
+    void rejectSoldOutBeforeLock() {
+        saveCoupon(1);
+        couponService.issue(1L, COUPON_ID);
+        clearInvocations(redissonClient, couponIssueService);
+
+        for (long userId = 2; userId <= 10; userId++) {
+            long id = userId;
+            assertThatThrownBy(() -> couponService.issue(id, COUPON_ID)).isInstanceOf(CouponSoldOutException.class);
+        }
+
+        verify(redissonClient, never()).getLock(anyString());
+        verify(couponIssueService, never()).issue(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("품절로 본 뒤에는 재확인 간격 동안 DB 조회 없이 메모리에서 거절한다")
+    void rejectSoldOutWithoutDatabase() {
+        saveCoupon(1);
+        LocalStockGate gate = new LocalStockGate(countingRepository, NO_REFRESH_MILLIS);
+
+        gate.enter(1L, COUPON_ID);
+        gate.failed(1L, COUPON_ID, new CouponSoldOutException("쿠폰 재고가 없습니다."));
+
+        for (long userId = 2; userId <= 10; userId++) {
+            long id = userId;
+            assertThatThrownBy(() -> gate.enter(id, COUPON_ID)).isInstanceOf(CouponSoldOutException.class);
+        }
+        verify(countingRepository, times(1)).findById(COUPON_ID);
+    }
+
+    @Test
+    @DisplayName("발급받은 사용자와 중복 발급으로 실패한 사용자는 다시 들어오지 못한다")
+    void rejectClaimedUsers() {
+        saveCoupon(10);
+        LocalStockGate gate = new LocalStockGate(countingRepository, NO_REFRESH_MILLIS);
+
+        gate.enter(1L, COUPON_ID);
+        gate.issued(1L, COUPON_ID);
+        gate.enter(2L, COUPON_ID);
+        gate.failed(2L, COUPON_ID, new CouponAlreadyIssuedException("이미 발급받은 쿠폰입니다."));
+
+        assertThatThrownBy(() -> gate.enter(1L, COUPON_ID)).isInstanceOf(CouponAlreadyIssuedException.class);
+        assertThatThrownBy(() -> gate.enter(2L, COUPON_ID)).isInstanceOf(CouponAlreadyIssuedException.class);
+        assertThatCode(() -> gate.enter(3L, COUPON_ID)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("토큰을 모두 다른 요청이 들고 있으면 IllegalStateException, 일시적 실패로 토큰이 돌아오면 다시 들어온다")
+    void returnTokenOnTransientFailure() {
+        saveCoupon(1);
+        LocalStockGate gate = new LocalStockGate(countingRepository, NO_REFRESH_MILLIS);
+
+        gate.enter(1L, COUPON_ID);
+        assertThatThrownBy(() -> gate.enter(2L, COUPON_ID))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("요청이 많습니다");
+
+        // 락 획득 실패 같은 품절/중복이 아닌 실패는 토큰을 돌려준다
+        gate.failed(1L, COUPON_ID, new IllegalStateException("쿠폰 발급 요청이 많습니다. 잠시 후 다시 시도해주세요."));
+
+        assertThatCode(() -> gate.enter(2L, COUPON_ID)).doesNotThrowAnyException();
+        verify(countingRepository, times(1)).findById(COUPON_ID);
+    }
+
+    @Test
+    @DisplayName("품절로 본 쿠폰의 재고를 다시 채우면 refresh-interval 이 지난 뒤 DB 재고로 다시 맞춘다")
+    void refreshAfterRestock() throws InterruptedException {
+        saveCoupon(0);
+        long refreshIntervalMillis = 300L;
+        LocalStockGate gate = new LocalStockGate(countingRepository, refreshIntervalMillis);
+
+        assertThatThrownBy(() -> gate.enter(1L, COUPON_ID)).isInstanceOf(CouponSoldOutException.class);
+        jdbcTemplate.update("UPDATE coupon SET stock = ? WHERE id = ?", 2, COUPON_ID);
+
+        // 간격 안에서는 DB를 다시 보지 않는다
+        assertThatThrownBy(() -> gate.enter(1L, COUPON_ID)).isInstanceOf(CouponSoldOutException.class);
+        verify(countingRepository, times(1)).findById(COUPON_ID);
+
+        Thread.sleep(refreshIntervalMillis + 100);
+
+        assertThatCode(() -> gate.enter(1L, COUPON_ID)).doesNotThrowAnyException();
+        assertThatCode(() -> gate.enter(2L, COUPON_ID)).doesNotThrowAnyException();
+        verify(countingRepository, times(2)).findById(COUPON_ID);
+    }
+
+    private void saveCoupon(int stock) {
+        couponRepository.saveAndFlush(
+                Coupon.builder()
+                        .id(COUPON_ID)
+                        .stock(stock)
+                .build());
+    }
+
+    private void cleanUp() {
+        couponIssueRepository.deleteAll();
+        couponRepository.deleteAll();
+        stockGate.evict(COUPON_ID);
+        redisTemplate.delete(List.of(CouponRedisKeys.claimed(COUPON_ID), CouponRedisKeys.claimedLarge(COUPON_ID)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.normaldev.concurrencycoupon.service.idempotency;
+
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Idempotency-Key 저장소 테스트 (선점, 처리 중, 저장된 응답, 다른 파라미터, 키 삭제)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest
+class IdempotencyStoreTest {
+
+    private static final String KEY = "idempotency-store-test";
+    private static final String FINGERPRINT = IdempotencyStore.fingerprint(1L, 1L);
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @AfterEach
+    void tearDown() {
+        redisTemplate.delete(CouponRedisKeys.idempotency(KEY));
+    }
+
+    @Test
+    @DisplayName("처음 들어온 키는 선점하고, 처리 중에 같은 키가 들어오면 409")
+    void inProgress() {
+        assertThat(idempotencyStore.begin(KEY, FINGERPRINT)).isEmpty();
+
+        assertThat(idempotencyStore.begin(KEY, FINGERPRINT))
+                .hasValueSatisfying(response -> assertThat(response.status()).isEqualTo(409));
+    }
+
+    @Test
+    @DisplayName("저장한 응답은 같은 키, 같은 파라미터의 요청에 그대로 돌려준다")
+    void replayStoredResponse() {
+        idempotencyStore.begin(KEY, FINGERPRINT);
+        idempotencyStore.complete(KEY, FINGERPRINT, new StoredResponse(400, "쿠폰 발급 실패: 쿠폰|재고가 없습니다."));
+
+        assertThat(idempotencyStore.begin(KEY, FINGERPRINT))
+                .contains(new StoredResponse(400, "쿠폰 발급 실패: 쿠폰|재고가 없습니다."));
+    }
+
+    @Test
+    @DisplayName("같은 키가 다른 파라미터로 들어오면 처리 중이든 끝났든 422")
+    void rejectDifferentParams() {
+        String otherFingerprint = IdempotencyStore.fingerprint(2L, 1L);
+
+        idempotencyStore.begin(KEY, FINGERPRINT);
+        assertThat(idempotencyStore.begin(KEY, otherFingerprint))
+                .hasValueSatisfying(response -> assertThat(response.status()).isEqualTo(422));
+
+        idempotencyStore.complete(KEY, FINGERPRINT, new StoredResponse(200, "쿠폰 발급 성공"));
+        assertThat(idempotencyStore.begin(KEY, otherFingerprint))
+                .hasValueSatisfying(response -> assertThat(response.status()).isEqualTo(422));
+    }
+
+    @Test
+    @DisplayName("abandon 으로 지운 키는 같은 키로 다시 처리할 수 있다")
+    void abandon() {
+        idempotencyStore.begin(KEY, FINGERPRINT);
+
+        idempotencyStore.abandon(KEY);
+
+        assertThat(idempotencyStore.begin(KEY, FINGERPRINT)).isEmpty();
+    }
+}
@@ -0,0 +1,193 @@
+package com.normaldev.concurrencycoupon.service.redis;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LettuceLock 테스트 (획득/해제, 대기 시간 초과, 같은 서버/다른 서버의 해제로 깨우기, 대기열 정리)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest
+class LettuceLockTest {
+
+    private static final String KEY = "coupon:lock:test";
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/lock-release.lua"), Long.class);
+
+    @Autowired
+    private LettuceLock lettuceLock;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @AfterEach
+    void tearDown() {
+        redisTemplate.delete(KEY);
+    }
+
+    @Test
+    @DisplayName("잡은 락은 다른 요청이 잡지 못하고, 해제하면 다시 잡을 수 있으며 대기열이 정리된다")
+    void lockAndUnlock() throws InterruptedException {
+        String token = lettuceLock.tryLock(KEY, Duration.ofSeconds(1), Duration.ofSeconds(10));
+        assertThat(token).isNotNull();
+        assertThat(redisTemplate.opsForValue().get(KEY)).isEqualTo(token);
+
+        lettuceLock.unlock(KEY, token);
+        assertThat(redisTemplate.hasKey(KEY)).isFalse();
+        assertThat(lettuceLock.hasWaiters(KEY)).isFalse();
+
+        String next = lettuceLock.tryLock(KEY, Duration.ofSeconds(1), Duration.ofSeconds(10));
+        assertThat(next).isNotNull().isNotEqualTo(token);
+        lettuceLock.unlock(KEY, next);
+    }
+
+    @Test
+    @DisplayName("다른 토큰으로는 해제되지 않는다 (만료 후 다른 요청이 잡은 락 보호)")
+    void unlockWithOtherToken() throws InterruptedException {
+        String token = lettuceLock.tryLock(KEY, Duration.ofSeconds(1), Duration.ofSeconds(10));
+        redisTemplate.opsForValue().set(KEY, "other");
+
+        lettuceLock.unlock(KEY, token);
+
+        assertThat(redisTemplate.opsForValue().get(KEY)).isEqualTo("other");
+    }
+
+    @Test
+    @DisplayName("waitTime 안에 잡지 못하면 null 을 돌려주고 대기열에서 빠진다")
+    void timeout() throws Exception {
+        redisTemplate.opsForValue().set(KEY, "holder", Duration.ofSeconds(10));
+
+        long start = System.nanoTime();
+        String token = CompletableFuture.supplyAsync(() -> tryLock(Duration.ofMillis(300))).get();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(token).isNull();
+        assertThat(elapsedMillis).isBetween(300L, 3_000L);
+        assertThat(lettuceLock.hasWaiters(KEY)).isFalse();
+    }
+
+    @Test
+    @DisplayName("같은 서버에서 잡은 락이 해제되면 다음 차례의 요청이 바로 잡는다")
+    void wakeUpOnLocalRelease() throws Exception {
+        String token = lettuceLock.tryLock(KEY, Duration.ofSeconds(1), Duration.ofSeconds(30));
+
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> tryLock(Duration.ofSeconds(10)));
+        Thread.sleep(300);
+        assertThat(waiter).isNotDone();
+
+        long releasedAt = System.nanoTime();
+        lettuceLock.unlock(KEY, token);
+        String next = waiter.get(5, TimeUnit.SECONDS);
+        long wakeUpMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - releasedAt);
+
+        assertThat(next).isNotNull();
+        assertThat(wakeUpMillis).isLessThan(2_000L);
+        lettuceLock.unlock(KEY, next);
+        assertThat(lettuceLock.hasWaiters(KEY)).isFalse();
+    }
+
+    @Test
+    @DisplayName("다른 서버가 잡은 락은 락 만료(PTTL)까지 기다리지 않고 해제 알림(Pub/Sub)을 받자마자 잡는다")
+    void wakeUpOnReleaseMessage() throws Exception {
+        // 다른 서버가 잡은 락: 이 서버의 대기열을 거치지 않으므로 대기 요청은 바로 차례를 얻고 해제 알림을 기다린다
+        redisTemplate.opsForValue().set(KEY, "other-node", Duration.ofSeconds(30));
+
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> tryLock(Duration.ofSeconds(10)));
+        Thread.sleep(300);
+        assertThat(waiter).isNotDone();
+
+        // 다른 서버의 unlock: 해제 스크립트가 키를 지우고 채널에 락 키를 발행한다
+        long releasedAt = System.nanoTime();
+        Long released = redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY), "other-node", LettuceLock.RELEASE_CHANNEL);
+        String next = waiter.get(5, TimeUnit.SECONDS);
+        long wakeUpMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - releasedAt);
+
+        assertThat(released).isEqualTo(1L);
+        assertThat(next).isNotNull();
+        assertThat(wakeUpMillis).isLessThan(2_000L);
+        lettuceLock.unlock(KEY, next);
+        assertThat(lettuceLock.hasWaiters(KEY)).isFalse();
+    }
+
+    @Test
+    @DisplayName("해제 알림 없이 락이 만료되면 남은 TTL 만큼만 기다린 뒤 잡는다")
+    void acquireAfterLeaseExpired() throws InterruptedException {
+        redisTemplate.opsForValue().set(KEY, "crashed", Duration.ofMillis(500));
+
+        String token = lettuceLock.tryLock(KEY, Duration.ofSeconds(5), Duration.ofSeconds(10));
+
+        assertThat(token).isNotNull();
+        lettuceLock.unlock(KEY, token);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 경쟁해도 동시에 락을 잡는 요청은 하나뿐이고, 끝나면 대기열이 남지 않는다")
+    void mutualExclusion() throws InterruptedException {
+        int threadCount = 20;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger maxHolders = new AtomicInteger();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < threadCount; i++) {
+            int id = i;
+            executorService.submit(() -> {
+                try {
+                    String token = tryLock(Duration.ofSeconds(10));
+                    if (token == null) {
+                        return;
+                    }
+                    try {
+                        maxHolders.accumulateAndGet(holders.incrementAndGet(), Math::max);
+                        order.add(id);
+                        Thread.sleep(10);
+                    } finally {
+                        holders.decrementAndGet();
+                        lettuceLock.unlock(KEY, token);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        assertThat(maxHolders.get()).isEqualTo(1);
+        assertThat(order).hasSize(threadCount);
+        assertThat(lettuceLock.hasWaiters(KEY)).isFalse();
+    }
+
+    private String tryLock(Duration waitTime) {
+        try {
+            return lettuceLock.tryLock(KEY, waitTime, Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
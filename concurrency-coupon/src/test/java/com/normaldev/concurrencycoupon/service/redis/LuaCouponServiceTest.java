@@ -0,0 +1,140 @@
+package com.normaldev.concurrencycoupon.service.redis;
+
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.CouponAlreadyIssuedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Lua 스크립트 발급 테스트 (Redis 재고 차감 + Write-Behind DB 반영)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest
+class LuaCouponServiceTest {
+
+    private static final long COUPON_ID = 1L;
+    private static final long FLUSH_TIMEOUT_MILLIS = 5_000L;
+
+    @Autowired
+    private LuaCouponService luaCouponService;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        couponIssueRepository.deleteAll();
+        couponRepository.deleteAll();
+
+        couponRepository.saveAndFlush(
+                Coupon.builder()
+                        .id(COUPON_ID)
+                        .stock(100)
+                .build());
+
+        // 재고는 첫 요청에서 DB 값으로 적재되도록 Redis 상태를 비운다
+        redisTemplate.delete(List.of(
+                CouponRedisKeys.stock(COUPON_ID),
+                CouponRedisKeys.issued(COUPON_ID),
+                CouponRedisKeys.pendingIssues()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        couponIssueRepository.deleteAll();
+        couponRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("1000명이 동시에 100개 쿠폰 발급 - 정확히 100명만 성공하고 DB에도 100건 반영")
+    void concurrentIssue() throws InterruptedException {
+        int requestCount = 1000;
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+        AtomicInteger success = new AtomicInteger();
+
+        for (int i = 0; i < requestCount; i++) {
+            long userId = i;
+            executorService.submit(() -> {
+                try {
+                    luaCouponService.issue(userId, COUPON_ID);
+                    success.incrementAndGet();
+                } catch (RuntimeException ignored) {
+                    // 품절
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        assertThat(success.get()).isEqualTo(100);
+        assertThat(redisTemplate.opsForValue().get(CouponRedisKeys.stock(COUPON_ID))).isEqualTo("0");
+        assertThat(redisTemplate.opsForSet().size(CouponRedisKeys.issued(COUPON_ID))).isEqualTo(100L);
+
+        awaitFlushed(100);
+        assertThat(couponRepository.findById(COUPON_ID).orElseThrow().getStock()).isZero();
+    }
+
+    @Test
+    @DisplayName("같은 사용자가 다시 요청하면 재고를 차감하지 않고 거절")
+    void duplicateIssue() throws InterruptedException {
+        luaCouponService.issue(1L, COUPON_ID);
+
+        assertThatThrownBy(() -> luaCouponService.issue(1L, COUPON_ID))
+                .isInstanceOf(CouponAlreadyIssuedException.class);
+        assertThat(luaCouponService.getStock(COUPON_ID)).isEqualTo(99);
+
+        awaitFlushed(1);
+        assertThat(couponRepository.findById(COUPON_ID).orElseThrow().getStock()).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("재고가 모두 소진되면 Redis 재고가 음수로 내려가지 않는다")
+    void soldOut() {
+        redisTemplate.opsForValue().set(CouponRedisKeys.stock(COUPON_ID), "1");
+
+        luaCouponService.issue(1L, COUPON_ID);
+
+        assertThatThrownBy(() -> luaCouponService.issue(2L, COUPON_ID))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(luaCouponService.getStock(COUPON_ID)).isZero();
+    }
+
+    // DB 반영은 CouponIssueWriter 가 비동기로 하므로 반영되고 저널이 지워질 때까지 기다린다
+    private void awaitFlushed(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MILLIS;
+        while ((couponIssueRepository.count() < expected
+                || redisTemplate.opsForHash().size(CouponRedisKeys.pendingIssues()) > 0)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(couponIssueRepository.count()).isEqualTo(expected);
+        assertThat(redisTemplate.opsForHash().size(CouponRedisKeys.pendingIssues())).isZero();
+    }
+}
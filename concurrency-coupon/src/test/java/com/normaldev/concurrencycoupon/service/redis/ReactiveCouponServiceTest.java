@@ -0,0 +1,121 @@
+package com.normaldev.concurrencycoupon.service.redis;
+
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.CouponAlreadyIssuedException;
+import com.normaldev.concurrencycoupon.service.CouponSoldOutException;
+import com.normaldev.concurrencycoupon.service.gate.LocalStockGate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Redisson Reactive 발급 테스트 (동시 발급, 로컬 재고 게이트, 중복 발급)
+ *
+ * 토큰이 떨어지면 바로 DB 재고로 다시 맞추도록 게이트 갱신 간격을 0으로 둔다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest(properties = "coupon.gate.refresh-interval-millis=0")
+class ReactiveCouponServiceTest {
+
+    private static final long COUPON_ID = 1L;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    @Autowired
+    private ReactiveCouponService reactiveCouponService;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+
+    @Autowired
+    private LocalStockGate stockGate;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("1000명이 동시에 100개 쿠폰 발급 - 정확히 100명만 성공")
+    void concurrentIssue() {
+        saveCoupon(100);
+        AtomicInteger success = new AtomicInteger();
+
+        Flux.range(0, 1000)
+                .flatMap(userId -> reactiveCouponService.issue((long) userId, COUPON_ID)
+                        .doOnSuccess(ignored -> success.incrementAndGet())
+                        .onErrorResume(e -> Mono.empty()), 256)
+                .then()
+                .block(TIMEOUT);
+
+        assertThat(success.get()).isEqualTo(100);
+        assertThat(couponIssueRepository.count()).isEqualTo(100);
+        assertThat(couponRepository.findById(COUPON_ID).orElseThrow().getStock()).isZero();
+    }
+
+    @Test
+    @DisplayName("품절된 뒤의 요청은 락을 기다리지 않고 로컬 재고 게이트에서 거절된다")
+    void soldOutRejectedByGate() {
+        saveCoupon(1);
+        reactiveCouponService.issue(1L, COUPON_ID).block(TIMEOUT);
+
+        // 락 안의 CouponIssueService 는 "재고 없음", 게이트는 "쿠폰 재고가 없습니다." 로 거절한다
+        assertThatThrownBy(() -> reactiveCouponService.issue(3L, COUPON_ID).block(TIMEOUT))
+                .isInstanceOf(CouponSoldOutException.class)
+                .hasMessage("쿠폰 재고가 없습니다.");
+        assertThat(couponIssueRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("이미 발급받은 사용자는 게이트에서 거절되고 재고가 줄지 않는다")
+    void duplicateIssue() {
+        saveCoupon(10);
+        reactiveCouponService.issue(1L, COUPON_ID).block(TIMEOUT);
+
+        assertThatThrownBy(() -> reactiveCouponService.issue(1L, COUPON_ID).block(TIMEOUT))
+                .isInstanceOf(CouponAlreadyIssuedException.class);
+        assertThat(couponRepository.findById(COUPON_ID).orElseThrow().getStock()).isEqualTo(9);
+    }
+
+    private void saveCoupon(int stock) {
+        couponRepository.saveAndFlush(
+                Coupon.builder()
+                        .id(COUPON_ID)
+                        .stock(stock)
+                .build());
+    }
+
+    private void cleanUp() {
+        couponIssueRepository.deleteAll();
+        couponRepository.deleteAll();
+        stockGate.evict(COUPON_ID);
+        redisTemplate.delete(List.of(CouponRedisKeys.claimed(COUPON_ID), CouponRedisKeys.claimedLarge(COUPON_ID)));
+    }
+}
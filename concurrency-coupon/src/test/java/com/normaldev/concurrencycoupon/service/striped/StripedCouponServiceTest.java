@@ -0,0 +1,134 @@
+package com.normaldev.concurrencycoupon.service.striped;
+
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.repository.CouponStockStripeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 재고 분할 발급 테스트 (동시 발급, Coupon.stock 과 조각 합의 일관성, 조각 캐시 무효화)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest
+class StripedCouponServiceTest {
+
+    private static final long COUPON_ID = 1L;
+
+    @Autowired
+    private StripedCouponService stripedCouponService;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+
+    @Autowired
+    private CouponStockStripeRepository stripeRepository;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        saveCoupon(100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("1000명이 동시에 100개 쿠폰 발급 - 정확히 100명만 성공하고 조각 합과 Coupon.stock 모두 0")
+    void concurrentIssue() throws InterruptedException {
+        int requestCount = 1000;
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+        AtomicInteger success = new AtomicInteger();
+
+        for (int i = 0; i < requestCount; i++) {
+            long userId = i;
+            executorService.submit(() -> {
+                try {
+                    stripedCouponService.issue(userId, COUPON_ID);
+                    success.incrementAndGet();
+                } catch (RuntimeException ignored) {
+                    // 품절
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        assertThat(success.get()).isEqualTo(100);
+        assertThat(couponIssueRepository.count()).isEqualTo(100);
+        assertThat(stripeRepository.sumStock(COUPON_ID)).isZero();
+        assertThat(couponStock()).isZero();
+        assertThat(stripedCouponService.getStock(COUPON_ID)).isZero();
+    }
+
+    @Test
+    @DisplayName("첫 발급에서 Coupon.stock 이 조각으로 옮겨지므로 다른 방식이 읽는 Coupon.stock 으로 초과 발급할 수 없다")
+    void stockMovedToStripes() {
+        stripedCouponService.issue(1L, COUPON_ID);
+
+        assertThat(couponStock()).isZero();
+        assertThat(stripeRepository.sumStock(COUPON_ID)).isEqualTo(99);
+        assertThat(stripedCouponService.getStock(COUPON_ID)).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("조각이 지워지고 쿠폰이 다시 채워지면 캐시를 버리고 새 재고로 다시 나눈다")
+    void resplitAfterStripesRemoved() {
+        stripedCouponService.issue(1L, COUPON_ID);
+
+        // 쿠폰 초기화: 조각과 쿠폰을 지우고 재고 2개로 다시 만든다 (서비스의 조각 캐시는 그대로 남아 있음)
+        stripeRepository.deleteAll();
+        couponRepository.deleteAll();
+        saveCoupon(2);
+
+        stripedCouponService.issue(2L, COUPON_ID);
+        stripedCouponService.issue(3L, COUPON_ID);
+        assertThatThrownBy(() -> stripedCouponService.issue(4L, COUPON_ID))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(couponStock()).isZero();
+        assertThat(stripeRepository.sumStock(COUPON_ID)).isZero();
+    }
+
+    private void saveCoupon(int stock) {
+        couponRepository.saveAndFlush(
+                Coupon.builder()
+                        .id(COUPON_ID)
+                        .stock(stock)
+                .build());
+    }
+
+    private int couponStock() {
+        return couponRepository.findById(COUPON_ID).orElseThrow().getStock();
+    }
+
+    private void cleanUp() {
+        couponIssueRepository.deleteAll();
+        stripeRepository.deleteAll();
+        couponRepository.deleteAll();
+        stripedCouponService.evict(COUPON_ID);
+    }
+}
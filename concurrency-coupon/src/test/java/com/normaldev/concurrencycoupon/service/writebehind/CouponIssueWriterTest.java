@@ -0,0 +1,127 @@
+package com.normaldev.concurrencycoupon.service.writebehind;
+
+import com.normaldev.concurrencycoupon.entity.Coupon;
+import com.normaldev.concurrencycoupon.entity.CouponIssue;
+import com.normaldev.concurrencycoupon.repository.CouponIssueRepository;
+import com.normaldev.concurrencycoupon.repository.CouponRepository;
+import com.normaldev.concurrencycoupon.service.redis.CouponRedisKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Write-Behind 반영 테스트 (배치 반영, 중복 건 재고 계산, 저널 주기적 재처리)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SpringBootTest(properties = "coupon.write-behind.replay-interval-millis=500")
+class CouponIssueWriterTest {
+
+    private static final long COUPON_ID = 1L;
+    private static final long TIMEOUT_MILLIS = 5_000L;
+
+    @Autowired
+    private CouponIssueWriter issueWriter;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        couponIssueRepository.deleteAll();
+        couponRepository.deleteAll();
+        redisTemplate.delete(CouponRedisKeys.pendingIssues());
+
+        couponRepository.saveAndFlush(
+                Coupon.builder()
+                        .id(COUPON_ID)
+                        .stock(100)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        couponIssueRepository.deleteAll();
+        couponRepository.deleteAll();
+        redisTemplate.delete(CouponRedisKeys.pendingIssues());
+    }
+
+    @Test
+    @DisplayName("큐에 넣은 발급 건은 DB에 반영되고 반영된 만큼만 재고가 줄며 저널이 지워진다")
+    void flushQueuedEntries() throws InterruptedException {
+        for (long userId = 1; userId <= 10; userId++) {
+            CouponIssueEntry entry = new CouponIssueEntry(COUPON_ID, userId);
+            journal(entry, System.currentTimeMillis());
+            assertThat(issueWriter.enqueue(entry)).isTrue();
+        }
+
+        await(() -> couponIssueRepository.count() == 10 && journalSize() == 0);
+
+        assertThat(stock()).isEqualTo(90);
+    }
+
+    @Test
+    @DisplayName("이미 발급된 건이 다시 반영돼도 재고를 두 번 차감하지 않는다")
+    void duplicateEntryDoesNotDecreaseStockTwice() throws InterruptedException {
+        couponIssueRepository.saveAndFlush(new CouponIssue(COUPON_ID, 1L));
+
+        CouponIssueEntry duplicate = new CouponIssueEntry(COUPON_ID, 1L);
+        CouponIssueEntry fresh = new CouponIssueEntry(COUPON_ID, 2L);
+        journal(duplicate, System.currentTimeMillis());
+        journal(fresh, System.currentTimeMillis());
+        issueWriter.enqueue(duplicate);
+        issueWriter.enqueue(fresh);
+
+        await(() -> couponIssueRepository.count() == 2 && journalSize() == 0);
+
+        assertThat(stock()).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("큐에 없이 저널에만 남은 발급 건(서버 장애)은 재기동 없이 주기적 재처리로 반영된다")
+    void replayOrphanedJournal() throws InterruptedException {
+        // 이전 서버가 저널만 남기고 죽은 상황: 재처리 주기보다 오래된 건
+        journal(new CouponIssueEntry(COUPON_ID, 1L), System.currentTimeMillis() - 60_000L);
+        journal(new CouponIssueEntry(COUPON_ID, 2L), System.currentTimeMillis() - 60_000L);
+
+        await(() -> couponIssueRepository.count() == 2 && journalSize() == 0);
+
+        assertThat(stock()).isEqualTo(98);
+    }
+
+    private void journal(CouponIssueEntry entry, long issuedAt) {
+        redisTemplate.opsForHash().put(CouponRedisKeys.pendingIssues(), entry.journalField(), String.valueOf(issuedAt));
+    }
+
+    private long journalSize() {
+        return redisTemplate.opsForHash().size(CouponRedisKeys.pendingIssues());
+    }
+
+    private int stock() {
+        return couponRepository.findById(COUPON_ID).orElseThrow().getStock();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
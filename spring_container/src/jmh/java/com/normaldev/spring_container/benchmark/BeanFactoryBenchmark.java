@@ -0,0 +1,92 @@
+package com.normaldev.spring_container.benchmark;
+
+import com.normaldev.spring_container.context.BeanFactoryMode;
+import com.normaldev.spring_container.context.ComponentScanMode;
+import com.normaldev.spring_container.context.MyApplicationContext;
+import com.normaldev.spring_container.factory.MyBeanDefinition;
+import com.normaldev.spring_container.factory.MyBeanFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REFLECTION vs METHOD_HANDLE 빈 팩토리 비교
+ *
+ * - createBean: 팩토리를 만들어 둔 뒤 생성자 호출 + 필드 주입만 반복 (prototype / reload 경로)
+ * - refresh: 팩토리 생성(unreflect, asSpreader 등) 비용까지 포함한 컨텍스트 생성 전체
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BeanFactoryBenchmark {
+
+    @Param({"1000"})
+    private int beanCount;
+
+    @Param({"FIELD", "CONSTRUCTOR"})
+    private SyntheticComponentGraph.Injection injection;
+
+    @Param({"REFLECTION", "METHOD_HANDLE"})
+    private BeanFactoryMode beanFactoryMode;
+
+    private SyntheticComponentGraph graph;
+    private MyBeanFactory[] factories;
+    private Object[][] constructorArgs;
+    private Object[][] fieldValues;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = SyntheticComponentGraph.generate(beanCount, 5, 4, injection);
+
+        factories = new MyBeanFactory[beanCount];
+        constructorArgs = new Object[beanCount][];
+        fieldValues = new Object[beanCount][];
+        for (int i = 0; i < beanCount; i++) {
+            MyBeanDefinition definition = MyBeanDefinition.of(graph.beanClass(i));
+            factories[i] = beanFactoryMode == BeanFactoryMode.METHOD_HANDLE
+                    ? MyBeanFactory.methodHandle(definition)
+                    : MyBeanFactory.reflective(definition);
+            // 생성자/필드는 대입만 하므로 의존성 자리에 null 을 넣어도 된다
+            constructorArgs[i] = new Object[definition.getConstructorParameterTypes().length];
+            fieldValues[i] = new Object[definition.getAutowiredFields().size()];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next(int bound) {
+            int i = next;
+            next = i + 1 == bound ? 0 : i + 1;
+            return i;
+        }
+    }
+
+    @Benchmark
+    public Object createBean(Cursor cursor) {
+        int i = cursor.next(beanCount);
+        Object bean = factories[i].newInstance(constructorArgs[i]);
+        factories[i].injectFields(bean, fieldValues[i]);
+        return bean;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public MyApplicationContext refresh() {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(graph.classLoader());
+        try {
+            return MyApplicationContext.builder(graph.basePackage())
+                    .scanMode(ComponentScanMode.INDEX)
+                    .beanFactoryMode(beanFactoryMode)
+                    .build();
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+}
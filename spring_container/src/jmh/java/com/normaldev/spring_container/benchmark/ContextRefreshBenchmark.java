@@ -0,0 +1,57 @@
+package com.normaldev.spring_container.benchmark;
+
+import com.normaldev.spring_container.context.ComponentScanMode;
+import com.normaldev.spring_container.context.MyApplicationContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 컨텍스트 생성(스캔 ~ eager 초기화) 벤치마크
+ *
+ * 파라미터 조합이 많으므로 필요하면 build.gradle 의 jmh { includes / benchmarkParameters } 로 좁혀서 실행한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ContextRefreshBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int beanCount;
+
+    @Param({"3", "10"})
+    private int depth;
+
+    @Param({"2", "8"})
+    private int fanOut;
+
+    @Param({"FIELD", "CONSTRUCTOR"})
+    private SyntheticComponentGraph.Injection injection;
+
+    @Param({"INDEX", "SCAN"})
+    private ComponentScanMode scanMode;
+
+    private SyntheticComponentGraph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = SyntheticComponentGraph.generate(beanCount, depth, fanOut, injection);
+    }
+
+    @Benchmark
+    public MyApplicationContext refresh() {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(graph.classLoader());
+        try {
+            return MyApplicationContext.builder(graph.basePackage())
+                    .scanMode(scanMode)
+                    .build();
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.normaldev.spring_container.benchmark;
+
+import com.normaldev.spring_container.context.ComponentScanMode;
+import com.normaldev.spring_container.context.MyApplicationContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * refresh 이후 getBean 조회 비용 (구현체 타입 vs 인터페이스 타입)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GetBeanBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int beanCount;
+
+    private MyApplicationContext context;
+    private Class<?>[] beanTypes;
+    private Class<?>[] apiTypes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticComponentGraph graph =
+                SyntheticComponentGraph.generate(beanCount, 5, 4, SyntheticComponentGraph.Injection.FIELD);
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(graph.classLoader());
+        try {
+            context = MyApplicationContext.builder(graph.basePackage())
+                    .scanMode(ComponentScanMode.INDEX)
+                    .build();
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+
+        beanTypes = new Class<?>[beanCount];
+        apiTypes = new Class<?>[beanCount];
+        for (int i = 0; i < beanCount; i++) {
+            beanTypes[i] = graph.beanClass(i);
+            apiTypes[i] = graph.apiClass(i);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next(int bound) {
+            int i = next;
+            next = i + 1 == bound ? 0 : i + 1;
+            return i;
+        }
+    }
+
+    @Benchmark
+    public Object getBeanByConcreteType(Cursor cursor) {
+        return context.getBean(beanTypes[cursor.next(beanCount)]);
+    }
+
+    @Benchmark
+    public Object getBeanByInterface(Cursor cursor) {
+        return context.getBean(apiTypes[cursor.next(beanCount)]);
+    }
+}
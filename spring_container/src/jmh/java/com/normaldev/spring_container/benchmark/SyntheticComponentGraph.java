@@ -0,0 +1,185 @@
+package com.normaldev.spring_container.benchmark;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 벤치마크용 합성 컴포넌트 그래프
+ *
+ * beanCount 개의 @MyComponent 를 depth 개 레벨로 나누고, 각 빈은 바로 아래 레벨의 빈 fanOut 개에 의존한다.
+ * 모든 빈은 자기 전용 인터페이스(Api{n})를 구현하고, 의존성도 인터페이스 타입으로 주입받는다.
+ * 소스를 임시 디렉토리에 생성해서 javac 로 컴파일한 뒤 별도 클래스로더로 로딩한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public final class SyntheticComponentGraph {
+
+    public enum Injection {
+        FIELD, CONSTRUCTOR
+    }
+
+    private static final long SEED = 42L;
+
+    private final String basePackage;
+    private final int beanCount;
+    private final ClassLoader classLoader;
+
+    private SyntheticComponentGraph(String basePackage, int beanCount, ClassLoader classLoader) {
+        this.basePackage = basePackage;
+        this.beanCount = beanCount;
+        this.classLoader = classLoader;
+    }
+
+    public static SyntheticComponentGraph generate(int beanCount, int depth, int fanOut, Injection injection) {
+        String basePackage = "bench.g" + beanCount + "_d" + depth + "_f" + fanOut + "_" + injection.name().toLowerCase();
+        try {
+            Path root = Files.createTempDirectory("my-container-bench");
+            Path sourceDir = root.resolve("src");
+            Path classDir = root.resolve("classes");
+            Path packageDir = sourceDir.resolve(basePackage.replace('.', '/'));
+            Files.createDirectories(packageDir);
+            Files.createDirectories(classDir);
+
+            List<String> componentNames = new ArrayList<>();
+            List<Path> sources = new ArrayList<>();
+            int[] levelOf = levels(beanCount, depth);
+            Random random = new Random(SEED);
+
+            for (int i = 0; i < beanCount; i++) {
+                List<Integer> dependencies = pickDependencies(i, levelOf, fanOut, random);
+
+                Path api = packageDir.resolve("Api" + i + ".java");
+                Files.writeString(api, "package " + basePackage + ";\npublic interface Api" + i + " { int id(); }\n");
+                sources.add(api);
+
+                Path bean = packageDir.resolve("Bean" + i + ".java");
+                Files.writeString(bean, beanSource(basePackage, i, dependencies, injection));
+                sources.add(bean);
+                componentNames.add(basePackage + ".Bean" + i);
+            }
+
+            compile(sources, classDir);
+
+            // ComponentScanMode.INDEX 비교를 위해 인덱스도 같이 만들어 둔다
+            Path index = classDir.resolve("META-INF/my.components");
+            Files.createDirectories(index.getParent());
+            Files.write(index, componentNames);
+
+            ClassLoader loader = new URLClassLoader(
+                    new URL[]{classDir.toUri().toURL()},
+                    SyntheticComponentGraph.class.getClassLoader()
+            );
+            return new SyntheticComponentGraph(basePackage, beanCount, loader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String basePackage() {
+        return basePackage;
+    }
+
+    public int beanCount() {
+        return beanCount;
+    }
+
+    public ClassLoader classLoader() {
+        return classLoader;
+    }
+
+    public Class<?> beanClass(int i) {
+        return load(basePackage + ".Bean" + i);
+    }
+
+    public Class<?> apiClass(int i) {
+        return load(basePackage + ".Api" + i);
+    }
+
+    private Class<?> load(String name) {
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 빈을 depth 개 레벨에 고르게 배치 (0 이 루트, depth - 1 이 리프)
+    private static int[] levels(int beanCount, int depth) {
+        int[] levelOf = new int[beanCount];
+        for (int i = 0; i < beanCount; i++) {
+            levelOf[i] = (int) ((long) i * depth / beanCount);
+        }
+        return levelOf;
+    }
+
+    private static List<Integer> pickDependencies(int bean, int[] levelOf, int fanOut, Random random) {
+        List<Integer> next = new ArrayList<>();
+        for (int j = bean + 1; j < levelOf.length; j++) {
+            if (levelOf[j] == levelOf[bean] + 1) next.add(j);
+            else if (levelOf[j] > levelOf[bean] + 1) break;
+        }
+
+        List<Integer> picked = new ArrayList<>();
+        for (int k = 0; k < fanOut && !next.isEmpty(); k++) {
+            picked.add(next.remove(random.nextInt(next.size())));
+        }
+        return picked;
+    }
+
+    private static String beanSource(String basePackage, int i, List<Integer> dependencies, Injection injection) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(basePackage).append(";\n");
+        sb.append("import com.normaldev.spring_container.stereotype.MyAutowired;\n");
+        sb.append("import com.normaldev.spring_container.stereotype.MyComponent;\n");
+        sb.append("@MyComponent\npublic class Bean").append(i).append(" implements Api").append(i).append(" {\n");
+
+        for (int d : dependencies) {
+            if (injection == Injection.FIELD) sb.append("  @MyAutowired\n");
+            sb.append("  private ").append(injection == Injection.CONSTRUCTOR ? "final " : "")
+                    .append("Api").append(d).append(" dep").append(d).append(";\n");
+        }
+
+        if (injection == Injection.CONSTRUCTOR) {
+            sb.append("  public Bean").append(i).append("(");
+            for (int k = 0; k < dependencies.size(); k++) {
+                int d = dependencies.get(k);
+                sb.append(k == 0 ? "" : ", ").append("Api").append(d).append(" dep").append(d);
+            }
+            sb.append(") {\n");
+            for (int d : dependencies) {
+                sb.append("    this.dep").append(d).append(" = dep").append(d).append(";\n");
+            }
+            sb.append("  }\n");
+        }
+
+        sb.append("  public int id() { return ").append(i).append("; }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static void compile(List<Path> sources, Path classDir) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) throw new IllegalStateException("JDK(javac) 가 필요합니다.");
+
+        // 인자가 너무 길어지지 않도록 @argfile 로 넘긴다
+        Path argFile = classDir.getParent().resolve("sources.txt");
+        Files.write(argFile, sources.stream().map(Path::toString).toList());
+
+        int result = compiler.run(null, null, null,
+                "-proc:none",
+                "-classpath", System.getProperty("java.class.path"),
+                "-d", classDir.toString(),
+                "@" + argFile);
+        if (result != 0) throw new IllegalStateException("Failed to compile synthetic components");
+    }
+}
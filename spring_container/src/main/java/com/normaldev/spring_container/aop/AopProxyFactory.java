@@ -0,0 +1,205 @@
+package com.normaldev.spring_container.aop;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 인터셉터가 걸리는 빈을 JDK 동적 프록시로 감싼다.
+ *
+ * 메서드별 인터셉터 체인은 빈 클래스마다 한 번만 계산해서 캐시하고 (prototype 도 재계산하지 않음),
+ * 호출 시점에는 Method -> 체인 맵 조회 한 번과 체인 순회만 한다. (매 호출 matches/어노테이션 조회 X)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public class AopProxyFactory {
+
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final List<MyMethodInterceptor> interceptors;
+    private final Map<Class<?>, ProxyPlan> plans = new ConcurrentHashMap<>();
+
+    public AopProxyFactory(List<MyMethodInterceptor> interceptors) {
+        this.interceptors = List.copyOf(interceptors);
+    }
+
+    /**
+     * 인터셉터가 하나라도 걸리는 메서드가 있으면 프록시, 없으면 빈 그대로 반환
+     */
+    public Object wrapIfNecessary(Object bean) {
+        if (interceptors.isEmpty()) return bean;
+
+        ProxyPlan plan = plans.computeIfAbsent(bean.getClass(), this::plan);
+        if (plan == ProxyPlan.NONE) return bean;
+
+        return Proxy.newProxyInstance(bean.getClass().getClassLoader(), plan.interfaces(),
+                new InterceptingHandler(bean, plan.chains()));
+    }
+
+    /**
+     * 더 이상 쓰지 않는 빈 클래스(hot reload 로 교체된 클래스)의 캐시를 제거
+     */
+    public void evict(Class<?> targetClass) {
+        plans.remove(targetClass);
+        for (MyMethodInterceptor interceptor : interceptors) {
+            interceptor.evict(targetClass);
+        }
+    }
+
+    /**
+     * 프록시면 실제 빈, 아니면 그대로
+     */
+    public static Object unwrap(Object bean) {
+        if (Proxy.isProxyClass(bean.getClass())
+                && Proxy.getInvocationHandler(bean) instanceof InterceptingHandler handler) {
+            return handler.target;
+        }
+        return bean;
+    }
+
+    private ProxyPlan plan(Class<?> targetClass) {
+        Class<?>[] interfaces = allInterfaces(targetClass);
+        Map<Method, MyMethodInterceptor[]> matched = new HashMap<>();
+        boolean intercepted = false;
+
+        for (Class<?> type : interfaces) {
+            for (Method method : type.getMethods()) {
+                if (method.getDeclaringClass() == Object.class || matched.containsKey(method)) continue;
+
+                Method implMethod = implementationOf(targetClass, method);
+                MyMethodInterceptor[] chain = interceptors.stream()
+                        .filter(interceptor -> interceptor.matches(implMethod, targetClass))
+                        .toArray(MyMethodInterceptor[]::new);
+                matched.put(method, chain);
+                intercepted |= chain.length > 0;
+            }
+        }
+        // 가로챌 메서드가 없으면 프록시를 만들지 않는다 (또는 인터페이스가 없어 JDK 프록시를 쓸 수 없는 경우)
+        if (!intercepted) return ProxyPlan.NONE;
+
+        // 인터셉터가 없는 메서드도 invoker 는 미리 만들어 둔다 (호출 시 리플렉션 접근 검사 X)
+        Map<Method, Chain> chains = new HashMap<>();
+        matched.forEach((method, chain) ->
+                chains.put(method, new Chain(implementationOf(targetClass, method), chain, invoker(method))));
+        return new ProxyPlan(interfaces, Map.copyOf(chains));
+    }
+
+    private static Method implementationOf(Class<?> targetClass, Method interfaceMethod) {
+        try {
+            return targetClass.getMethod(interfaceMethod.getName(), interfaceMethod.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            return interfaceMethod; // default 메서드
+        }
+    }
+
+    // (Object target, Object[] args)Object 형태로 맞춰서 invokeExact 로 호출
+    private static MethodHandle invoker(Method interfaceMethod) {
+        try {
+            // package-private 인터페이스는 선언 클래스 기준 lookup (JDK 인터페이스는 열 수 없으므로 public lookup)
+            Class<?> declaringClass = interfaceMethod.getDeclaringClass();
+            MethodHandles.Lookup lookup = Modifier.isPublic(declaringClass.getModifiers())
+                    ? MethodHandles.publicLookup()
+                    : MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            return lookup.unreflect(interfaceMethod)
+                    .asSpreader(Object[].class, interfaceMethod.getParameterCount())
+                    .asType(INVOKER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access method: " + interfaceMethod, e);
+        }
+    }
+
+    private static Class<?>[] allInterfaces(Class<?> type) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            interfaces.addAll(Arrays.asList(c.getInterfaces()));
+        }
+        return interfaces.toArray(new Class<?>[0]);
+    }
+
+    private record ProxyPlan(Class<?>[] interfaces, Map<Method, Chain> chains) {
+        private static final ProxyPlan NONE = new ProxyPlan(new Class<?>[0], Map.of());
+    }
+
+    private record Chain(Method implMethod, MyMethodInterceptor[] interceptors, MethodHandle invoker) {
+    }
+
+    private static final class InterceptingHandler implements InvocationHandler {
+        private final Object target;
+        private final Map<Method, Chain> chains;
+
+        private InterceptingHandler(Object target, Map<Method, Chain> chains) {
+            this.target = target;
+            this.chains = chains;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Chain chain = chains.get(method);
+            if (chain != null) {
+                if (chain.interceptors().length == 0) {
+                    return (Object) chain.invoker().invokeExact(target, args == null ? NO_ARGS : args);
+                }
+                return new ChainedInvocation(target, chain, args == null ? NO_ARGS : args).proceed();
+            }
+            // 프록시끼리는 identity 로 비교 (타겟에 위임하면 proxy.equals(proxy) 가 false 가 된다)
+            if (method.getDeclaringClass() == Object.class) {
+                if (method.getName().equals("equals")) return proxy == args[0];
+                if (method.getName().equals("hashCode")) return System.identityHashCode(proxy);
+            }
+            return invokeTarget(method, args);
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class ChainedInvocation implements MyMethodInvocation {
+        private final Object target;
+        private final Chain chain;
+        private final Object[] args;
+        private int index;
+
+        private ChainedInvocation(Object target, Chain chain, Object[] args) {
+            this.target = target;
+            this.chain = chain;
+            this.args = args;
+        }
+
+        @Override
+        public Method getMethod() {
+            return chain.implMethod();
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return args;
+        }
+
+        @Override
+        public Object getTarget() {
+            return target;
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            if (index < chain.interceptors().length) {
+                return chain.interceptors()[index++].invoke(this);
+            }
+            return (Object) chain.invoker().invokeExact(target, args);
+        }
+    }
+}
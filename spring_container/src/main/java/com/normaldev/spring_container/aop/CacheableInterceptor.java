@@ -0,0 +1,75 @@
+package com.normaldev.spring_container.aop;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @MyCacheable 메서드의 결과를 LRU 캐시에 보관하는 인터셉터 (컨텍스트에 기본 등록)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public class CacheableInterceptor implements MyMethodInterceptor {
+
+    private static final Object NULL = new Object();
+
+    // 빈 클래스 + 메서드마다 하나의 캐시 (Spring 의 @Cacheable 처럼 같은 타입의 인스턴스끼리 공유)
+    private final Map<CacheKey, LruCache> caches = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return method.isAnnotationPresent(MyCacheable.class) && method.getReturnType() != void.class;
+    }
+
+    // 이전 세대 클래스를 키로 들고 있으면 클래스로더까지 남으므로 같이 제거
+    // (상속받은 메서드, default 메서드는 선언 클래스가 targetClass 가 아니므로 빈 클래스 기준으로 지운다)
+    @Override
+    public void evict(Class<?> targetClass) {
+        caches.keySet().removeIf(key -> key.targetClass() == targetClass);
+    }
+
+    @Override
+    public Object invoke(MyMethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        LruCache cache = caches.computeIfAbsent(new CacheKey(invocation.getTarget().getClass(), method),
+                key -> new LruCache(key.method().getAnnotation(MyCacheable.class).maxSize()));
+
+        Object[] args = invocation.getArguments();
+        List<Object> key = args == null ? List.of() : Arrays.asList(args.clone());
+
+        Object cached = cache.get(key);
+        if (cached != null) return cached == NULL ? null : cached;
+
+        Object result = invocation.proceed();
+        cache.put(key, result == null ? NULL : result);
+        return result;
+    }
+
+    private record CacheKey(Class<?> targetClass, Method method) {
+    }
+
+    private static final class LruCache {
+        private final Map<List<Object>, Object> entries;
+
+        private LruCache(int maxSize) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        private synchronized Object get(List<Object> key) {
+            return entries.get(key);
+        }
+
+        private synchronized void put(List<Object> key, Object value) {
+            entries.put(key, value);
+        }
+    }
+}
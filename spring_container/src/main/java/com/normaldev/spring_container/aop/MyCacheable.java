@@ -0,0 +1,21 @@
+package com.normaldev.spring_container.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Custom Cacheable Annotation
+ * 인자 목록을 키로 메서드 결과를 캐시한다. (메서드마다 LRU 캐시, maxSize 를 넘으면 가장 오래 안 쓴 항목부터 제거)
+ * 프록시는 인터페이스 기반이므로, 빈이 구현한 인터페이스의 메서드에만 적용된다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface MyCacheable {
+
+    int maxSize() default 1_000;
+}
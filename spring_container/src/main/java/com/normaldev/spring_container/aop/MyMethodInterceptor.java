@@ -0,0 +1,32 @@
+package com.normaldev.spring_container.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * 빈 메서드 호출을 가로채는 인터셉터
+ * MyApplicationContext.Builder#interceptor 로 등록하면, matches 가 true 인 메서드를 가진 빈은 프록시로 감싸진다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public interface MyMethodInterceptor {
+
+    /**
+     * 어떤 메서드에 적용할지 (프록시 생성 시점에 메서드마다 한 번만 호출된다)
+     *
+     * @param method      구현 클래스의 메서드
+     * @param targetClass 빈 구현 클래스
+     */
+    default boolean matches(Method method, Class<?> targetClass) {
+        return true;
+    }
+
+    Object invoke(MyMethodInvocation invocation) throws Throwable;
+
+    /**
+     * hot reload 로 교체된 빈 클래스에 대해 들고 있던 상태(메서드별 캐시 등)를 정리한다.
+     * AopProxyFactory#evict 에서 호출된다.
+     */
+    default void evict(Class<?> targetClass) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.normaldev.spring_container.aop;
+
+import java.lang.reflect.Method;
+
+/**
+ * 인터셉터 체인 안에서의 메서드 호출 정보
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public interface MyMethodInvocation {
+
+    /**
+     * 구현 클래스의 메서드 (어노테이션 확인용)
+     */
+    Method getMethod();
+
+    Object[] getArguments();
+
+    Object getTarget();
+
+    /**
+     * 다음 인터셉터, 마지막이면 실제 메서드를 호출
+     */
+    Object proceed() throws Throwable;
+}
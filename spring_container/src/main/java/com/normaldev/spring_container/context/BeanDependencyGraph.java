@@ -0,0 +1,136 @@
+package com.normaldev.spring_container.context;
+
+import com.normaldev.spring_container.factory.MyBeanCreationException;
+import com.normaldev.spring_container.factory.MyBeanDefinition;
+import com.normaldev.spring_container.factory.MyDependency;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 생성자 파라미터 + @MyAutowired 필드로 만든 컴포넌트 의존성 DAG (List/Map 주입은 모든 후보에 대한 간선)
+ * 순환 참조는 그래프를 만드는 시점에 감지하고, 생성 순서(위상 정렬)를 미리 계산해 둔다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+final class BeanDependencyGraph {
+
+    private final Map<Class<?>, Set<Class<?>>> dependencies = new HashMap<>();
+    private final List<Class<?>> topologicalOrder = new ArrayList<>();
+
+    private BeanDependencyGraph() {
+    }
+
+    /**
+     * 스냅샷에 저장해 둔 의존성/생성 순서로 그래프를 복원 (순환 검사는 저장 시점에 이미 통과)
+     */
+    static BeanDependencyGraph restore(Map<Class<?>, Set<Class<?>>> dependencies, List<Class<?>> topologicalOrder) {
+        BeanDependencyGraph graph = new BeanDependencyGraph();
+        graph.dependencies.putAll(dependencies);
+        graph.topologicalOrder.addAll(topologicalOrder);
+        return graph;
+    }
+
+    BeanDependencyGraph(Map<Class<?>, MyBeanDefinition> definitions, BeanTypeIndex typeIndex) {
+        for (MyBeanDefinition definition : definitions.values()) {
+            Set<Class<?>> deps = new LinkedHashSet<>();
+            for (MyDependency dependency : definition.getConstructorDependencies()) {
+                addDependency(deps, typeIndex, dependency);
+            }
+            for (MyDependency dependency : definition.getFieldDependencies()) {
+                addDependency(deps, typeIndex, dependency);
+            }
+            dependencies.put(definition.getBeanType(), deps);
+        }
+
+        sort();
+    }
+
+    private static void addDependency(Set<Class<?>> deps, BeanTypeIndex typeIndex, MyDependency dependency) {
+        if (dependency.kind() != MyDependency.Kind.SINGLE) {
+            deps.addAll(typeIndex.candidates(dependency.type()));
+            return;
+        }
+        // 해결되지 않는 타입은 실제 생성 시점에 "No component found" 로 실패하므로 여기서는 건너뛴다
+        Class<?> implType = dependency.qualifier() == null
+                ? typeIndex.resolve(dependency.type())
+                : typeIndex.resolve(dependency.type(), dependency.qualifier());
+        if (implType != null) deps.add(implType);
+    }
+
+    /**
+     * 의존성이 먼저 오도록 정렬된 컴포넌트 목록
+     */
+    List<Class<?>> topologicalOrder() {
+        return topologicalOrder;
+    }
+
+    Set<Class<?>> dependenciesOf(Class<?> type) {
+        return dependencies.getOrDefault(type, Set.of());
+    }
+
+    /**
+     * types 와, types 에 직접/전이적으로 의존하는 모든 컴포넌트 (hot reload 때 다시 만들 대상)
+     */
+    Set<Class<?>> withDependents(Set<Class<?>> types) {
+        Map<Class<?>, List<Class<?>>> dependents = new HashMap<>();
+        dependencies.forEach((type, deps) -> {
+            for (Class<?> dependency : deps) {
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(type);
+            }
+        });
+
+        Set<Class<?>> result = new LinkedHashSet<>(types);
+        Deque<Class<?>> queue = new ArrayDeque<>(types);
+        while (!queue.isEmpty()) {
+            for (Class<?> dependent : dependents.getOrDefault(queue.poll(), List.of())) {
+                if (result.add(dependent)) queue.add(dependent);
+            }
+        }
+        return result;
+    }
+
+    // -----------------------------
+    // DFS 기반 위상 정렬 + 순환 참조 감지
+    // -----------------------------
+    private void sort() {
+        Set<Class<?>> visited = new HashSet<>();
+        Deque<Class<?>> path = new ArrayDeque<>();
+        Set<Class<?>> onPath = new HashSet<>();
+
+        for (Class<?> type : dependencies.keySet()) {
+            visit(type, visited, path, onPath);
+        }
+    }
+
+    private void visit(Class<?> type, Set<Class<?>> visited, Deque<Class<?>> path, Set<Class<?>> onPath) {
+        if (visited.contains(type)) return;
+
+        if (!onPath.add(type)) {
+            throw new MyBeanCreationException("Circular dependency detected: " + describeCycle(path, type));
+        }
+        path.addLast(type);
+
+        for (Class<?> dependency : dependenciesOf(type)) {
+            visit(dependency, visited, path, onPath);
+        }
+
+        path.removeLast();
+        onPath.remove(type);
+        visited.add(type);
+        topologicalOrder.add(type);
+    }
+
+    // A -> B -> C -> A
+    private static String describeCycle(Deque<Class<?>> path, Class<?> repeated) {
+        List<Class<?>> cycle = new ArrayList<>();
+        boolean inCycle = false;
+        for (Class<?> type : path) {
+            if (type == repeated) inCycle = true;
+            if (inCycle) cycle.add(type);
+        }
+        cycle.add(repeated);
+        return cycle.stream().map(Class::getSimpleName).collect(Collectors.joining(" -> "));
+    }
+}
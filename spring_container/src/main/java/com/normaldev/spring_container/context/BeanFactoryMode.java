@@ -0,0 +1,16 @@
+package com.normaldev.spring_container.context;
+
+/**
+ * 빈 생성/필드 주입 방식
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public enum BeanFactoryMode {
+
+    /** Constructor.newInstance / Field.set */
+    REFLECTION,
+
+    /** 컴포넌트마다 MethodHandle 팩토리를 만들어 두고 직접 호출 (AOT 친화적) */
+    METHOD_HANDLE
+}
@@ -0,0 +1,144 @@
+package com.normaldev.spring_container.context;
+
+import com.normaldev.spring_container.factory.MyBeanCreationException;
+import com.normaldev.spring_container.factory.MyBeanDefinition;
+
+import java.util.*;
+
+/**
+ * 타입(클래스/부모 클래스/인터페이스) -> 컴포넌트 구현체 인덱스
+ * 컨텍스트 refresh 시점에 한 번만 만들고, 이후 getBean / 의존성 해결은 Map 조회 한 번으로 끝난다.
+ * 후보가 여러 개인 타입도 @MyPrimary 로 결정되는 경우는 미리 결정해 두고, 후보 목록은 빈 이름 순으로 정렬해 둔다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+final class BeanTypeIndex {
+
+    // 타입 -> 해당 타입에 할당 가능한 모든 컴포넌트
+    private final Map<Class<?>, List<Class<?>>> candidatesByType = new HashMap<>();
+
+    // 타입 -> 미리 결정해 둔 구현체 (후보가 2개 이상이고 @MyPrimary 도 하나가 아니면 등록하지 않음)
+    private final Map<Class<?>, Class<?>> resolvedByType = new HashMap<>();
+
+    // 빈 이름 <-> 컴포넌트
+    private final Map<String, Class<?>> componentsByName = new HashMap<>();
+    private final Map<Class<?>, String> namesByComponent = new HashMap<>();
+
+    private BeanTypeIndex() {
+    }
+
+    /**
+     * 스냅샷에 저장해 둔 테이블로 인덱스를 복원 (부모 타입 탐색 생략)
+     */
+    static BeanTypeIndex restore(Map<Class<?>, List<Class<?>>> candidatesByType, Map<Class<?>, Class<?>> resolvedByType,
+                                 Map<String, Class<?>> componentsByName) {
+        BeanTypeIndex index = new BeanTypeIndex();
+        index.candidatesByType.putAll(candidatesByType);
+        index.resolvedByType.putAll(resolvedByType);
+        componentsByName.forEach(index::registerName);
+        return index;
+    }
+
+    BeanTypeIndex(Set<Class<?>> componentTypes) {
+        for (Class<?> component : componentTypes) {
+            registerName(MyBeanDefinition.nameOf(component), component);
+            for (Class<?> type : assignableTypes(component)) {
+                candidatesByType.computeIfAbsent(type, k -> new ArrayList<>()).add(component);
+            }
+        }
+        // List / Map 주입 순서가 스캔 순서에 따라 달라지지 않도록
+        for (List<Class<?>> candidates : candidatesByType.values()) {
+            candidates.sort(Comparator.comparing(namesByComponent::get));
+        }
+
+        for (Map.Entry<Class<?>, List<Class<?>>> entry : candidatesByType.entrySet()) {
+            Class<?> type = entry.getKey();
+            List<Class<?>> candidates = entry.getValue();
+
+            // requiredType 자체가 @Component 클래스면 하위 컴포넌트가 있어도 그대로 사용
+            if (componentTypes.contains(type)) {
+                resolvedByType.put(type, type);
+            } else if (candidates.size() == 1) {
+                resolvedByType.put(type, candidates.get(0));
+            } else {
+                List<Class<?>> primaries = candidates.stream().filter(MyBeanDefinition::isPrimary).toList();
+                if (primaries.size() == 1) resolvedByType.put(type, primaries.get(0));
+            }
+        }
+    }
+
+    private void registerName(String name, Class<?> component) {
+        Class<?> existing = componentsByName.putIfAbsent(name, component);
+        if (existing != null) {
+            throw new MyBeanCreationException(
+                    "Duplicate bean name '" + name + "': " + existing.getName() + ", " + component.getName());
+        }
+        namesByComponent.put(component, name);
+    }
+
+    /**
+     * @return 구현체, 후보가 없으면 null
+     * @throws MyBeanCreationException 후보가 2개 이상일 때
+     */
+    Class<?> resolve(Class<?> requiredType) {
+        Class<?> resolved = resolvedByType.get(requiredType);
+        if (resolved != null) return resolved;
+
+        List<Class<?>> candidates = candidatesByType.get(requiredType);
+        if (candidates == null) return null;
+
+        // @MyPrimary 로도 결정되지 않으면 @MyQualifier 로 이름을 지정해야 한다
+        throw new MyBeanCreationException(
+                "Multiple components found for type: " + requiredType.getName() +
+                        " -> " + candidates + " (mark one with @MyPrimary or inject with @MyQualifier)"
+        );
+    }
+
+    /**
+     * @return 이름이 name 이고 requiredType 에 할당 가능한 구현체, 없으면 null
+     */
+    Class<?> resolve(Class<?> requiredType, String name) {
+        Class<?> component = componentsByName.get(name);
+        return component != null && requiredType.isAssignableFrom(component) ? component : null;
+    }
+
+    /**
+     * requiredType 에 할당 가능한 모든 구현체 (빈 이름 순)
+     */
+    List<Class<?>> candidates(Class<?> requiredType) {
+        return candidatesByType.getOrDefault(requiredType, List.of());
+    }
+
+    String nameOf(Class<?> component) {
+        return namesByComponent.get(component);
+    }
+
+    Map<Class<?>, List<Class<?>>> candidatesByType() {
+        return Collections.unmodifiableMap(candidatesByType);
+    }
+
+    Map<Class<?>, Class<?>> resolvedByType() {
+        return Collections.unmodifiableMap(resolvedByType);
+    }
+
+    Map<String, Class<?>> componentsByName() {
+        return Collections.unmodifiableMap(componentsByName);
+    }
+
+    // 자기 자신 + 부모 클래스 체인 + 모든 인터페이스(상위 인터페이스 포함)
+    private static Set<Class<?>> assignableTypes(Class<?> component) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(component);
+
+        while (!queue.isEmpty()) {
+            Class<?> type = queue.poll();
+            if (!types.add(type)) continue;
+
+            if (type.getSuperclass() != null) queue.add(type.getSuperclass());
+            queue.addAll(Arrays.asList(type.getInterfaces()));
+        }
+        return types;
+    }
+}
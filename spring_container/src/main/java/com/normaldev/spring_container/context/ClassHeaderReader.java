@@ -0,0 +1,124 @@
+package com.normaldev.spring_container.context;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * 클래스를 로딩하지 않고 .class 바이트에서 클래스 이름과 런타임 어노테이션만 읽는다.
+ * (constant pool + 클래스 레벨 RuntimeVisibleAnnotations 속성만 해석)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+final class ClassHeaderReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private ClassHeaderReader() {
+    }
+
+    /**
+     * @param classBytes      .class 파일 내용
+     * @param annotationDesc  찾을 어노테이션의 descriptor (예: Lcom/example/MyComponent;)
+     * @return 어노테이션이 붙어 있으면 클래스의 binary name, 아니면 null
+     */
+    static String readIfAnnotated(byte[] classBytes, String annotationDesc) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(classBytes));
+        if (in.readInt() != MAGIC) return null;
+        in.skipBytes(4); // minor, major version
+
+        // 1) constant pool - Utf8 문자열과 Class 엔트리의 name index 만 보관
+        int cpCount = in.readUnsignedShort();
+        String[] utf8 = new String[cpCount];
+        int[] classNameIndex = new int[cpCount];
+        for (int i = 1; i < cpCount; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1 -> utf8[i] = in.readUTF();                  // Utf8
+                case 7 -> classNameIndex[i] = in.readUnsignedShort(); // Class
+                case 8, 16, 19, 20 -> in.skipBytes(2);             // String, MethodType, Module, Package
+                case 15 -> in.skipBytes(3);                        // MethodHandle
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> in.skipBytes(4);
+                case 5, 6 -> {                                     // Long, Double 는 2칸 차지
+                    in.skipBytes(8);
+                    i++;
+                }
+                default -> throw new IOException("Unknown constant pool tag: " + tag);
+            }
+        }
+
+        // 2) access_flags, this_class, super_class, interfaces
+        in.skipBytes(2);
+        int thisClass = in.readUnsignedShort();
+        in.skipBytes(2);
+        in.skipBytes(in.readUnsignedShort() * 2);
+
+        // 3) fields, methods 는 건너뛴다
+        skipMembers(in);
+        skipMembers(in);
+
+        // 4) 클래스 속성 중 RuntimeVisibleAnnotations 만 확인
+        int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String name = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if (!RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                in.skipBytes(length);
+                continue;
+            }
+
+            int annotationCount = in.readUnsignedShort();
+            for (int a = 0; a < annotationCount; a++) {
+                if (annotationDesc.equals(utf8[in.readUnsignedShort()])) {
+                    return utf8[classNameIndex[thisClass]].replace('/', '.');
+                }
+                skipElementValuePairs(in);
+            }
+            return null;
+        }
+        return null;
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            in.skipBytes(6); // access_flags, name_index, descriptor_index
+            skipAttributes(in);
+        }
+    }
+
+    private static void skipAttributes(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            in.skipBytes(2);
+            in.skipBytes(in.readInt());
+        }
+    }
+
+    private static void skipElementValuePairs(DataInputStream in) throws IOException {
+        int pairs = in.readUnsignedShort();
+        for (int i = 0; i < pairs; i++) {
+            in.skipBytes(2);
+            skipElementValue(in);
+        }
+    }
+
+    private static void skipElementValue(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> in.skipBytes(2);
+            case 'e' -> in.skipBytes(4);
+            case '@' -> {
+                in.skipBytes(2);
+                skipElementValuePairs(in);
+            }
+            case '[' -> {
+                int count = in.readUnsignedShort();
+                for (int i = 0; i < count; i++) skipElementValue(in);
+            }
+            default -> throw new IOException("Unknown element_value tag: " + (char) tag);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.normaldev.spring_container.context;
+
+import com.normaldev.spring_container.factory.MyBeanCreationException;
+import com.normaldev.spring_container.stereotype.MyComponent;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 클래스패스 기반 컴포넌트 스캐너
+ *
+ * - file: 디렉토리, jar: 아카이브, 중첩 jar (Spring Boot fat jar 의 BOOT-INF/classes, BOOT-INF/lib/*.jar) 지원
+ * - .class 헤더만 읽어서 @MyComponent 여부를 판단하므로, 매칭되지 않은 클래스는 로딩/초기화되지 않는다.
+ * - 엔트리 읽기/해석은 ForkJoinPool 에서 병렬로 처리
+ * - 해석할 수 없는 .class 파일은 경고 로그를 남기고 건너뛴다
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+final class ClassPathComponentScanner {
+
+    private static final System.Logger log = System.getLogger(ClassPathComponentScanner.class.getName());
+
+    private static final String COMPONENT_DESCRIPTOR =
+            "L" + MyComponent.class.getName().replace('.', '/') + ";";
+
+    // jar:file:/app.jar!/BOOT-INF/classes!/com/... 형태의 구분자
+    private static final String JAR_SEPARATOR = "!/";
+    // jar:nested:/app.jar/!BOOT-INF/classes/!/com/... (Spring Boot 3.2+) 형태의 구분자
+    private static final String NESTED_PREFIX = "nested:";
+    private static final String NESTED_SEPARATOR = "/!";
+
+    private final ClassLoader classLoader;
+    private final ForkJoinPool pool;
+
+    ClassPathComponentScanner(ClassLoader classLoader) {
+        this(classLoader, ForkJoinPool.commonPool());
+    }
+
+    ClassPathComponentScanner(ClassLoader classLoader, ForkJoinPool pool) {
+        this.classLoader = classLoader;
+        this.pool = pool;
+    }
+
+    Set<Class<?>> scan(String basePackage) {
+        try {
+            Set<String> componentNames = ConcurrentHashMap.newKeySet();
+            visitPackageDirectories(basePackage, directory -> scanDirectory(directory, componentNames));
+            return loadComponents(componentNames);
+        } catch (MyBeanCreationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MyBeanCreationException("Failed to scan components for package: " + basePackage, e);
+        }
+    }
+
+    /**
+     * basePackage 하위 .class 파일 목록의 해시 (상대 경로 + 크기 + 수정 시각)
+     * 파일 내용은 읽지 않으므로 스캔보다 훨씬 싸고, 클래스 추가/삭제/재컴파일이 있으면 값이 바뀐다.
+     */
+    long fingerprint(String basePackage) {
+        try {
+            CRC32 crc = new CRC32();
+            visitPackageDirectories(basePackage, directory -> {
+                for (Path file : classFiles(directory)) {
+                    crc.update(directory.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                    crc.update(longBytes(Files.size(file)));
+                    crc.update(longBytes(Files.getLastModifiedTime(file).toMillis()));
+                }
+            });
+            return crc.getValue();
+        } catch (Exception e) {
+            throw new MyBeanCreationException("Failed to fingerprint package: " + basePackage, e);
+        }
+    }
+
+    private interface DirectoryVisitor {
+        void visit(Path directory) throws Exception;
+    }
+
+    private void visitPackageDirectories(String basePackage, DirectoryVisitor visitor) throws Exception {
+        String path = basePackage.replace('.', '/');
+        Enumeration<URL> resources = classLoader.getResources(path);
+
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            switch (url.getProtocol()) {
+                case "file" -> visitor.visit(Path.of(url.toURI()));
+                case "jar" -> visitArchive(url, visitor);
+                default -> {
+                    // 지원하지 않는 프로토콜 (vfs 등)은 무시
+                }
+            }
+        }
+    }
+
+    /**
+     * jar URL 을 !/ 단위로 쪼개서 바깥 아카이브부터 차례로 zip FileSystem 으로 연다.
+     * 예) jar:file:/app.jar!/BOOT-INF/lib/lib.jar!/com/example
+     *     -> [file:/app.jar, BOOT-INF/lib/lib.jar, com/example]
+     */
+    private void visitArchive(URL url, DirectoryVisitor visitor) throws Exception {
+        String spec = url.toString().substring("jar:".length());
+        if (spec.startsWith(NESTED_PREFIX)) {
+            spec = "file:" + spec.substring(NESTED_PREFIX.length()).replaceFirst(NESTED_SEPARATOR, JAR_SEPARATOR);
+        }
+        String[] segments = spec.split(JAR_SEPARATOR);
+
+        Deque<FileSystem> opened = new ArrayDeque<>();
+        try {
+            FileSystem fs = open(Path.of(new URI(segments[0])), opened);
+            Path base = fs.getPath("/");
+
+            for (int i = 1; i < segments.length - 1; i++) {
+                Path entry = base.resolve(trimSlash(segments[i]));
+                if (entry.toString().endsWith(".jar")) {
+                    // 중첩 jar 는 바깥 zip FileSystem 위의 Path 로 다시 zip FileSystem 을 연다
+                    base = open(entry, opened).getPath("/");
+                } else {
+                    base = entry;
+                }
+            }
+
+            String packagePath = segments.length > 1 ? trimSlash(segments[segments.length - 1]) : "";
+            visitor.visit(base.resolve(packagePath));
+        } finally {
+            while (!opened.isEmpty()) {
+                opened.pop().close();
+            }
+        }
+    }
+
+    private FileSystem open(Path archive, Deque<FileSystem> opened) throws IOException {
+        FileSystem fs = FileSystems.newFileSystem(archive);
+        opened.push(fs);
+        return fs;
+    }
+
+    private static List<Path> classFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                    .filter(p -> p.toString().endsWith(".class"))
+                    .filter(p -> !p.getFileName().toString().equals("module-info.class"))
+                    .filter(p -> !p.getFileName().toString().equals("package-info.class"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void scanDirectory(Path directory, Set<String> componentNames) throws Exception {
+        List<Path> classFiles = classFiles(directory);
+
+        // parallelStream 을 pool 안에서 실행하면 해당 pool 의 worker 들이 작업을 나눠 가진다
+        pool.submit(() -> classFiles.parallelStream().forEach(file -> {
+            String name = readComponentName(file);
+            if (name != null) componentNames.add(name);
+        })).get();
+    }
+
+    /**
+     * 읽을 수 없거나 해석할 수 없는 .class 파일 (손상된 파일, 지원하지 않는 포맷 등)은
+     * 스캔 전체를 중단하지 않고 경고만 남긴 뒤 건너뛴다.
+     */
+    private String readComponentName(Path classFile) {
+        try {
+            return ClassHeaderReader.readIfAnnotated(Files.readAllBytes(classFile), COMPONENT_DESCRIPTOR);
+        } catch (IOException | RuntimeException e) {
+            log.log(System.Logger.Level.WARNING, "Skipping unparsable class file: " + classFile, e);
+            return null;
+        }
+    }
+
+    private Set<Class<?>> loadComponents(Set<String> componentNames) {
+        Set<Class<?>> result = new HashSet<>();
+        for (String name : componentNames) {
+            try {
+                // 매칭된 클래스만 로딩, static 초기화는 빈 생성 시점까지 미룬다
+                result.add(Class.forName(name, false, classLoader));
+            } catch (ClassNotFoundException ignored) {
+                // ignore
+            }
+        }
+        return result;
+    }
+
+    private static byte[] longBytes(long value) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+    }
+
+    private static String trimSlash(String segment) {
+        String s = segment;
+        while (s.startsWith("/")) s = s.substring(1);
+        while (s.endsWith("/")) s = s.substring(0, s.length() - 1);
+        return s;
+    }
+}
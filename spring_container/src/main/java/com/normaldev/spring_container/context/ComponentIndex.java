@@ -0,0 +1,97 @@
+package com.normaldev.spring_container.context;
+
+import com.normaldev.spring_container.factory.MyBeanCreationException;
+import com.normaldev.spring_container.stereotype.MyComponent;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 컴파일 타임에 MyComponentIndexProcessor 가 생성한 컴포넌트 인덱스
+ * 클래스패스 상의 모든 META-INF/my.components 파일을 합쳐서 읽는다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+final class ComponentIndex {
+
+    static final String INDEX_LOCATION = "META-INF/my.components";
+
+    private final ClassLoader classLoader;
+    private final Set<String> classNames;
+
+    private ComponentIndex(ClassLoader classLoader, Set<String> classNames) {
+        this.classLoader = classLoader;
+        this.classNames = classNames;
+    }
+
+    /**
+     * 인덱스 파일이 하나도 없으면 null 을 반환한다. (스캔으로 fallback 할 수 있도록)
+     */
+    static ComponentIndex load(ClassLoader classLoader) {
+        try {
+            Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+            if (!resources.hasMoreElements()) return null;
+
+            Set<String> names = new LinkedHashSet<>();
+            while (resources.hasMoreElements()) {
+                readIndex(resources.nextElement(), names);
+            }
+            return new ComponentIndex(classLoader, names);
+        } catch (IOException e) {
+            throw new MyBeanCreationException("Failed to read component index: " + INDEX_LOCATION, e);
+        }
+    }
+
+    ClassLoader classLoader() {
+        return classLoader;
+    }
+
+    private static void readIndex(URL url, Set<String> names) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) names.add(line);
+            }
+        }
+    }
+
+    /**
+     * 인덱스에 basePackage 하위 항목이 하나라도 있는지
+     */
+    boolean covers(String basePackage) {
+        String prefix = basePackage + ".";
+        for (String name : classNames) {
+            if (name.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * basePackage 하위의 컴포넌트만 로딩한다.
+     * 인덱스에 적힌 클래스만 로딩하고, static 초기화는 실제 빈 생성 시점까지 미룬다.
+     */
+    Set<Class<?>> candidates(String basePackage) {
+        String prefix = basePackage + ".";
+
+        Set<Class<?>> result = new HashSet<>();
+        for (String name : classNames) {
+            if (!name.startsWith(prefix)) continue;
+
+            try {
+                Class<?> clazz = Class.forName(name, false, classLoader);
+                // 인덱스 생성 이후 어노테이션이 제거된 경우를 대비
+                if (clazz.isAnnotationPresent(MyComponent.class)) result.add(clazz);
+            } catch (ClassNotFoundException ignored) {
+                // 인덱스가 오래되어 클래스가 사라진 경우 무시
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package com.normaldev.spring_container.context;
+
+/**
+ * 컴포넌트 후보를 찾는 방식
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public enum ComponentScanMode {
+
+    /** 인덱스(META-INF/my.components)에 basePackage 항목이 있으면 인덱스를, 없으면 클래스패스 스캔을 사용 */
+    AUTO,
+
+    /** 컴파일 타임 인덱스만 사용 (인덱스가 없으면 예외) */
+    INDEX,
+
+    /** 인덱스를 무시하고 항상 클래스패스 스캔 */
+    SCAN
+}
@@ -0,0 +1,152 @@
+package com.normaldev.spring_container.context;
+
+import com.normaldev.spring_container.factory.MyBeanCreationException;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * basePackage 의 클래스 디렉토리(file:)를 WatchService 로 감시하다가,
+ * .class 파일이 바뀌면 잠깐(DEBOUNCE_MILLIS) 더 모은 뒤 바뀐 클래스 이름을 한 번에 넘긴다.
+ * (컴파일러가 여러 파일을 연달아 쓰는 동안 매번 reload 하지 않도록)
+ *
+ * jar 안의 클래스는 감시하지 않는다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+final class ComponentWatcher implements AutoCloseable {
+
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private final WatchService watchService;
+    private final List<Path> classRoots;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Consumer<Set<String>> onChange;
+
+    private ComponentWatcher(WatchService watchService, List<Path> classRoots, Consumer<Set<String>> onChange) {
+        this.watchService = watchService;
+        this.classRoots = classRoots;
+        this.onChange = onChange;
+    }
+
+    static ComponentWatcher start(String basePackage, ClassLoader classLoader, Consumer<Set<String>> onChange) {
+        try {
+            ComponentWatcher watcher = new ComponentWatcher(
+                    FileSystems.getDefault().newWatchService(), classRoots(basePackage, classLoader), onChange);
+
+            String packagePath = basePackage.replace('.', '/');
+            for (Path root : watcher.classRoots) {
+                watcher.registerTree(root.resolve(packagePath));
+            }
+
+            Thread.ofPlatform().daemon().name("my-context-reloader").start(watcher::run);
+            return watcher;
+        } catch (IOException e) {
+            throw new MyBeanCreationException("Failed to watch component directories: " + basePackage, e);
+        }
+    }
+
+    /**
+     * basePackage 를 포함하는 클래스 디렉토리 루트들 (build/classes/java/main 같은)
+     */
+    static List<Path> classRoots(String basePackage, ClassLoader classLoader) {
+        String packagePath = basePackage.replace('.', '/');
+        int depth = basePackage.split("\\.").length;
+        try {
+            List<Path> roots = new ArrayList<>();
+            Enumeration<URL> resources = classLoader.getResources(packagePath);
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                if (!"file".equals(url.getProtocol())) continue;
+
+                Path root = Path.of(url.toURI());
+                for (int i = 0; i < depth; i++) root = root.getParent();
+                roots.add(root);
+            }
+            return roots;
+        } catch (IOException | URISyntaxException e) {
+            throw new MyBeanCreationException("Failed to resolve class roots: " + basePackage, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close(); // take() 중인 감시 스레드는 ClosedWatchServiceException 으로 종료
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Set<String> changed = new HashSet<>();
+                collect(watchService.take(), changed);
+
+                WatchKey key;
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+                if (changed.isEmpty()) continue;
+
+                try {
+                    onChange.accept(changed);
+                } catch (RuntimeException | LinkageError e) {
+                    // reload 실패 시 기존 빈을 그대로 쓰고 감시는 계속한다
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ignored) {
+            // 컨텍스트 close
+        }
+    }
+
+    private void collect(WatchKey key, Set<String> changed) {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW || directory == null) continue;
+
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                registerTree(path);
+            } else if (path.getFileName().toString().endsWith(".class")) {
+                String className = className(path);
+                if (className != null) changed.add(className);
+            }
+        }
+        if (!key.reset()) directories.remove(key);
+    }
+
+    private void registerTree(Path directory) {
+        if (!Files.isDirectory(directory)) return;
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path dir : paths.filter(Files::isDirectory).toList()) {
+                directories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), dir);
+            }
+        } catch (IOException e) {
+            throw new MyBeanCreationException("Failed to watch directory: " + directory, e);
+        }
+    }
+
+    private String className(Path classFile) {
+        for (Path root : classRoots) {
+            if (!classFile.startsWith(root)) continue;
+
+            String relative = root.relativize(classFile).toString();
+            return relative.substring(0, relative.length() - ".class".length())
+                    .replace(classFile.getFileSystem().getSeparator(), ".");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,294 @@
+package com.normaldev.spring_container.context;
+
+import com.normaldev.spring_container.factory.MyBeanCreationException;
+import com.normaldev.spring_container.factory.MyBeanDefinition;
+import com.normaldev.spring_container.factory.MyDependency;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * 한 번 refresh 한 결과(컴포넌트 목록, 선택된 생성자, 주입 필드, 타입 인덱스, 의존성 그래프)를 저장하는 바이너리 스냅샷
+ *
+ * 다음 실행에서는 스캔/생성자 선택/타입 해석을 건너뛰고 스냅샷대로 바로 빈을 만든다.
+ * 스냅샷에 포함된 클래스의 바이트 해시나 컴포넌트 인덱스 내용이 바뀌었으면 무효로 보고 전체 refresh 로 돌아간다.
+ * 스캔으로 만든 스냅샷은 인덱스가 없으므로 basePackage 하위 .class 파일 목록(이름, 크기, 수정 시각)의 해시도 비교한다.
+ * (새 컴포넌트가 추가되면 기존 클래스 해시는 그대로라서, 이 값이 없으면 새 컴포넌트를 놓친다)
+ *
+ * 파일 구조 (DataOutputStream)
+ * <pre>
+ * magic, version, basePackage, indexFingerprint, packageFingerprint (인덱스로 만든 경우 -1)
+ * [class hash]   count, (name, crc32)*
+ * [components]   count, (name, ctorParamTypes[], fieldNames[], injectionPoints[], dependencies[])*   -- 위상 정렬 순서
+ *                injectionPoint = (kind, type, qualifier | "")   -- 생성자 파라미터, 필드 순
+ * [type index]   count, (type, candidates[], resolved | "")*
+ * [bean names]   count, (name, component)*
+ * </pre>
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+final class ContextSnapshot {
+
+    private static final int MAGIC = 0x4D594353; // "MYCS"
+    private static final int VERSION = 3;
+    private static final long NO_PACKAGE_FINGERPRINT = -1L;
+
+    private static final Map<String, Class<?>> PRIMITIVES = Map.of(
+            "boolean", boolean.class, "byte", byte.class, "char", char.class, "short", short.class,
+            "int", int.class, "long", long.class, "float", float.class, "double", double.class
+    );
+
+    private final Set<Class<?>> componentTypes = new LinkedHashSet<>();
+    private final Map<Class<?>, MyBeanDefinition> definitions = new HashMap<>();
+    private final BeanTypeIndex typeIndex;
+    private final BeanDependencyGraph dependencyGraph;
+
+    private ContextSnapshot(DataInputStream in, ClassLoader classLoader) throws Exception {
+        Map<Class<?>, Set<Class<?>>> dependencies = new HashMap<>();
+        List<Class<?>> order = new ArrayList<>();
+
+        int componentCount = in.readInt();
+        for (int i = 0; i < componentCount; i++) {
+            Class<?> type = load(in.readUTF(), classLoader);
+
+            Class<?>[] paramTypes = new Class<?>[in.readInt()];
+            for (int p = 0; p < paramTypes.length; p++) {
+                paramTypes[p] = load(in.readUTF(), classLoader);
+            }
+            Constructor<?> constructor = type.getDeclaredConstructor(paramTypes);
+
+            List<Field> fields = new ArrayList<>();
+            int fieldCount = in.readInt();
+            for (int f = 0; f < fieldCount; f++) {
+                fields.add(type.getDeclaredField(in.readUTF()));
+            }
+
+            List<MyDependency> constructorDependencies = readDependencies(in, paramTypes.length, classLoader);
+            List<MyDependency> fieldDependencies = readDependencies(in, fieldCount, classLoader);
+
+            Set<Class<?>> deps = new LinkedHashSet<>();
+            int depCount = in.readInt();
+            for (int d = 0; d < depCount; d++) {
+                deps.add(load(in.readUTF(), classLoader));
+            }
+
+            componentTypes.add(type);
+            definitions.put(type, MyBeanDefinition.restore(type, constructor, fields,
+                    constructorDependencies, fieldDependencies));
+            dependencies.put(type, deps);
+            order.add(type);
+        }
+
+        Map<Class<?>, List<Class<?>>> candidatesByType = new HashMap<>();
+        Map<Class<?>, Class<?>> resolvedByType = new HashMap<>();
+        int typeCount = in.readInt();
+        for (int i = 0; i < typeCount; i++) {
+            Class<?> type = load(in.readUTF(), classLoader);
+
+            List<Class<?>> candidates = new ArrayList<>();
+            int candidateCount = in.readInt();
+            for (int c = 0; c < candidateCount; c++) {
+                candidates.add(load(in.readUTF(), classLoader));
+            }
+            candidatesByType.put(type, candidates);
+
+            String resolved = in.readUTF();
+            if (!resolved.isEmpty()) resolvedByType.put(type, load(resolved, classLoader));
+        }
+
+        Map<String, Class<?>> componentsByName = new HashMap<>();
+        int nameCount = in.readInt();
+        for (int i = 0; i < nameCount; i++) {
+            componentsByName.put(in.readUTF(), load(in.readUTF(), classLoader));
+        }
+
+        this.typeIndex = BeanTypeIndex.restore(candidatesByType, resolvedByType, componentsByName);
+        this.dependencyGraph = BeanDependencyGraph.restore(dependencies, order);
+    }
+
+    private static List<MyDependency> readDependencies(DataInputStream in, int count, ClassLoader classLoader)
+            throws IOException, ClassNotFoundException {
+        List<MyDependency> dependencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MyDependency.Kind kind = MyDependency.Kind.values()[in.readByte()];
+            Class<?> type = load(in.readUTF(), classLoader);
+            String qualifier = in.readUTF();
+            dependencies.add(new MyDependency(kind, type, qualifier.isEmpty() ? null : qualifier));
+        }
+        return dependencies;
+    }
+
+    Set<Class<?>> componentTypes() {
+        return componentTypes;
+    }
+
+    MyBeanDefinition definition(Class<?> type) {
+        return definitions.get(type);
+    }
+
+    BeanTypeIndex typeIndex() {
+        return typeIndex;
+    }
+
+    BeanDependencyGraph dependencyGraph() {
+        return dependencyGraph;
+    }
+
+    /**
+     * @return 유효한 스냅샷, 파일이 없거나 오래되었거나 읽을 수 없으면 null (전체 refresh 필요)
+     */
+    static ContextSnapshot load(Path file, String basePackage, ClassLoader classLoader) {
+        if (!Files.isRegularFile(file)) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            if (!basePackage.equals(in.readUTF())) return null;
+            if (in.readLong() != indexFingerprint(classLoader)) return null;
+            long packageFingerprint = in.readLong();
+            if (packageFingerprint != NO_PACKAGE_FINGERPRINT
+                    && packageFingerprint != new ClassPathComponentScanner(classLoader).fingerprint(basePackage)) {
+                return null;
+            }
+
+            int classCount = in.readInt();
+            for (int i = 0; i < classCount; i++) {
+                String className = in.readUTF();
+                if (in.readLong() != classHash(className, classLoader)) return null;
+            }
+
+            return new ContextSnapshot(in, classLoader);
+        } catch (Exception e) {
+            // 클래스가 사라졌거나 생성자/필드가 바뀐 경우 등 - 전체 refresh 로 돌아간다
+            return null;
+        }
+    }
+
+    /**
+     * @param scanned 컴포넌트를 클래스패스 스캔으로 찾았는지 (true 면 패키지 fingerprint 를 같이 기록)
+     */
+    static void write(Path file, String basePackage, ClassLoader classLoader, boolean scanned,
+                      Map<Class<?>, MyBeanDefinition> definitions,
+                      BeanTypeIndex typeIndex, BeanDependencyGraph dependencyGraph) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(basePackage);
+                out.writeLong(indexFingerprint(classLoader));
+                out.writeLong(scanned
+                        ? new ClassPathComponentScanner(classLoader).fingerprint(basePackage)
+                        : NO_PACKAGE_FINGERPRINT);
+
+                // 컴포넌트 + 타입 인덱스에 등장하는 (JDK 가 아닌) 모든 타입의 해시
+                Set<String> hashed = new TreeSet<>();
+                for (Class<?> type : typeIndex.candidatesByType().keySet()) {
+                    if (classResource(type.getName(), classLoader) != null) hashed.add(type.getName());
+                }
+                out.writeInt(hashed.size());
+                for (String className : hashed) {
+                    out.writeUTF(className);
+                    out.writeLong(classHash(className, classLoader));
+                }
+
+                List<Class<?>> order = dependencyGraph.topologicalOrder();
+                out.writeInt(order.size());
+                for (Class<?> type : order) {
+                    MyBeanDefinition definition = definitions.get(type);
+                    out.writeUTF(type.getName());
+
+                    Class<?>[] paramTypes = definition.getConstructorParameterTypes();
+                    out.writeInt(paramTypes.length);
+                    for (Class<?> paramType : paramTypes) out.writeUTF(paramType.getName());
+
+                    List<Field> fields = definition.getAutowiredFields();
+                    out.writeInt(fields.size());
+                    for (Field field : fields) out.writeUTF(field.getName());
+
+                    writeDependencies(out, definition.getConstructorDependencies());
+                    writeDependencies(out, definition.getFieldDependencies());
+
+                    Set<Class<?>> deps = dependencyGraph.dependenciesOf(type);
+                    out.writeInt(deps.size());
+                    for (Class<?> dep : deps) out.writeUTF(dep.getName());
+                }
+
+                Map<Class<?>, List<Class<?>>> candidatesByType = typeIndex.candidatesByType();
+                Map<Class<?>, Class<?>> resolvedByType = typeIndex.resolvedByType();
+                out.writeInt(candidatesByType.size());
+                for (Map.Entry<Class<?>, List<Class<?>>> entry : candidatesByType.entrySet()) {
+                    out.writeUTF(entry.getKey().getName());
+                    out.writeInt(entry.getValue().size());
+                    for (Class<?> candidate : entry.getValue()) out.writeUTF(candidate.getName());
+
+                    Class<?> resolved = resolvedByType.get(entry.getKey());
+                    out.writeUTF(resolved == null ? "" : resolved.getName());
+                }
+
+                Map<String, Class<?>> componentsByName = typeIndex.componentsByName();
+                out.writeInt(componentsByName.size());
+                for (Map.Entry<String, Class<?>> entry : componentsByName.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeUTF(entry.getValue().getName());
+                }
+            }
+
+            // 쓰다가 죽어도 깨진 스냅샷이 남지 않도록 임시 파일에 쓰고 교체
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new MyBeanCreationException("Failed to write context snapshot: " + file, e);
+        }
+    }
+
+    private static void writeDependencies(DataOutputStream out, List<MyDependency> dependencies) throws IOException {
+        for (MyDependency dependency : dependencies) {
+            out.writeByte(dependency.kind().ordinal());
+            out.writeUTF(dependency.type().getName());
+            out.writeUTF(dependency.qualifier() == null ? "" : dependency.qualifier());
+        }
+    }
+
+    // 컴포넌트가 새로 추가/삭제되면 인덱스 내용이 바뀌므로 인덱스 전체의 해시도 같이 비교한다
+    private static long indexFingerprint(ClassLoader classLoader) throws IOException {
+        CRC32 crc = new CRC32();
+        Enumeration<URL> resources = classLoader.getResources(ComponentIndex.INDEX_LOCATION);
+        while (resources.hasMoreElements()) {
+            try (InputStream in = resources.nextElement().openStream()) {
+                crc.update(in.readAllBytes());
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static long classHash(String className, ClassLoader classLoader) throws IOException {
+        URL resource = classResource(className, classLoader);
+        if (resource == null) return -1L;
+
+        try (InputStream in = resource.openStream()) {
+            CRC32 crc = new CRC32();
+            crc.update(in.readAllBytes());
+            return crc.getValue();
+        }
+    }
+
+    private static URL classResource(String className, ClassLoader classLoader) {
+        if (className.startsWith("java.") || className.startsWith("javax.")) return null;
+        return classLoader.getResource(className.replace('.', '/') + ".class");
+    }
+
+    private static Class<?> load(String name, ClassLoader classLoader) throws ClassNotFoundException {
+        Class<?> primitive = PRIMITIVES.get(name);
+        return primitive != null ? primitive : Class.forName(name, false, classLoader);
+    }
+}
@@ -0,0 +1,51 @@
+package com.normaldev.spring_container.context;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Supplier;
+
+/**
+ * 인터페이스 타입으로 주입되는 Lazy 빈의 프록시
+ * 첫 메서드 호출 시점에 실제 빈을 가져오고, 이후에는 캐시된 대상을 바로 호출한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+final class LazyBeanProxy implements InvocationHandler {
+
+    private final Supplier<Object> targetSupplier;
+    private volatile Object target;
+
+    private LazyBeanProxy(Supplier<Object> targetSupplier) {
+        this.targetSupplier = targetSupplier;
+    }
+
+    static Object create(Class<?> interfaceType, Supplier<Object> targetSupplier) {
+        return Proxy.newProxyInstance(
+                interfaceType.getClassLoader(),
+                new Class<?>[]{interfaceType},
+                new LazyBeanProxy(targetSupplier)
+        );
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Object target() {
+        Object result = target;
+        if (result == null) {
+            // 여러 스레드가 동시에 들어와도 실제 생성은 컨텍스트의 싱글톤 락에서 한 번만 일어난다
+            result = targetSupplier.get();
+            target = result;
+        }
+        return result;
+    }
+}
@@ -1,15 +1,24 @@
 package com.normaldev.spring_container.context;
 
+import com.normaldev.spring_container.aop.AopProxyFactory;
+import com.normaldev.spring_container.aop.CacheableInterceptor;
+import com.normaldev.spring_container.aop.MyMethodInterceptor;
+import com.normaldev.spring_container.event.EventDispatcher;
 import com.normaldev.spring_container.factory.MyBeanCreationException;
-import com.normaldev.spring_container.stereotype.MyAutowired;
-import com.normaldev.spring_container.stereotype.MyComponent;
-
-import java.io.File;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.net.URL;
+import com.normaldev.spring_container.factory.MyBeanDefinition;
+import com.normaldev.spring_container.factory.MyBeanFactory;
+import com.normaldev.spring_container.factory.MyDependency;
+import com.normaldev.spring_container.scope.*;
+import com.normaldev.spring_container.startup.MyStartupListener;
+import com.normaldev.spring_container.startup.MyStartupReport;
+import com.normaldev.spring_container.stereotype.MyScope;
+
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 /**
  * Custom ApplicationContext
@@ -17,181 +26,627 @@ import java.util.concurrent.ConcurrentHashMap;
  * @author junnukim1007gmail.com
  * @date 25. 12. 24.
  */
-public class MyApplicationContext {
+public class MyApplicationContext implements AutoCloseable {
 
     private final Map<Class<?>, Object> singletonBeans = new ConcurrentHashMap<>();
-    private final Set<Class<?>> componentTypes;
+    // hot reload 때 통째로 교체되는 필드 (조회 한 번은 읽어 둔 인덱스 하나로 끝까지 해석)
+    private volatile Set<Class<?>> componentTypes;
+    private volatile BeanTypeIndex typeIndex;
+    private volatile BeanDependencyGraph dependencyGraph;
+    private final Map<Class<?>, MyBeanDefinition> beanDefinitions = new ConcurrentHashMap<>();
+    private final Map<Class<?>, MyBeanFactory> beanFactories = new ConcurrentHashMap<>();
+    private final BeanFactoryMode beanFactoryMode;
+    private final String basePackage;
+    // 컨텍스트를 만든 클래스로더 (component watcher 가 감시할 디렉토리를 찾을 때 사용)
+    private final ClassLoader classLoader;
+    private final boolean lazyInit;
+    private final Map<String, MyBeanScope> scopes;
+    private final StartupRecorder startupRecorder;
+    private final MyStartupReport startupReport;
+    private final MyApplicationContext parent;
+    private final AopProxyFactory aopProxyFactory;
+    private final EventDispatcher eventDispatcher = new EventDispatcher();
+    // 생성자에서 this::reloadComponents 를 넘기면 생성이 끝나기 전에 this 가 감시 스레드로 새므로 build() 에서 시작
+    private volatile ComponentWatcher componentWatcher;
+
+    // 마지막 reload 세대의 클래스로더 (다음 세대의 부모)
+    private ClassLoader reloadClassLoader;
+
+    // 컴포넌트 탐색 결과 (리포트용)
+    private String scanSource;
+    private long scanNanos;
+    private ComponentIndex componentIndex;
 
     public MyApplicationContext(String basePackage) {
-        this.componentTypes = scanComponents(basePackage);
+        this(builder(basePackage));
+    }
 
-        // 1) 먼저 컴포넌트들을 “필요하면 만들 수 있도록” 후보만 확보
-        // 2) 보통은 eager init도 가능하지만, 학습용으로는 getBean 시점에 만들도록 lazy로 가도 됨
-        // 여기서는 eager로 한 번 싹 생성해두고 주입까지 끝내는 방식으로 진행
-        for (Class<?> type : componentTypes) {
-            getBean(type);
+    public MyApplicationContext(String basePackage, ComponentScanMode scanMode) {
+        this(builder(basePackage).scanMode(scanMode));
+    }
+
+    private MyApplicationContext(Builder builder) {
+        this.startupRecorder = new StartupRecorder(builder.startupListeners);
+        this.parent = builder.parent;
+        this.lazyInit = builder.lazyInit;
+        this.scopes = Map.copyOf(builder.scopes);
+        this.aopProxyFactory = new AopProxyFactory(builder.interceptors);
+        this.beanFactoryMode = builder.beanFactoryMode;
+        this.basePackage = builder.basePackage;
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        this.classLoader = classLoader;
+        this.reloadClassLoader = classLoader;
+        ContextSnapshot snapshot = builder.snapshotFile == null ? null : loadSnapshot(builder, classLoader);
+
+        if (snapshot != null) {
+            // 스냅샷이 유효하면 스캔, 생성자 선택, 타입 해석, 순환 검사를 모두 건너뛴다
+            this.componentTypes = snapshot.componentTypes();
+            this.typeIndex = snapshot.typeIndex();
+            for (Class<?> type : componentTypes) {
+                registerDefinition(snapshot.definition(type));
+            }
+            this.dependencyGraph = snapshot.dependencyGraph();
+        } else {
+            this.componentTypes = findComponents(builder.basePackage, builder.scanMode);
+            // basePackage 가 겹쳐도 부모가 이미 가진 컴포넌트는 다시 만들지 않고 부모 것을 쓴다
+            if (parent != null) componentTypes.removeIf(parent::ownsComponent);
+            this.typeIndex = new BeanTypeIndex(componentTypes);
+
+            // 생성자 선택, @MyAutowired 필드 탐색, 팩토리 생성은 컴포넌트마다 한 번만
+            for (Class<?> type : componentTypes) {
+                registerDefinition(MyBeanDefinition.of(type));
+            }
+
+            // 순환 참조는 여기서 바로 터뜨리고, 의존성이 먼저 오도록 생성 순서를 정해 둔다
+            this.dependencyGraph = new BeanDependencyGraph(beanDefinitions, typeIndex);
+
+            if (builder.snapshotFile != null) {
+                ContextSnapshot.write(builder.snapshotFile, builder.basePackage, classLoader, "scan".equals(scanSource),
+                        beanDefinitions, typeIndex, dependencyGraph);
+            }
         }
+
+        registerEventListeners(componentTypes);
+
+        // Lazy 가 아닌 빈은 eager로 한 번 싹 생성해두고 주입까지 끝내는 방식으로 진행
+        preInstantiateSingletons(builder.executor);
+
+        this.startupReport = new MyStartupReport(
+                System.nanoTime() - startupRecorder.startNanos(),
+                scanSource,
+                componentTypes.size(),
+                scanNanos,
+                beanFactoryMode.name(),
+                beanFactories.values().stream().mapToLong(MyBeanFactory::invocationCount).sum(),
+                startupRecorder.finishRefresh()
+        );
+        for (MyStartupListener listener : startupRecorder.listeners()) {
+            listener.onRefreshCompleted(startupReport);
+        }
+    }
+
+    private void registerDefinition(MyBeanDefinition definition) {
+        Class<?> type = definition.getBeanType();
+        if (!definition.isSingleton() && !scopes.containsKey(definition.getScope())) {
+            throw new MyBeanCreationException(
+                    "Unknown scope '" + definition.getScope() + "' for bean: " + type.getName());
+        }
+        beanDefinitions.put(type, definition);
+        beanFactories.put(type, beanFactoryMode == BeanFactoryMode.METHOD_HANDLE
+                ? MyBeanFactory.methodHandle(definition)
+                : MyBeanFactory.reflective(definition));
+    }
+
+    // 리스너는 프록시가 아닌 실제 빈의 메서드를 호출한다 (인터페이스에 없는 메서드여도 됨)
+    private void registerEventListeners(Collection<Class<?>> types) {
+        for (Class<?> type : types) {
+            int registered = eventDispatcher.registerListeners(type,
+                    () -> AopProxyFactory.unwrap(getSingleton(type, typeIndex)));
+            if (registered > 0 && !beanDefinitions.get(type).isSingleton()) {
+                throw new MyBeanCreationException(
+                        "@MyEventListener is only supported on singleton beans: " + type.getName());
+            }
+        }
+    }
+
+    private ContextSnapshot loadSnapshot(Builder builder, ClassLoader classLoader) {
+        long start = System.nanoTime();
+        ContextSnapshot snapshot = ContextSnapshot.load(builder.snapshotFile, builder.basePackage, classLoader);
+        if (snapshot == null) return null;
+
+        this.scanSource = "snapshot";
+        this.scanNanos = System.nanoTime() - start;
+        startupRecorder.scanCompleted(scanSource, snapshot.componentTypes().size(), scanNanos);
+        return snapshot;
+    }
+
+    public static Builder builder(String basePackage) {
+        return new Builder(basePackage);
+    }
+
+    /**
+     * refresh(스캔 ~ eager 초기화) 단계별 소요 시간 리포트
+     */
+    public MyStartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    /**
+     * 이벤트를 발행한다. (부모 컨텍스트의 리스너에게도 전달)
+     * 리스너는 가상 스레드에서 비동기로 호출되므로 리스너 실행을 기다리지 않고 바로 반환한다.
+     */
+    public void publishEvent(Object event) {
+        eventDispatcher.publish(Objects.requireNonNull(event, "event"));
+        if (parent != null) parent.publishEvent(event);
+    }
+
+    /**
+     * 모아 둔 배치 이벤트를 전달하고, 실행 중인 리스너가 끝날 때까지 기다린다.
+     * 부모 컨텍스트는 다른 자식과 공유되므로 닫지 않는다.
+     */
+    @Override
+    public void close() {
+        if (componentWatcher != null) componentWatcher.close();
+        eventDispatcher.close();
+    }
+
+    // 스캔 대상 디렉토리의 .class 변경을 감시해 reloadComponents 로 넘긴다
+    private void startComponentWatcher() {
+        this.componentWatcher = ComponentWatcher.start(basePackage, classLoader, this::reloadComponents);
     }
 
     public <T> T getBean(Class<T> requiredType) {
-        Object existing = findBeanByType(requiredType);
-        if (existing != null) return requiredType.cast(existing);
+        // exact match 먼저 (구현체 타입으로 조회한 경우)
+        Object existing = singletonBeans.get(requiredType);
+        if (existing != null) return castBean(requiredType, existing);
+
+        BeanTypeIndex index = typeIndex;
+        Class<?> implType = index.resolve(requiredType);
+        if (implType == null) return getParentBean(requiredType, null);
 
-        // requiredType이 componentTypes에 없더라도,
-        // 인터페이스/부모로 요청되면 구현체 중 @Component를 찾아 생성할 수 있게 처리
-        Class<?> implType = resolveComponentType(requiredType);
-        if (implType == null) {
-            throw new MyBeanCreationException("No component found for type: " + requiredType.getName());
+        return castBean(requiredType, getScopedBean(implType, index));
+    }
+
+    /**
+     * 이름(@MyQualifier 값 또는 첫 글자를 소문자로 바꾼 클래스 이름)으로 조회
+     */
+    public <T> T getBean(Class<T> requiredType, String name) {
+        BeanTypeIndex index = typeIndex;
+        Class<?> implType = index.resolve(requiredType, name);
+        if (implType == null) return getParentBean(requiredType, name);
+
+        return castBean(requiredType, getScopedBean(implType, index));
+    }
+
+    /**
+     * requiredType 에 할당 가능한 모든 빈 (빈 이름 -> 빈, 부모 컨텍스트의 빈 포함)
+     */
+    public <T> Map<String, T> getBeansOfType(Class<T> requiredType) {
+        BeanTypeIndex index = typeIndex;
+        Map<String, T> beans = parent == null ? new LinkedHashMap<>() : new LinkedHashMap<>(parent.getBeansOfType(requiredType));
+        for (Class<?> implType : index.candidates(requiredType)) {
+            beans.put(index.nameOf(implType), castBean(requiredType, getScopedBean(implType, index)));
+        }
+        return beans;
+    }
+
+    // 인터셉터가 걸린 빈은 인터페이스 프록시라서 구현 클래스 타입으로는 꺼낼 수 없다
+    private static <T> T castBean(Class<T> requiredType, Object bean) {
+        if (!requiredType.isInstance(bean)) {
+            throw new MyBeanCreationException("Bean of type " + requiredType.getName() +
+                    " is proxied by method interceptors; look it up or inject it by one of its interfaces");
+        }
+        return requiredType.cast(bean);
+    }
+
+    /**
+     * pooled 같은 재사용 스코프에서 꺼낸 빈을 반납한다. (그 외 스코프에서는 아무 일도 하지 않음)
+     */
+    public void releaseBean(Object bean) {
+        MyBeanDefinition definition = beanDefinitions.get(AopProxyFactory.unwrap(bean).getClass());
+        if (definition == null || definition.isSingleton()) return;
+
+        scopes.get(definition.getScope()).release(definition, bean);
+    }
+
+    // 이 컨텍스트에서 해석되지 않는 타입은 부모 컨텍스트에 위임한다 (부모 싱글톤을 그대로 공유)
+    private <T> T getParentBean(Class<T> requiredType, String name) {
+        if (parent == null) {
+            throw new MyBeanCreationException(name == null
+                    ? "No component found for type: " + requiredType.getName()
+                    : "No component named '" + name + "' found for type: " + requiredType.getName());
+        }
+        return name == null ? parent.getBean(requiredType) : parent.getBean(requiredType, name);
+    }
+
+    // 이 컨텍스트 또는 조상 컨텍스트가 관리하는 컴포넌트인지
+    boolean ownsComponent(Class<?> type) {
+        return beanDefinitions.containsKey(type) || (parent != null && parent.ownsComponent(type));
+    }
+
+    // reload 로 교체된 (예전 세대) 컴포넌트는 정의가 지워져 있다
+    private MyBeanDefinition definitionOf(Class<?> type) {
+        MyBeanDefinition definition = beanDefinitions.get(type);
+        if (definition == null) {
+            throw new MyBeanCreationException("Component was replaced by hot reload, look it up again: " + type.getName());
         }
+        return definition;
+    }
+
+    private boolean isLazy(Class<?> type) {
+        return lazyInit || definitionOf(type).isLazy();
+    }
+
+    // refresh 시점에 미리 만들어 둘 빈 (Lazy 가 아닌 싱글톤)
+    private boolean isEagerSingleton(Class<?> type) {
+        return definitionOf(type).isSingleton() && !isLazy(type);
+    }
 
-        return requiredType.cast(createOrGetSingleton(implType));
+    private Object getScopedBean(Class<?> type, BeanTypeIndex index) {
+        MyBeanDefinition definition = definitionOf(type);
+        if (definition.isSingleton()) return getSingleton(type, index);
+
+        return scopes.get(definition.getScope()).get(definition, () -> createBean(type, index));
     }
 
-    private Object createOrGetSingleton(Class<?> type) {
-        return singletonBeans.computeIfAbsent(type, this::createBean);
+    /**
+     * computeIfAbsent 안에서 재귀적으로 다른 빈을 만들지 않도록, 빈마다 정의 객체를 락으로 사용한다.
+     * 의존성 그래프에 순환이 없으므로 락을 잡는 순서도 항상 DAG 방향이라 데드락이 생기지 않는다.
+     */
+    private Object getSingleton(Class<?> type, BeanTypeIndex index) {
+        Object bean = singletonBeans.get(type);
+        if (bean != null) return bean;
+
+        synchronized (definitionOf(type)) {
+            bean = singletonBeans.get(type);
+            if (bean == null) {
+                bean = createBean(type, index);
+                singletonBeans.put(type, bean);
+            }
+            return bean;
+        }
     }
 
-    private Object createBean(Class<?> type) {
+    /**
+     * executor 가 없으면 위상 정렬 순서대로 하나씩,
+     * 있으면 의존성이 모두 만들어진 빈부터 executor 에서 병렬로 생성한다.
+     */
+    private void preInstantiateSingletons(Executor executor) {
+        BeanTypeIndex index = typeIndex;
+        if (executor == null) {
+            for (Class<?> type : dependencyGraph.topologicalOrder()) {
+                if (isEagerSingleton(type)) getSingleton(type, index);
+            }
+            return;
+        }
+
+        Map<Class<?>, CompletableFuture<Void>> futures = new HashMap<>();
+        for (Class<?> type : dependencyGraph.topologicalOrder()) {
+            if (!isEagerSingleton(type)) continue;
+
+            // 위상 정렬 순서이므로 의존하는 빈의 future 는 항상 먼저 만들어져 있다
+            // (Lazy/스코프 의존성은 future 가 없고, 필요하면 주입 시점에 생성된다)
+            CompletableFuture<?>[] dependencies = dependencyGraph.dependenciesOf(type).stream()
+                    .map(futures::get)
+                    .filter(Objects::nonNull)
+                    .toArray(CompletableFuture[]::new);
+
+            futures.put(type, CompletableFuture.allOf(dependencies)
+                    .thenRunAsync(() -> getSingleton(type, index), executor));
+        }
+
         try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture<?>[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new MyBeanCreationException("Failed to pre-instantiate singletons", e.getCause());
+        }
+    }
+
+    private Object createBean(Class<?> type, BeanTypeIndex index) {
+        MyBeanDefinition definition = definitionOf(type);
+        MyBeanFactory factory = beanFactories.get(type);
+
+        try (StartupRecorder.Recording recording = startupRecorder.begin(type)) {
             // 1) 인스턴스 생성 (생성자 주입)
-            Object instance = instantiate(type);
+            Object[] args = resolveDependencies(definition.getConstructorDependencies(), index);
+            recording.resolved();
+            Object instance = factory.newInstance(args);
+            recording.instantiated();
 
             // 2) 필드 주입
-            injectFields(instance);
+            List<MyDependency> fieldDependencies = definition.getFieldDependencies();
+            if (!fieldDependencies.isEmpty()) {
+                Object[] values = resolveDependencies(fieldDependencies, index);
+                recording.resolved();
+                factory.injectFields(instance, values);
+            }
+            recording.injected();
 
-            return instance;
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new MyBeanCreationException("Failed to create bean: " + type.getName(), e);
+            // 인터셉터가 걸리는 메서드가 있으면 프록시로 감싼다 (스코프/싱글톤 캐시에는 프록시가 들어감)
+            return aopProxyFactory.wrapIfNecessary(instance);
         }
     }
 
-    private Object instantiate(Class<?> type) throws Exception {
-        Constructor<?> ctor = selectConstructor(type);
+    private Object[] resolveDependencies(List<MyDependency> dependencies, BeanTypeIndex index) {
+        Object[] values = new Object[dependencies.size()];
+        for (int i = 0; i < values.length; i++) {
+            MyDependency dependency = dependencies.get(i);
+            values[i] = switch (dependency.kind()) { // 재귀적으로 의존성 해결
+                case SINGLE -> castBean(dependency.type(), resolveDependency(dependency.type(), dependency.qualifier(), index));
+                case LIST -> List.copyOf(resolveAll(dependency.type(), index).values());
+                case MAP -> Collections.unmodifiableMap(resolveAll(dependency.type(), index));
+            };
+        }
+        return values;
+    }
+
+    private Object resolveDependency(Class<?> requiredType, String qualifier, BeanTypeIndex index) {
+        // 의존성 그래프에서도 부모 쪽 빈은 외부 의존성이라 간선이 없고, 주입 시점에 부모에서 꺼낸다
+        Class<?> implType = qualifier == null ? index.resolve(requiredType) : index.resolve(requiredType, qualifier);
+        if (implType == null) return getParentBean(requiredType, qualifier);
 
-        ctor.setAccessible(true);
-        Class<?>[] paramTypes = ctor.getParameterTypes();
-        Object[] args = new Object[paramTypes.length];
+        return resolveComponent(requiredType, implType, index);
+    }
 
-        for (int i = 0; i < paramTypes.length; i++) {
-            args[i] = getBean(paramTypes[i]); // 재귀적으로 의존성 해결
+    // 빈 이름 -> 빈 (부모 컨텍스트의 빈 포함, 이름이 같으면 자식 빈이 우선)
+    private <T> Map<String, T> resolveAll(Class<T> requiredType, BeanTypeIndex index) {
+        Map<String, T> beans = parent == null ? new LinkedHashMap<>() : new LinkedHashMap<>(parent.getBeansOfType(requiredType));
+        for (Class<?> implType : index.candidates(requiredType)) {
+            beans.put(index.nameOf(implType), castBean(requiredType, resolveComponent(requiredType, implType, index)));
         }
-        return ctor.newInstance(args);
+        return beans;
     }
 
-    private Constructor<?> selectConstructor(Class<?> type) {
-        Constructor<?>[] ctors = type.getDeclaredConstructors();
+    private Object resolveComponent(Class<?> requiredType, Class<?> implType, BeanTypeIndex index) {
+        Object existing = singletonBeans.get(implType);
+        if (existing != null) return existing;
+
+        // 싱글톤이 아닌 빈은 주입 시점에 스코프에서 꺼낸 인스턴스가 들어간다
+        if (!definitionOf(implType).isSingleton()) return getScopedBean(implType, index);
 
-        // 1) @Autowired 붙은 생성자 우선
-        for (Constructor<?> c : ctors) {
-            if (c.isAnnotationPresent(MyAutowired.class)) return c;
+        // 아직 만들어지지 않은 Lazy 빈이 인터페이스로 주입되면 프록시를 넣고 첫 호출 때 생성
+        // (클래스 타입은 JDK 프록시로 감쌀 수 없으므로 주입 시점에 바로 생성)
+        if (requiredType.isInterface() && isLazy(implType)) {
+            return LazyBeanProxy.create(requiredType, () -> getSingleton(implType, index));
         }
+        return getSingleton(implType, index);
+    }
 
-        // 2) 생성자가 1개면 그걸 사용
-        if (ctors.length == 1) return ctors[0];
+    // -----------------------------
+    // Hot Reload
+    // -----------------------------
 
-        // 3) 기본 생성자 사용
+    /**
+     * 바뀐 컴포넌트와, 그 컴포넌트에 (전이적으로) 의존하는 컴포넌트만 새 세대 클래스로더로 다시 로딩해서 교체한다.
+     *
+     * 새 정의/빈을 모두 만든 다음 타입 인덱스를 한 번에 바꾸고 예전 항목을 지우므로,
+     * 조회하는 쪽은 예전 빈 세트나 새 빈 세트 중 하나만 보게 된다. 영향 없는 싱글톤은 그대로 유지된다.
+     * 컴포넌트가 아닌 클래스(인터페이스 등)의 변경이나 새로 추가된 컴포넌트는 재시작이 필요하다.
+     */
+    synchronized void reloadComponents(Set<String> changedClassNames) {
+        Set<Class<?>> current = componentTypes;
+        Set<Class<?>> changed = new HashSet<>();
+        for (Class<?> type : current) {
+            if (changedClassNames.contains(type.getName())) changed.add(type);
+        }
+        if (changed.isEmpty()) return;
+
+        Set<Class<?>> affected = dependencyGraph.withDependents(changed);
+        Set<String> affectedNames = new HashSet<>();
+        for (Class<?> type : affected) affectedNames.add(type.getName());
+
+        ReloadingClassLoader classLoader = new ReloadingClassLoader(
+                ComponentWatcher.classRoots(basePackage, reloadClassLoader), reloadClassLoader, affectedNames);
+
+        Set<Class<?>> reloaded = new LinkedHashSet<>();
         try {
-            return type.getDeclaredConstructor();
-        } catch (NoSuchMethodException e) {
-            throw new MyBeanCreationException(
-                    "No suitable constructor found for " + type.getName() +
-                            " (need @Autowired or single constructor or no-arg constructor)."
-            );
+            for (String name : affectedNames) {
+                reloaded.add(loadReloadedClass(name, classLoader));
+            }
+            Set<Class<?>> nextTypes = new HashSet<>(current);
+            nextTypes.removeAll(affected);
+            nextTypes.addAll(reloaded);
+
+            // 새 클래스는 키(Class)가 달라서, 인덱스를 바꾸기 전까지는 조회되지 않는다
+            for (Class<?> type : reloaded) {
+                registerDefinition(MyBeanDefinition.of(type));
+            }
+            BeanTypeIndex nextIndex = new BeanTypeIndex(nextTypes);
+            Map<Class<?>, MyBeanDefinition> nextDefinitions = new HashMap<>();
+            for (Class<?> type : nextTypes) nextDefinitions.put(type, beanDefinitions.get(type));
+            BeanDependencyGraph nextGraph = new BeanDependencyGraph(nextDefinitions, nextIndex);
+
+            for (Class<?> type : nextGraph.topologicalOrder()) {
+                if (reloaded.contains(type) && isEagerSingleton(type)) getSingleton(type, nextIndex);
+            }
+
+            this.dependencyGraph = nextGraph;
+            this.componentTypes = nextTypes;
+            this.typeIndex = nextIndex;
+            this.reloadClassLoader = classLoader;
+        } catch (RuntimeException | LinkageError e) {
+            // 새 세대를 만들다 실패하면 (컴파일 중인 클래스 파일 등) 기존 빈을 그대로 쓴다
+            retire(reloaded);
+            throw e;
         }
+
+        eventDispatcher.unregisterListeners(affected);
+        registerEventListeners(reloaded);
+        retire(affected);
     }
 
-    private void injectFields(Object instance) throws IllegalAccessException {
-        Class<?> clazz = instance.getClass();
-        for (Field field : clazz.getDeclaredFields()) {
-            if (!field.isAnnotationPresent(MyAutowired.class)) continue;
+    private static Class<?> loadReloadedClass(String name, ClassLoader classLoader) {
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new MyBeanCreationException("Failed to reload component: " + name, e);
+        }
+    }
 
-            Object dependency = getBean(field.getType());
-            field.setAccessible(true);
-            field.set(instance, dependency);
+    private void retire(Set<Class<?>> types) {
+        for (Class<?> type : types) {
+            singletonBeans.remove(type);
+            beanDefinitions.remove(type);
+            beanFactories.remove(type);
+            aopProxyFactory.evict(type);
         }
     }
 
-    private Object findBeanByType(Class<?> type) {
-        // exact match 먼저
-        Object exact = singletonBeans.get(type);
-        if (exact != null) return exact;
+    // -----------------------------
+    // Component Index (컴파일 타임 생성)
+    // -----------------------------
+    private Set<Class<?>> findComponents(String basePackage, ComponentScanMode scanMode) {
+        long start = System.nanoTime();
+        Set<Class<?>> components = findComponentCandidates(basePackage, scanMode);
 
-        // assignable match (인터페이스/부모 타입)
-        for (Object bean : singletonBeans.values()) {
-            if (type.isAssignableFrom(bean.getClass())) {
-                return bean;
-            }
-        }
-        return null;
+        this.scanNanos = System.nanoTime() - start;
+        startupRecorder.scanCompleted(scanSource, components.size(), scanNanos);
+        return components;
     }
 
-    private Class<?> resolveComponentType(Class<?> requiredType) {
-        // requiredType이 @Component 클래스면 그대로 사용
-        if (componentTypes.contains(requiredType)) return requiredType;
+    private Set<Class<?>> findComponentCandidates(String basePackage, ComponentScanMode scanMode) {
+        if (scanMode == ComponentScanMode.SCAN) return scanComponents(basePackage);
 
-        // requiredType이 인터페이스/부모면 구현체 중 하나 선택
-        List<Class<?>> candidates = new ArrayList<>();
-        for (Class<?> c : componentTypes) {
-            if (requiredType.isAssignableFrom(c)) candidates.add(c);
+        ComponentIndex index = loadComponentIndex(Thread.currentThread().getContextClassLoader());
+        // AUTO 모드에서 인덱스에 basePackage 항목이 없으면 (다른 모듈의 인덱스만 있는 경우 등) 스캔으로 fallback
+        if (index != null && (scanMode == ComponentScanMode.INDEX || index.covers(basePackage))) {
+            this.componentIndex = index;
+            this.scanSource = "index";
+            return index.candidates(basePackage);
         }
 
-        if (candidates.isEmpty()) return null;
-        if (candidates.size() > 1) {
-            // 스프링이면 @Primary, @Qualifier 같은 걸로 해결하지만
-            // 여기서는 학습용으로 명확히 터뜨려서 원인 알게 하는게 좋음
+        if (scanMode == ComponentScanMode.INDEX) {
             throw new MyBeanCreationException(
-                    "Multiple components found for type: " + requiredType.getName() +
-                            " -> " + candidates
+                    "Component index not found: " + ComponentIndex.INDEX_LOCATION +
+                            " (MyComponentIndexProcessor가 annotationProcessor로 등록되어 있는지 확인)"
             );
         }
-        return candidates.get(0);
+        // 인덱스가 없으면 기존 방식대로 스캔
+        return scanComponents(basePackage);
+    }
+
+    // 같은 클래스로더면 부모가 이미 읽어 둔 인덱스를 재사용 (자식 컨텍스트는 인덱스 파일을 다시 읽지 않음)
+    private ComponentIndex loadComponentIndex(ClassLoader classLoader) {
+        for (MyApplicationContext ctx = parent; ctx != null; ctx = ctx.parent) {
+            if (ctx.componentIndex != null && ctx.componentIndex.classLoader() == classLoader) {
+                return ctx.componentIndex;
+            }
+        }
+        return ComponentIndex.load(classLoader);
     }
 
     // -----------------------------
-    // Component Scan (파일 시스템 기반)
+    // Component Scan (file / jar / nested jar)
     // -----------------------------
     private Set<Class<?>> scanComponents(String basePackage) {
-        try {
-            String path = basePackage.replace('.', '/');
-            ClassLoader cl = Thread.currentThread().getContextClassLoader();
-            Enumeration<URL> resources = cl.getResources(path);
+        this.scanSource = "scan";
+        return new ClassPathComponentScanner(Thread.currentThread().getContextClassLoader()).scan(basePackage);
+    }
 
-            Set<Class<?>> result = new HashSet<>();
-            while (resources.hasMoreElements()) {
-                URL url = resources.nextElement();
-                if (!"file".equals(url.getProtocol())) continue;
+    public static class Builder {
+
+        private final String basePackage;
+        private ComponentScanMode scanMode = ComponentScanMode.AUTO;
+        private BeanFactoryMode beanFactoryMode = BeanFactoryMode.REFLECTION;
+        private Executor executor;
+        private boolean lazyInit;
+        private final Map<String, MyBeanScope> scopes = new HashMap<>();
+        private final List<MyStartupListener> startupListeners = new ArrayList<>();
+        private Path snapshotFile;
+        private MyApplicationContext parent;
+        private boolean hotReload;
+        private final List<MyMethodInterceptor> interceptors = new ArrayList<>(List.of(new CacheableInterceptor()));
+
+        private Builder(String basePackage) {
+            this.basePackage = basePackage;
+            scopes.put(MyScope.PROTOTYPE, new PrototypeScope());
+            scopes.put(MyScope.THREAD, new ThreadScope());
+            scopes.put(MyScope.REQUEST, new RequestScope());
+            scopes.put(MyScope.POOLED, new PooledScope());
+        }
 
-                File dir = new File(url.getFile());
-                findClasses(dir, basePackage, result);
-            }
-            // @Component만 남김
-            result.removeIf(c -> !c.isAnnotationPresent(MyComponent.class));
-            return result;
-        } catch (Exception e) {
-            throw new MyBeanCreationException("Failed to scan components for package: " + basePackage, e);
-        }
-    }
-
-    private void findClasses(File directory, String packageName, Set<Class<?>> classes) {
-        if (!directory.exists()) return;
-
-        File[] files = directory.listFiles();
-        if (files == null) return;
-
-        for (File file : files) {
-            if (file.isDirectory()) {
-                findClasses(file, packageName + "." + file.getName(), classes);
-            } else if (file.getName().endsWith(".class")) {
-                String className = packageName + "." + file.getName().substring(0, file.getName().length() - 6);
-                try {
-                    Class<?> clazz = Class.forName(className);
-                    classes.add(clazz);
-                } catch (ClassNotFoundException ignored) {
-                    // ignore
-                }
+        public Builder scanMode(ComponentScanMode scanMode) {
+            this.scanMode = scanMode;
+            return this;
+        }
+
+        public Builder beanFactoryMode(BeanFactoryMode beanFactoryMode) {
+            this.beanFactoryMode = beanFactoryMode;
+            return this;
+        }
+
+        /**
+         * 서로 의존하지 않는 빈들을 병렬로 생성할 executor (기본: 호출 스레드에서 순차 생성)
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * true 면 @MyLazy 가 없어도 모든 빈을 처음 사용할 때 생성
+         */
+        public Builder lazyInit(boolean lazyInit) {
+            this.lazyInit = lazyInit;
+            return this;
+        }
+
+        /**
+         * 커스텀 스코프 등록 (기본 제공 스코프를 같은 이름으로 덮어쓸 수도 있음)
+         */
+        public Builder registerScope(String name, MyBeanScope scope) {
+            if (MyScope.SINGLETON.equals(name)) {
+                throw new IllegalArgumentException("singleton scope cannot be replaced");
             }
+            this.scopes.put(name, scope);
+            return this;
+        }
+
+        public Builder startupListener(MyStartupListener listener) {
+            this.startupListeners.add(listener);
+            return this;
+        }
+
+        /**
+         * refresh 결과를 저장/재사용할 스냅샷 파일
+         * 파일이 없거나 클래스가 바뀌었으면 전체 refresh 후 다시 저장한다.
+         */
+        public Builder snapshot(Path snapshotFile) {
+            this.snapshotFile = snapshotFile;
+            return this;
+        }
+
+        /**
+         * 부모 컨텍스트 지정
+         * 이 컨텍스트에서 해석되지 않는 타입은 부모에서 찾고, 부모가 이미 가진 컴포넌트는 다시 만들지 않는다.
+         */
+        public Builder parent(MyApplicationContext parent) {
+            this.parent = parent;
+            return this;
+        }
+
+        /**
+         * true 면 basePackage 의 클래스 디렉토리를 감시하다가, 바뀐 컴포넌트와 그 의존 빈만 다시 만들어 교체한다.
+         * (개발/플러그인 교체용, close() 로 감시 종료)
+         */
+        public Builder hotReload(boolean hotReload) {
+            this.hotReload = hotReload;
+            return this;
+        }
+
+        /**
+         * 메서드 인터셉터 등록 (등록 순서대로 체인이 구성됨, @MyCacheable 인터셉터는 기본 등록)
+         */
+        public Builder interceptor(MyMethodInterceptor interceptor) {
+            this.interceptors.add(interceptor);
+            return this;
+        }
+
+        public MyApplicationContext build() {
+            MyApplicationContext context = new MyApplicationContext(this);
+            if (hotReload) context.startComponentWatcher();
+            return context;
         }
     }
 }
\ No newline at end of file
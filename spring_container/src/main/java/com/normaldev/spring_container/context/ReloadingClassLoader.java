@@ -0,0 +1,63 @@
+package com.normaldev.spring_container.context;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * hot reload 한 세대의 클래스로더
+ * reloadable 에 있는 클래스만 child-first 로 디스크에서 새로 읽고, 나머지는 부모(이전 세대 -> 애플리케이션 클래스로더)에 위임한다.
+ *
+ * 다른 클래스로더에서 로딩된 같은 패키지의 클래스는 런타임 패키지가 달라지므로,
+ * 다시 로딩되는 컴포넌트는 다시 로딩되지 않는 클래스의 package-private 멤버에 접근할 수 없다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+final class ReloadingClassLoader extends ClassLoader {
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final List<Path> classRoots;
+    private final Set<String> reloadable;
+
+    ReloadingClassLoader(List<Path> classRoots, ClassLoader parent, Set<String> reloadable) {
+        super("my-reload", parent);
+        this.classRoots = classRoots;
+        this.reloadable = reloadable;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!reloadable.contains(name)) return super.loadClass(name, resolve);
+
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) clazz = findClass(name);
+            if (resolve) resolveClass(clazz);
+            return clazz;
+        }
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        String classFile = name.replace('.', '/') + ".class";
+        for (Path root : classRoots) {
+            Path path = root.resolve(classFile);
+            if (!Files.isRegularFile(path)) continue;
+
+            try {
+                byte[] bytes = Files.readAllBytes(path);
+                return defineClass(name, bytes, 0, bytes.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read class file: " + path, e);
+            }
+        }
+        throw new ClassNotFoundException(name);
+    }
+}
@@ -0,0 +1,125 @@
+package com.normaldev.spring_container.context;
+
+import com.normaldev.spring_container.startup.BeanStartupTiming;
+import com.normaldev.spring_container.startup.MyStartupListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 빈 생성 단계별 시간을 기록한다.
+ * 빈 생성 중에 다른 빈이 만들어지면(재귀) 그 시간은 바깥 빈의 의존성 해석 시간에서 빼기 위해 스레드별 스택을 둔다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+final class StartupRecorder {
+
+    private final long startNanos = System.nanoTime();
+    private final List<MyStartupListener> listeners;
+    private final ConcurrentLinkedQueue<BeanStartupTiming> timings = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Deque<Recording>> inProgress = ThreadLocal.withInitial(ArrayDeque::new);
+
+    // refresh 가 끝난 뒤 생성되는 빈(prototype 등)은 리스너에게만 알리고 보관하지 않는다
+    private volatile boolean refreshing = true;
+
+    StartupRecorder(List<MyStartupListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
+    long startNanos() {
+        return startNanos;
+    }
+
+    Recording begin(Class<?> beanType) {
+        Recording recording = new Recording(beanType);
+        inProgress.get().push(recording);
+        return recording;
+    }
+
+    void scanCompleted(String source, int componentCount, long elapsedNanos) {
+        for (MyStartupListener listener : listeners) {
+            listener.onScanCompleted(source, componentCount, elapsedNanos);
+        }
+    }
+
+    /**
+     * refresh 종료 - 지금까지 기록한 타이밍을 반환하고 더 이상 보관하지 않는다
+     */
+    List<BeanStartupTiming> finishRefresh() {
+        refreshing = false;
+        List<BeanStartupTiming> result = new ArrayList<>(timings);
+        timings.clear();
+        return result;
+    }
+
+    List<MyStartupListener> listeners() {
+        return listeners;
+    }
+
+    final class Recording implements AutoCloseable {
+
+        private final Class<?> beanType;
+        private final long begin = System.nanoTime();
+        private long last = begin;
+        private long resolve;
+        private long instantiate;
+        private long inject;
+        private long nested;
+        private boolean completed;
+
+        private Recording(Class<?> beanType) {
+            this.beanType = beanType;
+        }
+
+        void resolved() {
+            resolve += lap();
+        }
+
+        void instantiated() {
+            instantiate += lap();
+        }
+
+        void injected() {
+            inject += lap();
+            completed = true;
+        }
+
+        private long lap() {
+            long now = System.nanoTime();
+            long elapsed = now - last;
+            last = now;
+            return elapsed;
+        }
+
+        @Override
+        public void close() {
+            Deque<Recording> stack = inProgress.get();
+            stack.pop();
+
+            long total = System.nanoTime() - begin;
+            Recording parent = stack.peek();
+            if (parent != null) parent.nested += total;
+
+            // 생성에 실패한 빈은 기록하지 않는다
+            if (!completed) return;
+
+            BeanStartupTiming timing = new BeanStartupTiming(
+                    beanType,
+                    Thread.currentThread().getName(),
+                    begin - startNanos,
+                    Math.max(0, resolve - nested),
+                    instantiate,
+                    inject,
+                    total
+            );
+            if (refreshing) timings.add(timing);
+            for (MyStartupListener listener : listeners) {
+                listener.onBeanCreated(timing);
+            }
+        }
+    }
+}
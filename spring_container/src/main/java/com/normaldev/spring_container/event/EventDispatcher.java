@@ -0,0 +1,228 @@
+package com.normaldev.spring_container.event;
+
+import com.normaldev.spring_container.factory.MyBeanCreationException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * @MyEventListener 메서드를 모아 두고, 발행된 이벤트를 가상 스레드에서 비동기로 전달한다.
+ *
+ * 이벤트 클래스별 리스너 배열(dispatch table)은 처음 발행될 때 한 번 계산해서 캐시하므로,
+ * publish 는 맵 조회 한 번 + 리스너 수만큼의 submit 만 하고 바로 반환한다. (느린 리스너가 발행 스레드를 막지 않음)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public class EventDispatcher implements AutoCloseable {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final Listener[] NO_LISTENERS = new Listener[0];
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, Listener[]> dispatchTable = new ConcurrentHashMap<>();
+
+    /**
+     * 빈 클래스의 @MyEventListener 메서드를 등록한다. (refresh / hot reload 중에 호출)
+     *
+     * @param beanType 빈 구현 클래스
+     * @param bean     실제 빈 인스턴스 공급자 (Lazy 빈은 첫 이벤트 때 생성됨)
+     * @return 등록한 리스너 메서드 수
+     */
+    public int registerListeners(Class<?> beanType, Supplier<Object> bean) {
+        int registered = 0;
+        for (Class<?> c = beanType; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                MyEventListener annotation = method.getAnnotation(MyEventListener.class);
+                if (annotation == null) continue;
+
+                if (method.getParameterCount() != 1 || Modifier.isStatic(method.getModifiers())) {
+                    throw new MyBeanCreationException(
+                            "@MyEventListener method must be an instance method with one parameter: " + method);
+                }
+                MethodHandle invoker = invoker(beanType, method);
+                listeners.add(annotation.batchWindowMillis() > 0
+                        ? new BatchingListener(beanType, batchEventType(method), bean, invoker,
+                                annotation.batchWindowMillis(), annotation.maxBatchSize())
+                        : new Listener(beanType, method.getParameterTypes()[0], bean, invoker));
+                registered++;
+            }
+        }
+        if (registered > 0) dispatchTable.clear();
+        return registered;
+    }
+
+    /**
+     * 교체되는 빈 클래스의 리스너를 제거한다. (모아 둔 배치는 기존 빈에 먼저 전달)
+     */
+    public void unregisterListeners(Set<Class<?>> beanTypes) {
+        List<Listener> removed = listeners.stream().filter(l -> beanTypes.contains(l.beanType)).toList();
+        if (removed.isEmpty()) return;
+
+        listeners.removeAll(removed);
+        dispatchTable.clear();
+        for (Listener listener : removed) {
+            if (listener instanceof BatchingListener batching) batching.flush();
+        }
+    }
+
+    /**
+     * 리스너 호출을 가상 스레드에 넘기고 바로 반환한다.
+     */
+    public void publish(Object event) {
+        Listener[] targets = dispatchTable.computeIfAbsent(event.getClass(), this::listenersFor);
+        for (Listener listener : targets) {
+            listener.accept(event);
+        }
+    }
+
+    /**
+     * 모아 둔 배치를 모두 전달하고, 진행 중인 리스너 호출이 끝날 때까지 기다린다.
+     */
+    @Override
+    public void close() {
+        for (Listener listener : listeners) {
+            if (listener instanceof BatchingListener batching) batching.flush();
+        }
+        executor.close();
+    }
+
+    private Listener[] listenersFor(Class<?> eventType) {
+        Listener[] matched = listeners.stream()
+                .filter(listener -> listener.eventType.isAssignableFrom(eventType))
+                .toArray(Listener[]::new);
+        return matched.length == 0 ? NO_LISTENERS : matched;
+    }
+
+    private static MethodHandle invoker(Class<?> beanType, Method method) {
+        try {
+            return MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflect(method)
+                    .asType(INVOKER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new MyBeanCreationException("Failed to access event listener: " + beanType.getName(), e);
+        }
+    }
+
+    // List<OrderPlaced> 의 OrderPlaced
+    private static Class<?> batchEventType(Method method) {
+        Type type = method.getGenericParameterTypes()[0];
+        if (method.getParameterTypes()[0] == List.class
+                && type instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> eventType) {
+            return eventType;
+        }
+        throw new MyBeanCreationException(
+                "Batching @MyEventListener method must take List<EventType>: " + method);
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Event dispatcher is closed", e);
+        }
+    }
+
+    private static void report(Throwable e) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+
+    private class Listener {
+        final Class<?> beanType;
+        final Class<?> eventType;
+        final Supplier<Object> bean;
+        final MethodHandle invoker;
+
+        Listener(Class<?> beanType, Class<?> eventType, Supplier<Object> bean, MethodHandle invoker) {
+            this.beanType = beanType;
+            this.eventType = eventType;
+            this.bean = bean;
+            this.invoker = invoker;
+        }
+
+        void accept(Object event) {
+            submit(() -> invoke(event));
+        }
+
+        // 리스너 예외는 발행한 쪽으로 전파되지 않고 실행 스레드의 UncaughtExceptionHandler 로 보낸다
+        void invoke(Object argument) {
+            try {
+                invoker.invokeExact(bean.get(), argument);
+            } catch (Throwable e) {
+                report(e);
+            }
+        }
+    }
+
+    /**
+     * 첫 이벤트가 들어오면 batchWindowMillis 뒤에 한 번 flush 를 예약하고, 그 사이 이벤트는 큐에만 쌓는다.
+     */
+    private class BatchingListener extends Listener {
+        private final long windowMillis;
+        private final int maxBatchSize;
+        private final ConcurrentLinkedQueue<Object> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        BatchingListener(Class<?> beanType, Class<?> eventType, Supplier<Object> bean, MethodHandle invoker,
+                         long windowMillis, int maxBatchSize) {
+            super(beanType, eventType, bean, invoker);
+            this.windowMillis = windowMillis;
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        @Override
+        void accept(Object event) {
+            pending.add(event);
+            if (scheduled.compareAndSet(false, true)) {
+                submit(this::flushAfterWindow);
+            }
+        }
+
+        private void flushAfterWindow() {
+            try {
+                Thread.sleep(windowMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduled.set(false);
+            flush();
+            // flag 를 내린 직후 들어온 이벤트가 예약 없이 남지 않도록 한 번 더 확인
+            if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) {
+                submit(this::flushAfterWindow);
+            }
+        }
+
+        void flush() {
+            List<Object> batch = new ArrayList<>();
+            Object event;
+            while ((event = pending.poll()) != null) {
+                batch.add(event);
+                if (batch.size() == maxBatchSize) {
+                    invoke(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) invoke(batch);
+        }
+    }
+}
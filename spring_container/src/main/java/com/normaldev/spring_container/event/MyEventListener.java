@@ -0,0 +1,28 @@
+package com.normaldev.spring_container.event;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Custom EventListener Annotation
+ * 싱글톤 @MyComponent 빈의 파라미터 하나짜리 메서드에 붙이면, 그 타입(또는 하위 타입)의 이벤트가 발행될 때 가상 스레드에서 호출된다.
+ *
+ * batchWindowMillis 가 0보다 크면 파라미터는 List&lt;이벤트 타입&gt; 이어야 하고,
+ * 첫 이벤트 이후 batchWindowMillis 동안 들어온 이벤트를 모아서 한 번에 전달한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface MyEventListener {
+
+    long batchWindowMillis() default 0;
+
+    /**
+     * 한 번에 전달할 최대 이벤트 수 (배치 모드에서만 사용)
+     */
+    int maxBatchSize() default 1_000;
+}
@@ -0,0 +1,81 @@
+package com.normaldev.spring_container.factory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MethodHandle 기반 MyBeanFactory
+ *
+ * 팩토리 생성 시점에 생성자/필드 setter 를 (Object[]) -> Object, (Object, Object) -> void 형태로
+ * 변환해 두기 때문에, 이후 빈 생성은 접근 검사 없이 invokeExact 한 번으로 끝난다.
+ * private 멤버 접근은 MethodHandles.privateLookupIn 으로 한 번만 열어 둔다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+class MethodHandleBeanFactory implements MyBeanFactory {
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> beanType;
+    private final MethodHandle constructor;
+    private final MethodHandle[] setters;
+    private final LongAdder invocations = new LongAdder();
+
+    MethodHandleBeanFactory(MyBeanDefinition definition) {
+        this.beanType = definition.getBeanType();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(beanType, MethodHandles.lookup());
+
+            Constructor<?> ctor = definition.getConstructor();
+            this.constructor = lookup.unreflectConstructor(ctor)
+                    .asSpreader(Object[].class, ctor.getParameterCount())
+                    .asType(CONSTRUCTOR_TYPE);
+
+            List<Field> fields = definition.getAutowiredFields();
+            this.setters = new MethodHandle[fields.size()];
+            for (int i = 0; i < setters.length; i++) {
+                setters[i] = lookup.unreflectSetter(fields.get(i)).asType(SETTER_TYPE);
+            }
+        } catch (IllegalAccessException e) {
+            throw new MyBeanCreationException("Failed to create bean factory: " + beanType.getName(), e);
+        }
+    }
+
+    @Override
+    public Object newInstance(Object[] args) {
+        try {
+            invocations.increment();
+            return (Object) constructor.invokeExact(args);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new MyBeanCreationException("Failed to create bean: " + beanType.getName(), e);
+        }
+    }
+
+    @Override
+    public long invocationCount() {
+        return invocations.sum();
+    }
+
+    @Override
+    public void injectFields(Object bean, Object[] values) {
+        try {
+            for (int i = 0; i < setters.length; i++) {
+                invocations.increment();
+                setters[i].invokeExact(bean, values[i]);
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new MyBeanCreationException("Failed to inject fields: " + beanType.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.normaldev.spring_container.factory;
+
+import com.normaldev.spring_container.stereotype.MyAutowired;
+import com.normaldev.spring_container.stereotype.MyLazy;
+import com.normaldev.spring_container.stereotype.MyPrimary;
+import com.normaldev.spring_container.stereotype.MyQualifier;
+import com.normaldev.spring_container.stereotype.MyScope;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 빈 생성에 필요한 메타데이터 (사용할 생성자, 주입할 필드, 주입 지점별 요구사항)
+ * 컨텍스트 refresh 시점에 컴포넌트마다 한 번만 만들어서 재사용한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public class MyBeanDefinition {
+
+    private final Class<?> beanType;
+    private final Constructor<?> constructor;
+    private final List<Field> autowiredFields;
+    private final List<MyDependency> constructorDependencies;
+    private final List<MyDependency> fieldDependencies;
+    private final String name;
+    private final boolean lazy;
+    private final String scope;
+    private final int poolMaxSize;
+    private final long poolMaxIdleMillis;
+
+    private MyBeanDefinition(Class<?> beanType, Constructor<?> constructor, List<Field> autowiredFields,
+                             List<MyDependency> constructorDependencies, List<MyDependency> fieldDependencies) {
+        this.beanType = beanType;
+        this.constructor = constructor;
+        this.autowiredFields = autowiredFields;
+        this.constructorDependencies = constructorDependencies;
+        this.fieldDependencies = fieldDependencies;
+        this.name = nameOf(beanType);
+        this.lazy = beanType.isAnnotationPresent(MyLazy.class);
+
+        MyScope myScope = beanType.getAnnotation(MyScope.class);
+        this.scope = myScope == null ? MyScope.SINGLETON : myScope.value();
+        this.poolMaxSize = myScope == null ? 0 : myScope.poolMaxSize();
+        this.poolMaxIdleMillis = myScope == null ? 0L : myScope.poolMaxIdleMillis();
+    }
+
+    public static MyBeanDefinition of(Class<?> beanType) {
+        Constructor<?> constructor = selectConstructor(beanType);
+        List<Field> fields = findAutowiredFields(beanType);
+
+        List<MyDependency> constructorDependencies = new ArrayList<>();
+        for (Parameter parameter : constructor.getParameters()) {
+            constructorDependencies.add(MyDependency.of(parameter.getType(), parameter.getParameterizedType(), parameter));
+        }
+        List<MyDependency> fieldDependencies = new ArrayList<>();
+        for (Field field : fields) {
+            fieldDependencies.add(MyDependency.of(field.getType(), field.getGenericType(), field));
+        }
+        return new MyBeanDefinition(beanType, constructor, fields,
+                List.copyOf(constructorDependencies), List.copyOf(fieldDependencies));
+    }
+
+    /**
+     * 이전에 결정된 생성자/주입 필드/주입 지점으로 정의를 복원 (스냅샷 로딩용, 생성자 선택/필드 탐색/제네릭 해석 생략)
+     */
+    public static MyBeanDefinition restore(Class<?> beanType, Constructor<?> constructor, List<Field> autowiredFields,
+                                           List<MyDependency> constructorDependencies,
+                                           List<MyDependency> fieldDependencies) {
+        return new MyBeanDefinition(beanType, constructor, List.copyOf(autowiredFields),
+                List.copyOf(constructorDependencies), List.copyOf(fieldDependencies));
+    }
+
+    /**
+     * 빈 이름: 클래스의 @MyQualifier 값, 없으면 첫 글자를 소문자로 바꾼 클래스 이름 (OrderHandler -> orderHandler)
+     */
+    public static String nameOf(Class<?> beanType) {
+        MyQualifier qualifier = beanType.getAnnotation(MyQualifier.class);
+        if (qualifier != null) return qualifier.value();
+
+        // java.beans.Introspector#decapitalize 와 같은 규칙 (URLParser 처럼 앞 두 글자가 대문자면 그대로)
+        String simpleName = beanType.getSimpleName();
+        if (simpleName.length() > 1 && Character.isUpperCase(simpleName.charAt(1))) return simpleName;
+        return Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
+    }
+
+    public static boolean isPrimary(Class<?> beanType) {
+        return beanType.isAnnotationPresent(MyPrimary.class);
+    }
+
+    public Class<?> getBeanType() {
+        return beanType;
+    }
+
+    public Constructor<?> getConstructor() {
+        return constructor;
+    }
+
+    public Class<?>[] getConstructorParameterTypes() {
+        return constructor.getParameterTypes();
+    }
+
+    public List<Field> getAutowiredFields() {
+        return autowiredFields;
+    }
+
+    public List<MyDependency> getConstructorDependencies() {
+        return constructorDependencies;
+    }
+
+    public List<MyDependency> getFieldDependencies() {
+        return fieldDependencies;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public boolean isSingleton() {
+        return MyScope.SINGLETON.equals(scope);
+    }
+
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public long getPoolMaxIdleMillis() {
+        return poolMaxIdleMillis;
+    }
+
+    private static Constructor<?> selectConstructor(Class<?> type) {
+        Constructor<?>[] ctors = type.getDeclaredConstructors();
+
+        // 1) @Autowired 붙은 생성자 우선
+        for (Constructor<?> c : ctors) {
+            if (c.isAnnotationPresent(MyAutowired.class)) return c;
+        }
+
+        // 2) 생성자가 1개면 그걸 사용
+        if (ctors.length == 1) return ctors[0];
+
+        // 3) 기본 생성자 사용
+        try {
+            return type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new MyBeanCreationException(
+                    "No suitable constructor found for " + type.getName() +
+                            " (need @Autowired or single constructor or no-arg constructor)."
+            );
+        }
+    }
+
+    private static List<Field> findAutowiredFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(MyAutowired.class)) fields.add(field);
+        }
+        return Collections.unmodifiableList(fields);
+    }
+}
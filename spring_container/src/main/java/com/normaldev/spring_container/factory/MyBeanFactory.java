@@ -0,0 +1,41 @@
+package com.normaldev.spring_container.factory;
+
+/**
+ * 빈 하나를 생성하고 필드를 주입하는 팩토리
+ * 의존성 해결은 컨텍스트가 담당하고, 팩토리는 이미 해결된 값으로 생성/주입만 수행한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public interface MyBeanFactory {
+
+    /**
+     * @param args 생성자 파라미터 순서대로 해결된 의존성
+     */
+    Object newInstance(Object[] args);
+
+    /**
+     * @param values MyBeanDefinition#getAutowiredFields() 순서대로 해결된 의존성
+     */
+    void injectFields(Object bean, Object[] values);
+
+    /**
+     * 지금까지 수행한 생성자 호출 + 필드 주입 횟수
+     * (REFLECTION: Constructor.newInstance / Field.set, METHOD_HANDLE: invokeExact)
+     */
+    long invocationCount();
+
+    /**
+     * Constructor.newInstance / Field.set 기반 (setAccessible 은 팩토리 생성 시 한 번만)
+     */
+    static MyBeanFactory reflective(MyBeanDefinition definition) {
+        return new ReflectiveBeanFactory(definition);
+    }
+
+    /**
+     * 생성자/필드 setter 를 MethodHandle 로 미리 만들어 두고 직접 호출
+     */
+    static MyBeanFactory methodHandle(MyBeanDefinition definition) {
+        return new MethodHandleBeanFactory(definition);
+    }
+}
@@ -0,0 +1,51 @@
+package com.normaldev.spring_container.factory;
+
+import com.normaldev.spring_container.stereotype.MyQualifier;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주입 지점(생성자 파라미터 / @MyAutowired 필드) 하나의 요구사항
+ *
+ * SINGLE: type 의 빈 하나 (qualifier 가 있으면 그 이름의 빈)
+ * LIST:   List&lt;type&gt; - type 에 할당 가능한 모든 빈 (빈 이름 순)
+ * MAP:    Map&lt;String, type&gt; - 빈 이름 -> 빈
+ * 컬렉션 주입에서는 qualifier 를 사용하지 않는다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public record MyDependency(Kind kind, Class<?> type, String qualifier) {
+
+    public enum Kind {
+        SINGLE, LIST, MAP
+    }
+
+    static MyDependency of(Class<?> rawType, Type genericType, AnnotatedElement element) {
+        MyQualifier qualifier = element.getAnnotation(MyQualifier.class);
+        String name = qualifier == null ? null : qualifier.value();
+
+        if (rawType == List.class) {
+            return new MyDependency(Kind.LIST, typeArgument(genericType, 0, element), null);
+        }
+        if (rawType == Map.class) {
+            if (typeArgument(genericType, 0, element) != String.class) {
+                throw new MyBeanCreationException("Map injection requires String keys: " + element);
+            }
+            return new MyDependency(Kind.MAP, typeArgument(genericType, 1, element), null);
+        }
+        return new MyDependency(Kind.SINGLE, rawType, name);
+    }
+
+    private static Class<?> typeArgument(Type genericType, int index, AnnotatedElement element) {
+        if (genericType instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[index] instanceof Class<?> argument) {
+            return argument;
+        }
+        throw new MyBeanCreationException("Collection injection requires a concrete element type: " + element);
+    }
+}
@@ -0,0 +1,59 @@
+package com.normaldev.spring_container.factory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reflection 기반 MyBeanFactory
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+class ReflectiveBeanFactory implements MyBeanFactory {
+
+    private final Class<?> beanType;
+    private final Constructor<?> constructor;
+    private final Field[] fields;
+    private final LongAdder invocations = new LongAdder();
+
+    ReflectiveBeanFactory(MyBeanDefinition definition) {
+        this.beanType = definition.getBeanType();
+        this.constructor = definition.getConstructor();
+        this.constructor.setAccessible(true);
+        this.fields = definition.getAutowiredFields().toArray(new Field[0]);
+        for (Field field : fields) {
+            field.setAccessible(true);
+        }
+    }
+
+    @Override
+    public Object newInstance(Object[] args) {
+        try {
+            invocations.increment();
+            return constructor.newInstance(args);
+        } catch (InvocationTargetException e) {
+            throw new MyBeanCreationException("Failed to create bean: " + beanType.getName(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new MyBeanCreationException("Failed to create bean: " + beanType.getName(), e);
+        }
+    }
+
+    @Override
+    public long invocationCount() {
+        return invocations.sum();
+    }
+
+    @Override
+    public void injectFields(Object bean, Object[] values) {
+        try {
+            for (int i = 0; i < fields.length; i++) {
+                invocations.increment();
+                fields[i].set(bean, values[i]);
+            }
+        } catch (IllegalAccessException e) {
+            throw new MyBeanCreationException("Failed to inject fields: " + beanType.getName(), e);
+        }
+    }
+}
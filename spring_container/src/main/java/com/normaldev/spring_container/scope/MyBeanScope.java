@@ -0,0 +1,26 @@
+package com.normaldev.spring_container.scope;
+
+import com.normaldev.spring_container.factory.MyBeanDefinition;
+
+import java.util.function.Supplier;
+
+/**
+ * 싱글톤이 아닌 빈의 인스턴스 관리 전략
+ * MyApplicationContext.Builder#registerScope 로 커스텀 스코프를 등록할 수 있다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public interface MyBeanScope {
+
+    /**
+     * @param objectFactory 새 인스턴스가 필요할 때 호출 (생성 + 의존성 주입까지 끝난 빈을 반환)
+     */
+    Object get(MyBeanDefinition definition, Supplier<Object> objectFactory);
+
+    /**
+     * 사용이 끝난 인스턴스를 돌려받는다. (풀 스코프처럼 재사용하는 경우에만 의미가 있음)
+     */
+    default void release(MyBeanDefinition definition, Object bean) {
+    }
+}
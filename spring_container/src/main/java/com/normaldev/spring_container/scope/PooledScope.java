@@ -0,0 +1,79 @@
+package com.normaldev.spring_container.scope;
+
+import com.normaldev.spring_container.factory.MyBeanDefinition;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 만들기 비싼 인스턴스를 재사용하는 풀 스코프
+ *
+ * - getBean 은 풀에서 꺼내고(없으면 새로 생성), 사용 후 MyApplicationContext#releaseBean 으로 반납한다.
+ * - 풀에는 @MyScope#poolMaxSize 개까지만 보관하고, 넘치는 반납은 버린다.
+ * - @MyScope#poolMaxIdleMillis 이상 쉬고 있던 인스턴스는 꺼낼 때/반납할 때 정리한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public class PooledScope implements MyBeanScope {
+
+    private final Map<Class<?>, Pool> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public Object get(MyBeanDefinition definition, Supplier<Object> objectFactory) {
+        Pool pool = poolOf(definition);
+        pool.evictIdle(definition.getPoolMaxIdleMillis());
+
+        // 가장 최근에 반납된 인스턴스부터 사용 (오래된 인스턴스는 꼬리에서 정리되도록)
+        Pooled pooled = pool.idle.pollFirst();
+        if (pooled != null) {
+            pool.size.decrementAndGet();
+            return pooled.bean;
+        }
+        return objectFactory.get();
+    }
+
+    @Override
+    public void release(MyBeanDefinition definition, Object bean) {
+        Pool pool = poolOf(definition);
+        pool.evictIdle(definition.getPoolMaxIdleMillis());
+
+        if (pool.size.incrementAndGet() > definition.getPoolMaxSize()) {
+            pool.size.decrementAndGet();
+            return;
+        }
+        pool.idle.offerFirst(new Pooled(bean, System.nanoTime()));
+    }
+
+    /**
+     * 현재 풀에 보관 중인 인스턴스 수
+     */
+    public int idleCount(Class<?> beanType) {
+        Pool pool = pools.get(beanType);
+        return pool == null ? 0 : pool.size.get();
+    }
+
+    private Pool poolOf(MyBeanDefinition definition) {
+        return pools.computeIfAbsent(definition.getBeanType(), k -> new Pool());
+    }
+
+    private static final class Pool {
+        private final ConcurrentLinkedDeque<Pooled> idle = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        private void evictIdle(long maxIdleMillis) {
+            long deadline = System.nanoTime() - maxIdleMillis * 1_000_000L;
+
+            Pooled oldest;
+            while ((oldest = idle.peekLast()) != null && oldest.releasedAt - deadline < 0) {
+                if (idle.removeLastOccurrence(oldest)) size.decrementAndGet();
+            }
+        }
+    }
+
+    private record Pooled(Object bean, long releasedAt) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.normaldev.spring_container.scope;
+
+import com.normaldev.spring_container.factory.MyBeanDefinition;
+
+import java.util.function.Supplier;
+
+/**
+ * 조회할 때마다 새 인스턴스
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public class PrototypeScope implements MyBeanScope {
+
+    @Override
+    public Object get(MyBeanDefinition definition, Supplier<Object> objectFactory) {
+        return objectFactory.get();
+    }
+}
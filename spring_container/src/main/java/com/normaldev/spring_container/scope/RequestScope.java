@@ -0,0 +1,59 @@
+package com.normaldev.spring_container.scope;
+
+import com.normaldev.spring_container.factory.MyBeanCreationException;
+import com.normaldev.spring_container.factory.MyBeanDefinition;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * begin() ~ close() 구간마다 하나의 인스턴스 (HTTP 요청 스코프를 흉내낸 것)
+ *
+ * <pre>
+ * try (RequestScope.Request request = RequestScope.begin()) {
+ *     ac.getBean(RequestContext.class);
+ * }
+ * </pre>
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public class RequestScope implements MyBeanScope {
+
+    private static final ThreadLocal<Map<Class<?>, Object>> CURRENT = new ThreadLocal<>();
+
+    public static Request begin() {
+        CURRENT.set(new HashMap<>());
+        return new Request();
+    }
+
+    @Override
+    public Object get(MyBeanDefinition definition, Supplier<Object> objectFactory) {
+        Map<Class<?>, Object> requestBeans = CURRENT.get();
+        if (requestBeans == null) {
+            throw new MyBeanCreationException(
+                    "No active request for request scoped bean: " + definition.getBeanType().getName() +
+                            " (RequestScope.begin() 필요)"
+            );
+        }
+
+        Object bean = requestBeans.get(definition.getBeanType());
+        if (bean == null) {
+            bean = objectFactory.get();
+            requestBeans.put(definition.getBeanType(), bean);
+        }
+        return bean;
+    }
+
+    public static class Request implements AutoCloseable {
+
+        private Request() {
+        }
+
+        @Override
+        public void close() {
+            CURRENT.remove();
+        }
+    }
+}
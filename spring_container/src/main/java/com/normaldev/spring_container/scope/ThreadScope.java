@@ -0,0 +1,38 @@
+package com.normaldev.spring_container.scope;
+
+import com.normaldev.spring_container.factory.MyBeanDefinition;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 스레드마다 하나의 인스턴스
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public class ThreadScope implements MyBeanScope {
+
+    private final ThreadLocal<Map<Class<?>, Object>> beans = ThreadLocal.withInitial(HashMap::new);
+
+    @Override
+    public Object get(MyBeanDefinition definition, Supplier<Object> objectFactory) {
+        Map<Class<?>, Object> threadBeans = beans.get();
+
+        Object bean = threadBeans.get(definition.getBeanType());
+        if (bean == null) {
+            // computeIfAbsent 를 쓰면 objectFactory 안에서 다른 thread 빈을 만들 때 재귀 수정이 된다
+            bean = objectFactory.get();
+            threadBeans.put(definition.getBeanType(), bean);
+        }
+        return bean;
+    }
+
+    /**
+     * 현재 스레드의 인스턴스를 모두 버린다. (스레드 풀 재사용 전에 호출)
+     */
+    public void clear() {
+        beans.remove();
+    }
+}
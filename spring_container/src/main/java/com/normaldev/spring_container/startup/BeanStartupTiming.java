@@ -0,0 +1,23 @@
+package com.normaldev.spring_container.startup;
+
+/**
+ * 빈 하나의 생성 소요 시간
+ *
+ * - resolveNanos: 의존성 해석 시간 (안에서 생성된 다른 빈의 시간은 제외)
+ * - instantiateNanos: 생성자 호출 시간
+ * - injectNanos: 필드 주입 시간
+ * - totalNanos: 전체 시간 (안에서 생성된 다른 빈 포함)
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public record BeanStartupTiming(
+        Class<?> beanType,
+        String threadName,
+        long startOffsetNanos,
+        long resolveNanos,
+        long instantiateNanos,
+        long injectNanos,
+        long totalNanos
+) {
+}
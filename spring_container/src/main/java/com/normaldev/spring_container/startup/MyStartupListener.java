@@ -0,0 +1,26 @@
+package com.normaldev.spring_container.startup;
+
+/**
+ * 컨텍스트 시작 과정 이벤트 리스너
+ * MyApplicationContext.Builder#startupListener 로 등록한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public interface MyStartupListener {
+
+    /**
+     * @param source "index" 또는 "scan"
+     */
+    default void onScanCompleted(String source, int componentCount, long elapsedNanos) {
+    }
+
+    /**
+     * refresh 이후에 생성되는 빈(Lazy, prototype 등)도 포함해서 빈이 만들어질 때마다 호출
+     */
+    default void onBeanCreated(BeanStartupTiming timing) {
+    }
+
+    default void onRefreshCompleted(MyStartupReport report) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.normaldev.spring_container.startup;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 컨텍스트 refresh 결과 리포트
+ * toJson() 으로 빈 생성 타임라인을 그대로 내보낼 수 있다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public class MyStartupReport {
+
+    private final long refreshNanos;
+    private final String scanSource;
+    private final int componentCount;
+    private final long scanNanos;
+    private final String beanFactoryMode;
+    private final long factoryInvocations;
+    private final List<BeanStartupTiming> beans;
+
+    public MyStartupReport(long refreshNanos, String scanSource, int componentCount, long scanNanos,
+                           String beanFactoryMode, long factoryInvocations, List<BeanStartupTiming> beans) {
+        this.refreshNanos = refreshNanos;
+        this.scanSource = scanSource;
+        this.componentCount = componentCount;
+        this.scanNanos = scanNanos;
+        this.beanFactoryMode = beanFactoryMode;
+        this.factoryInvocations = factoryInvocations;
+        this.beans = beans.stream()
+                .sorted(Comparator.comparingLong(BeanStartupTiming::startOffsetNanos))
+                .toList();
+    }
+
+    public long getRefreshNanos() {
+        return refreshNanos;
+    }
+
+    public String getScanSource() {
+        return scanSource;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public long getScanNanos() {
+        return scanNanos;
+    }
+
+    /**
+     * 빈 생성에 사용한 팩토리 방식 (REFLECTION / METHOD_HANDLE)
+     */
+    public String getBeanFactoryMode() {
+        return beanFactoryMode;
+    }
+
+    /**
+     * 팩토리를 통한 생성자 호출 + 필드 주입 횟수 (방식은 getBeanFactoryMode 참고)
+     */
+    public long getFactoryInvocations() {
+        return factoryInvocations;
+    }
+
+    /**
+     * 시작 시각 순으로 정렬된 빈 생성 기록
+     */
+    public List<BeanStartupTiming> getBeans() {
+        return beans;
+    }
+
+    /**
+     * 오래 걸린 빈 순으로 n개 (의존성 생성 시간을 제외한 자기 자신의 시간 기준)
+     */
+    public List<BeanStartupTiming> slowestBeans(int n) {
+        return beans.stream()
+                .sorted(Comparator.comparingLong(MyStartupReport::selfNanos).reversed())
+                .limit(n)
+                .toList();
+    }
+
+    private static long selfNanos(BeanStartupTiming t) {
+        return t.resolveNanos() + t.instantiateNanos() + t.injectNanos();
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"refreshMicros\": ").append(micros(refreshNanos)).append(",\n");
+        sb.append("  \"scan\": {\"source\": \"").append(scanSource)
+                .append("\", \"components\": ").append(componentCount)
+                .append(", \"micros\": ").append(micros(scanNanos)).append("},\n");
+        sb.append("  \"beanFactory\": {\"mode\": \"").append(beanFactoryMode)
+                .append("\", \"invocations\": ").append(factoryInvocations).append("},\n");
+        sb.append("  \"beans\": [");
+        for (int i = 0; i < beans.size(); i++) {
+            BeanStartupTiming t = beans.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"type\": \"").append(t.beanType().getName())
+                    .append("\", \"thread\": \"").append(escape(t.threadName()))
+                    .append("\", \"startMicros\": ").append(micros(t.startOffsetNanos()))
+                    .append(", \"resolveMicros\": ").append(micros(t.resolveNanos()))
+                    .append(", \"instantiateMicros\": ").append(micros(t.instantiateNanos()))
+                    .append(", \"injectMicros\": ").append(micros(t.injectNanos()))
+                    .append(", \"totalMicros\": ").append(micros(t.totalNanos()))
+                    .append("}");
+        }
+        sb.append(beans.isEmpty() ? "]\n" : "\n  ]\n");
+        sb.append("}");
+        return sb.toString();
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1_000;
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
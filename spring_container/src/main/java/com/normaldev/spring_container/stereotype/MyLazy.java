@@ -0,0 +1,18 @@
+package com.normaldev.spring_container.stereotype;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Custom Lazy Annotation
+ * 컨텍스트 refresh 시점에 만들지 않고, 처음 getBean 되거나 (프록시로 주입된 경우) 처음 메서드가 호출될 때 생성한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface MyLazy {
+}
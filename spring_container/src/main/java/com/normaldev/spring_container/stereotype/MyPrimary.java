@@ -0,0 +1,18 @@
+package com.normaldev.spring_container.stereotype;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Custom Primary Annotation
+ * 같은 타입의 컴포넌트가 여러 개일 때, 이름 없이 타입으로만 조회/주입하면 이 컴포넌트를 사용한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface MyPrimary {
+}
@@ -0,0 +1,21 @@
+package com.normaldev.spring_container.stereotype;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Custom Qualifier Annotation
+ * 클래스에 붙이면 빈 이름(기본: 첫 글자를 소문자로 바꾼 클래스 이름),
+ * 생성자 파라미터/@MyAutowired 필드에 붙이면 그 이름의 빈을 주입한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.FIELD, ElementType.PARAMETER})
+public @interface MyQualifier {
+
+    String value();
+}
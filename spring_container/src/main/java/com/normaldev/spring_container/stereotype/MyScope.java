@@ -0,0 +1,32 @@
+package com.normaldev.spring_container.stereotype;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Custom Scope Annotation
+ * 지정하지 않으면 singleton
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface MyScope {
+
+    String SINGLETON = "singleton";
+    String PROTOTYPE = "prototype";
+    String THREAD = "thread";
+    String REQUEST = "request";
+    String POOLED = "pooled";
+
+    String value() default SINGLETON;
+
+    /** pooled 스코프: 풀에 보관할 최대 인스턴스 수 */
+    int poolMaxSize() default 8;
+
+    /** pooled 스코프: 이 시간 이상 사용되지 않은 인스턴스는 버린다 */
+    long poolMaxIdleMillis() default 60_000L;
+}
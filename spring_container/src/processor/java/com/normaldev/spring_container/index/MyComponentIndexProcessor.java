@@ -0,0 +1,73 @@
+package com.normaldev.spring_container.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 컴파일 시점에 @MyComponent 클래스 목록을 META-INF/my.components 로 기록하는 Annotation Processor
+ * 런타임에는 MyApplicationContext 가 이 파일을 읽어서 클래스패스 스캔을 생략한다.
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@SupportedAnnotationTypes(MyComponentIndexProcessor.COMPONENT_ANNOTATION)
+public class MyComponentIndexProcessor extends AbstractProcessor {
+
+    static final String COMPONENT_ANNOTATION = "com.normaldev.spring_container.stereotype.MyComponent";
+    static final String INDEX_LOCATION = "META-INF/my.components";
+
+    private final Set<String> componentNames = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) continue;
+
+                // 중첩 클래스도 Class.forName 으로 읽을 수 있도록 binary name(Outer$Inner) 으로 기록
+                componentNames.add(processingEnv.getElementUtils()
+                        .getBinaryName((TypeElement) element).toString());
+            }
+        }
+
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        if (componentNames.isEmpty()) return;
+
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                for (String name : componentNames) {
+                    writer.write(name);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR, "Failed to write component index: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.normaldev.spring_container.context;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ClassHeaderReader / ClassPathComponentScanner 테스트
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+class ClassPathComponentScannerTest {
+
+    private static final String COMPONENT_DESCRIPTOR = "Lcom/normaldev/spring_container/stereotype/MyComponent;";
+
+    // Integer, Float, Long, Double, String, Fieldref, Methodref, InterfaceMethodref,
+    // MethodHandle, MethodType, InvokeDynamic 엔트리가 모두 constant pool 에 들어가도록 작성
+    private static final String CONSTANTS_SOURCE = """
+            package scan;
+            import java.lang.annotation.*;
+            @Meta(value = {ElementType.TYPE}, nested = @Retention(RetentionPolicy.RUNTIME), name = "meta")
+            @Deprecated(since = "1", forRemoval = false)
+            @com.normaldev.spring_container.stereotype.MyComponent
+            public class Constants implements java.util.function.LongSupplier {
+                int i = 123_456;
+                float f = 2.5f;
+                long l = 123_456_789_012L;
+                double d = 3.14;
+                String s = "constant";
+                public long getAsLong() {
+                    Runnable r = () -> s.length();
+                    r.run();
+                    return l + i + (long) f + (long) d;
+                }
+            }
+            @Retention(RetentionPolicy.RUNTIME)
+            @interface Meta {
+                ElementType[] value();
+                Retention nested();
+                String name();
+            }
+            """;
+
+    private static final String PLAIN_SOURCE = """
+            package scan;
+            public class Plain { }
+            """;
+
+    @Test
+    @DisplayName("constant pool 의 모든 태그와 다른 어노테이션의 element_value 를 건너뛰고 @MyComponent 를 찾는다")
+    void readConstantPoolTags(@TempDir Path tempDir) throws IOException {
+        Path classes = compileSamples(tempDir);
+
+        assertEquals("scan.Constants", ClassHeaderReader.readIfAnnotated(
+                Files.readAllBytes(classes.resolve("scan/Constants.class")), COMPONENT_DESCRIPTOR));
+        assertNull(ClassHeaderReader.readIfAnnotated(
+                Files.readAllBytes(classes.resolve("scan/Plain.class")), COMPONENT_DESCRIPTOR));
+        assertNull(ClassHeaderReader.readIfAnnotated(new byte[]{1, 2, 3, 4}, COMPONENT_DESCRIPTOR));
+    }
+
+    @Test
+    @DisplayName("해석할 수 없는 .class 파일이 섞여 있어도 스캔을 중단하지 않고 건너뛴다")
+    void skipUnparsableClassFile(@TempDir Path tempDir) throws IOException {
+        Path classes = compileSamples(tempDir);
+        Files.write(classes.resolve("scan/Broken.class"), new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0});
+        Files.write(classes.resolve("scan/Truncated.class"),
+                Arrays.copyOf(Files.readAllBytes(classes.resolve("scan/Constants.class")), 40));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+            assertEquals(List.of("scan.Constants"), names(new ClassPathComponentScanner(classLoader).scan("scan")));
+        }
+    }
+
+    @Test
+    @DisplayName("jar:file: URL 의 아카이브 안에서 컴포넌트를 찾는다")
+    void scanJar(@TempDir Path tempDir) throws IOException {
+        Path jar = jar(compileSamples(tempDir), tempDir.resolve("app.jar"));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, getClass().getClassLoader())) {
+            assertEquals("jar", classLoader.getResource("scan").getProtocol());
+            assertEquals(List.of("scan.Constants"), names(new ClassPathComponentScanner(classLoader).scan("scan")));
+        }
+    }
+
+    @Test
+    @DisplayName("fat jar 안의 중첩 jar (jar:file:...!/BOOT-INF/lib/x.jar!/, jar:nested:...) 에서 컴포넌트를 찾는다")
+    void scanNestedJar(@TempDir Path tempDir) throws IOException {
+        Path classes = compileSamples(tempDir);
+        Path inner = jar(classes, tempDir.resolve("inner.jar"));
+        Path outer = tempDir.resolve("app.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(outer))) {
+            out.putNextEntry(new JarEntry("BOOT-INF/"));
+            out.putNextEntry(new JarEntry("BOOT-INF/lib/"));
+            out.putNextEntry(new JarEntry("BOOT-INF/lib/inner.jar"));
+            Files.copy(inner, out);
+            out.closeEntry();
+        }
+
+        String outerUri = outer.toUri().toString();
+        URL classic = URI.create("jar:" + outerUri + "!/BOOT-INF/lib/inner.jar!/scan").toURL();
+        URL nested = URL.of(URI.create("jar:nested:" + outer.toUri().getPath() + "/!BOOT-INF/lib/inner.jar!/scan"),
+                new URLStreamHandler() {
+                    @Override
+                    protected URLConnection openConnection(URL u) {
+                        throw new UnsupportedOperationException();
+                    }
+                });
+
+        for (URL url : List.of(classic, nested)) {
+            // 클래스 로딩은 디렉토리에서, 패키지 리소스는 중첩 jar URL 로 돌려주는 클래스로더 (fat jar 런처 흉내)
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader()) {
+                @Override
+                public Enumeration<URL> getResources(String name) {
+                    return Collections.enumeration(List.of(url));
+                }
+            }) {
+                assertEquals(List.of("scan.Constants"), names(new ClassPathComponentScanner(classLoader).scan("scan")), url.toString());
+            }
+        }
+    }
+
+    private static List<String> names(Set<Class<?>> classes) {
+        return classes.stream().map(Class::getName).sorted().toList();
+    }
+
+    private static Path compileSamples(Path tempDir) throws IOException {
+        Path src = Files.createDirectories(tempDir.resolve("src/scan"));
+        Path classes = Files.createDirectories(tempDir.resolve("classes"));
+        Files.writeString(src.resolve("Constants.java"), CONSTANTS_SOURCE);
+        Files.writeString(src.resolve("Plain.java"), PLAIN_SOURCE);
+
+        int result = ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                "-d", classes.toString(),
+                "-cp", System.getProperty("java.class.path"),
+                src.resolve("Constants.java").toString(), src.resolve("Plain.java").toString());
+        assertEquals(0, result, "compile failed");
+        return classes;
+    }
+
+    // 디렉토리 엔트리까지 넣어야 ClassLoader.getResources("scan") 가 jar URL 을 돌려준다
+    private static Path jar(Path classes, Path jar) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> paths = Files.walk(classes)) {
+            for (Path path : paths.filter(p -> !p.equals(classes)).sorted().toList()) {
+                String name = classes.relativize(path).toString().replace(File.separatorChar, '/');
+                if (Files.isDirectory(path)) {
+                    out.putNextEntry(new JarEntry(name + "/"));
+                } else {
+                    out.putNextEntry(new JarEntry(name));
+                    Files.copy(path, out);
+                }
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,501 @@
+package com.normaldev.spring_container.context;
+
+import com.normaldev.spring_container.aop.AopProxyFactory;
+import com.normaldev.spring_container.aop.CacheableInterceptor;
+import com.normaldev.spring_container.aop.MyMethodInterceptor;
+import com.normaldev.spring_container.aop.MyMethodInvocation;
+import com.normaldev.spring_container.context.fixture.aop.PriceCalculator;
+import com.normaldev.spring_container.context.fixture.aop.PriceClient;
+import com.normaldev.spring_container.context.fixture.aop.SlowPriceCalculator;
+import com.normaldev.spring_container.context.fixture.event.OrderEventListener;
+import com.normaldev.spring_container.context.fixture.event.OrderPlaced;
+import com.normaldev.spring_container.context.fixture.lazy.ExpensiveReportClient;
+import com.normaldev.spring_container.context.fixture.lazy.ReportClient;
+import com.normaldev.spring_container.context.fixture.lazy.ReportService;
+import com.normaldev.spring_container.context.fixture.qualifier.Handler;
+import com.normaldev.spring_container.context.fixture.qualifier.HandlerRegistry;
+import com.normaldev.spring_container.context.fixture.scope.PooledParser;
+import com.normaldev.spring_container.context.fixture.scope.PrototypeCommand;
+import com.normaldev.spring_container.context.fixture.scope.RequestInfo;
+import com.normaldev.spring_container.context.fixture.tenant.TenantService;
+import com.normaldev.spring_container.context.fixture.typeindex.*;
+import com.normaldev.spring_container.factory.MyBeanCreationException;
+import com.normaldev.spring_container.scope.RequestScope;
+import com.normaldev.spring_container.startup.BeanStartupTiming;
+import com.normaldev.spring_container.startup.MyStartupListener;
+import com.normaldev.spring_container.startup.MyStartupReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MyApplicationContext 통합 테스트
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+class MyApplicationContextTest {
+
+    private static final String FIXTURE_PACKAGE = "com.normaldev.spring_container.context.fixture";
+
+    @Test
+    @DisplayName("인터페이스/부모 클래스 타입으로 조회하면 같은 싱글톤 구현체를 반환")
+    void getBeanBySupertype() {
+        MyApplicationContext ac = new MyApplicationContext(FIXTURE_PACKAGE + ".typeindex", ComponentScanMode.SCAN);
+
+        MemoryStore store = ac.getBean(MemoryStore.class);
+
+        assertSame(store, ac.getBean(Store.class));
+        assertSame(store, ac.getBean(AbstractStore.class));
+        assertSame(store, ac.getBean(StoreClient.class).getStore());
+    }
+
+    @Test
+    @DisplayName("구현체가 2개 이상인 타입으로 조회하면 예외")
+    void ambiguousType() {
+        MyApplicationContext ac = new MyApplicationContext(FIXTURE_PACKAGE + ".typeindex", ComponentScanMode.SCAN);
+
+        MyBeanCreationException e = assertThrows(MyBeanCreationException.class, () -> ac.getBean(Channel.class));
+        assertTrue(e.getMessage().startsWith("Multiple components found for type"));
+    }
+
+    @Test
+    @DisplayName("컴포넌트가 없는 타입으로 조회하면 예외")
+    void noComponent() {
+        MyApplicationContext ac = new MyApplicationContext(FIXTURE_PACKAGE + ".typeindex", ComponentScanMode.SCAN);
+
+        assertThrows(MyBeanCreationException.class, () -> ac.getBean(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("METHOD_HANDLE 모드에서도 생성자 주입과 private 필드 주입이 동일하게 동작")
+    void methodHandleFactory() {
+        MyApplicationContext ac = MyApplicationContext.builder(FIXTURE_PACKAGE + ".typeindex")
+                .scanMode(ComponentScanMode.SCAN)
+                .beanFactoryMode(BeanFactoryMode.METHOD_HANDLE)
+                .build();
+
+        Store store = ac.getBean(Store.class);
+
+        assertSame(store, ac.getBean(StoreClient.class).getStore());
+        assertSame(store, ac.getBean(StoreAuditor.class).getStore());
+        assertEquals("METHOD_HANDLE", ac.getStartupReport().getBeanFactoryMode());
+        assertTrue(ac.getStartupReport().getFactoryInvocations() >= ac.getStartupReport().getComponentCount());
+    }
+
+    @Test
+    @DisplayName("생성자/필드 주입으로 순환 참조가 생기면 refresh 시점에 순환 경로와 함께 예외")
+    void circularDependency() {
+        MyBeanCreationException e = assertThrows(MyBeanCreationException.class,
+                () -> new MyApplicationContext(FIXTURE_PACKAGE + ".cycle", ComponentScanMode.SCAN));
+
+        assertTrue(e.getMessage().startsWith("Circular dependency detected"));
+        assertTrue(e.getMessage().contains("CycleA") && e.getMessage().contains("CycleB"));
+    }
+
+    @Test
+    @DisplayName("executor를 지정하면 병렬로 생성해도 같은 싱글톤 그래프가 만들어진다")
+    void parallelPreInstantiation() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            MyApplicationContext ac = MyApplicationContext.builder(FIXTURE_PACKAGE + ".typeindex")
+                    .scanMode(ComponentScanMode.SCAN)
+                    .executor(executor)
+                    .build();
+
+            Store store = ac.getBean(Store.class);
+
+            assertSame(store, ac.getBean(StoreClient.class).getStore());
+            assertSame(store, ac.getBean(StoreAuditor.class).getStore());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("@MyLazy 빈은 refresh 시점에 만들지 않고, 프록시로 주입된 뒤 첫 메서드 호출 때 한 번만 생성")
+    void lazyBean() {
+        ExpensiveReportClient.CREATED.set(0);
+        MyApplicationContext ac = new MyApplicationContext(FIXTURE_PACKAGE + ".lazy", ComponentScanMode.SCAN);
+
+        ReportService reportService = ac.getBean(ReportService.class);
+        assertEquals(0, ExpensiveReportClient.CREATED.get());
+
+        assertEquals("report", reportService.report());
+        assertEquals("report", reportService.report());
+        assertEquals(1, ExpensiveReportClient.CREATED.get());
+        assertSame(ac.getBean(ExpensiveReportClient.class), ac.getBean(ReportClient.class));
+        assertEquals(1, ExpensiveReportClient.CREATED.get());
+    }
+
+    @Test
+    @DisplayName("prototype은 매번 새 인스턴스, request는 begin~close 구간마다 하나")
+    void prototypeAndRequestScope() {
+        MyApplicationContext ac = new MyApplicationContext(FIXTURE_PACKAGE + ".scope", ComponentScanMode.SCAN);
+
+        assertNotSame(ac.getBean(PrototypeCommand.class), ac.getBean(PrototypeCommand.class));
+
+        assertThrows(MyBeanCreationException.class, () -> ac.getBean(RequestInfo.class));
+        try (RequestScope.Request request = RequestScope.begin()) {
+            assertSame(ac.getBean(RequestInfo.class), ac.getBean(RequestInfo.class));
+        }
+    }
+
+    @Test
+    @DisplayName("pooled 스코프는 반납된 인스턴스를 재사용하고 poolMaxSize 를 넘는 반납은 버린다")
+    void pooledScope() {
+        MyApplicationContext ac = new MyApplicationContext(FIXTURE_PACKAGE + ".scope", ComponentScanMode.SCAN);
+
+        PooledParser first = ac.getBean(PooledParser.class);
+        PooledParser second = ac.getBean(PooledParser.class);
+        assertNotSame(first, second);
+
+        ac.releaseBean(first);
+        ac.releaseBean(second); // poolMaxSize = 1 이므로 버려짐
+
+        assertSame(first, ac.getBean(PooledParser.class));
+        assertNotSame(second, ac.getBean(PooledParser.class));
+    }
+
+    @Test
+    @DisplayName("startup 리포트와 리스너에 eager 빈마다 생성 시간이 기록된다")
+    void startupReport() {
+        List<BeanStartupTiming> created = new ArrayList<>();
+        MyApplicationContext ac = MyApplicationContext.builder(FIXTURE_PACKAGE + ".typeindex")
+                .scanMode(ComponentScanMode.SCAN)
+                .startupListener(new MyStartupListener() {
+                    @Override
+                    public void onBeanCreated(BeanStartupTiming timing) {
+                        created.add(timing);
+                    }
+                })
+                .build();
+
+        MyStartupReport report = ac.getStartupReport();
+
+        assertEquals("scan", report.getScanSource());
+        assertEquals(report.getComponentCount(), report.getBeans().size());
+        assertEquals(report.getBeans().size(), created.size());
+        assertEquals("REFLECTION", report.getBeanFactoryMode());
+        assertTrue(report.getFactoryInvocations() > 0);
+        assertTrue(report.toJson().contains(StoreClient.class.getName()));
+    }
+
+    @Test
+    @DisplayName("INDEX 모드는 인덱스에 적힌 컴포넌트만 쓰고, AUTO 모드는 인덱스에 basePackage 항목이 없으면 스캔")
+    void componentIndex(@TempDir Path tempDir) throws IOException {
+        Path indexFile = tempDir.resolve(ComponentIndex.INDEX_LOCATION);
+        Files.createDirectories(indexFile.getParent());
+        Files.writeString(indexFile, "# MyComponentIndexProcessor\n"
+                + MemoryStore.class.getName() + "\n"
+                + StoreClient.class.getName() + "\n");
+
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, original)) {
+            thread.setContextClassLoader(classLoader);
+
+            MyApplicationContext indexed = new MyApplicationContext(FIXTURE_PACKAGE + ".typeindex", ComponentScanMode.INDEX);
+            assertEquals("index", indexed.getStartupReport().getScanSource());
+            assertEquals(2, indexed.getStartupReport().getComponentCount());
+            assertSame(indexed.getBean(Store.class), indexed.getBean(StoreClient.class).getStore());
+            assertThrows(MyBeanCreationException.class, () -> indexed.getBean(StoreAuditor.class));
+
+            MyApplicationContext auto = new MyApplicationContext(FIXTURE_PACKAGE + ".scope", ComponentScanMode.AUTO);
+            assertEquals("scan", auto.getStartupReport().getScanSource());
+            assertNotSame(auto.getBean(PrototypeCommand.class), auto.getBean(PrototypeCommand.class));
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+
+    @Test
+    @DisplayName("스냅샷이 있으면 스캔 없이 같은 빈 그래프를 복원")
+    void snapshotRestore(@TempDir Path tempDir) {
+        Path snapshot = tempDir.resolve("context.snapshot");
+
+        MyApplicationContext first = MyApplicationContext.builder(FIXTURE_PACKAGE + ".typeindex")
+                .scanMode(ComponentScanMode.SCAN)
+                .snapshot(snapshot)
+                .build();
+        MyApplicationContext restored = MyApplicationContext.builder(FIXTURE_PACKAGE + ".typeindex")
+                .scanMode(ComponentScanMode.SCAN)
+                .snapshot(snapshot)
+                .build();
+
+        assertEquals("scan", first.getStartupReport().getScanSource());
+        assertEquals("snapshot", restored.getStartupReport().getScanSource());
+        assertEquals(first.getStartupReport().getComponentCount(), restored.getStartupReport().getComponentCount());
+        assertSame(restored.getBean(Store.class), restored.getBean(StoreClient.class).getStore());
+        assertThrows(MyBeanCreationException.class, () -> restored.getBean(Channel.class));
+    }
+
+    @Test
+    @DisplayName("스캔으로 만든 스냅샷은 basePackage 에 새 컴포넌트가 추가되면 무효가 되고 전체 refresh")
+    void snapshotInvalidatedByNewComponent(@TempDir Path tempDir) throws Exception {
+        Path classes = Files.createDirectories(tempDir.resolve("classes"));
+        Path snapshot = tempDir.resolve("context.snapshot");
+        compile(classes, "snap.Greeter", GREETER_SOURCE.replace("package hot;", "package snap;").formatted("v1"));
+
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, original)) {
+            thread.setContextClassLoader(classLoader);
+            Supplier<MyApplicationContext> refresh = () -> MyApplicationContext.builder("snap")
+                    .scanMode(ComponentScanMode.SCAN)
+                    .snapshot(snapshot)
+                    .build();
+
+            assertEquals("scan", refresh.get().getStartupReport().getScanSource());
+            assertEquals("snapshot", refresh.get().getStartupReport().getScanSource());
+
+            compile(classes, "snap.Unrelated", """
+                    package snap;
+                    @com.normaldev.spring_container.stereotype.MyComponent
+                    public class Unrelated implements Runnable {
+                        public void run() { }
+                    }
+                    """);
+
+            MyApplicationContext afterAdd = refresh.get();
+            assertEquals("scan", afterAdd.getStartupReport().getScanSource());
+            assertEquals(2, afterAdd.getStartupReport().getComponentCount());
+            assertNotNull(afterAdd.getBean(Runnable.class));
+            assertEquals("snapshot", refresh.get().getStartupReport().getScanSource());
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+
+    @Test
+    @DisplayName("@MyCacheable 메서드는 LRU 캐시를 거치고, 등록한 인터셉터는 매칭된 메서드에만 걸린다")
+    void methodInterceptors() {
+        AtomicInteger intercepted = new AtomicInteger();
+        MyMethodInterceptor counter = new MyMethodInterceptor() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return method.getName().equals("calls");
+            }
+
+            @Override
+            public Object invoke(MyMethodInvocation invocation) throws Throwable {
+                intercepted.incrementAndGet();
+                return invocation.proceed();
+            }
+        };
+        MyApplicationContext ac = MyApplicationContext.builder(FIXTURE_PACKAGE + ".aop")
+                .scanMode(ComponentScanMode.SCAN)
+                .interceptor(counter)
+                .build();
+
+        PriceCalculator calculator = ac.getBean(PriceCalculator.class);
+        assertSame(calculator, ac.getBean(PriceClient.class).calculator());
+
+        calculator.price("a");
+        calculator.price("a");
+        assertEquals(1, calculator.calls());
+
+        calculator.price("bb");
+        calculator.price("ccc"); // maxSize = 2 이므로 "a" 가 밀려남
+        calculator.price("a");
+        assertEquals(4, calculator.calls());
+        assertEquals(2, intercepted.get());
+
+        assertThrows(MyBeanCreationException.class, () -> ac.getBean(SlowPriceCalculator.class));
+    }
+
+    @Test
+    @DisplayName("AopProxyFactory.evict 는 인터셉터가 클래스별로 들고 있는 상태(@MyCacheable 캐시)도 같이 비운다")
+    void evictInterceptorState() {
+        AopProxyFactory proxyFactory = new AopProxyFactory(List.of(new CacheableInterceptor()));
+        SlowPriceCalculator target = new SlowPriceCalculator();
+
+        PriceCalculator proxy = (PriceCalculator) proxyFactory.wrapIfNecessary(target);
+        proxy.price("a");
+        proxy.price("a");
+        assertEquals(1, target.calls());
+
+        proxyFactory.evict(SlowPriceCalculator.class);
+
+        proxy = (PriceCalculator) proxyFactory.wrapIfNecessary(target);
+        proxy.price("a");
+        assertEquals(2, target.calls());
+    }
+
+    @Test
+    @DisplayName("상속받은 @MyCacheable 메서드의 캐시도 빈 클래스 기준으로 비운다")
+    void evictInheritedCacheableMethod() {
+        AopProxyFactory proxyFactory = new AopProxyFactory(List.of(new CacheableInterceptor()));
+        InheritedPriceCalculator target = new InheritedPriceCalculator();
+
+        PriceCalculator proxy = (PriceCalculator) proxyFactory.wrapIfNecessary(target);
+        proxy.price("a");
+        proxy.price("a");
+        assertEquals(1, target.calls());
+
+        // price 의 선언 클래스는 SlowPriceCalculator 지만 캐시는 InheritedPriceCalculator 것이다
+        proxyFactory.evict(InheritedPriceCalculator.class);
+
+        proxy = (PriceCalculator) proxyFactory.wrapIfNecessary(target);
+        proxy.price("a");
+        assertEquals(2, target.calls());
+    }
+
+    static class InheritedPriceCalculator extends SlowPriceCalculator {
+    }
+
+    @Test
+    @DisplayName("느린 리스너가 있어도 publishEvent 는 바로 반환되고, 배치 리스너는 한 번에 모아서 받는다")
+    void publishEvent() throws InterruptedException {
+        OrderEventListener listener;
+        try (MyApplicationContext ac = new MyApplicationContext(FIXTURE_PACKAGE + ".event", ComponentScanMode.SCAN)) {
+            listener = ac.getBean(OrderEventListener.class);
+
+            for (long i = 0; i < 5; i++) {
+                ac.publishEvent(new OrderPlaced(i));
+            }
+            ac.publishEvent("리스너가 없는 이벤트");
+
+            assertTrue(listener.slowListenerStarted.await(1, TimeUnit.SECONDS));
+            listener.releaseSlowListener.countDown();
+        }
+
+        // close 는 남은 배치를 전달하고 리스너가 끝날 때까지 기다린다
+        assertEquals(List.of(5), listener.batchSizes);
+    }
+
+    @Test
+    @DisplayName("자식 컨텍스트는 자기 패키지만 생성하고, 해석되지 않는 타입은 부모 싱글톤을 공유")
+    void childContext() {
+        MyApplicationContext parent = new MyApplicationContext(FIXTURE_PACKAGE + ".typeindex", ComponentScanMode.SCAN);
+        MyApplicationContext child = MyApplicationContext.builder(FIXTURE_PACKAGE + ".tenant")
+                .scanMode(ComponentScanMode.SCAN)
+                .parent(parent)
+                .build();
+
+        assertEquals(1, child.getStartupReport().getComponentCount());
+        assertSame(parent.getBean(Store.class), child.getBean(TenantService.class).store());
+        assertSame(parent.getBean(Store.class), child.getBean(Store.class));
+        assertThrows(MyBeanCreationException.class, () -> parent.getBean(TenantService.class));
+
+        // basePackage 가 겹쳐도 부모가 가진 컴포넌트는 다시 만들지 않음
+        MyApplicationContext overlapping = MyApplicationContext.builder(FIXTURE_PACKAGE + ".typeindex")
+                .scanMode(ComponentScanMode.SCAN)
+                .parent(parent)
+                .build();
+        assertSame(parent.getBean(MemoryStore.class), overlapping.getBean(MemoryStore.class));
+    }
+
+    @Test
+    @DisplayName("@MyPrimary / @MyQualifier 로 후보를 고르고, List / Map 에는 모든 후보를 빈 이름 순으로 주입")
+    void qualifierAndCollectionInjection(@TempDir Path tempDir) {
+        for (int run = 0; run < 2; run++) { // 두 번째는 스냅샷에서 복원한 주입 계획으로 생성
+            MyApplicationContext ac = MyApplicationContext.builder(FIXTURE_PACKAGE + ".qualifier")
+                    .scanMode(ComponentScanMode.SCAN)
+                    .snapshot(tempDir.resolve("context.snapshot"))
+                    .build();
+            HandlerRegistry registry = ac.getBean(HandlerRegistry.class);
+            assertEquals(run == 0 ? "scan" : "snapshot", ac.getStartupReport().getScanSource());
+
+            assertEquals(List.of("audit", "order", "refund"),
+                    registry.getHandlers().stream().map(Handler::handle).toList());
+            assertEquals(List.of("auditHandler", "orderHandler", "refund"),
+                    List.copyOf(registry.getHandlersByName().keySet()));
+            assertEquals("order", registry.getPrimary().handle());
+            assertEquals("refund", registry.getRefund().handle());
+            assertEquals("audit", registry.getAudit().handle());
+
+            assertSame(registry.getRefund(), ac.getBean(Handler.class, "refund"));
+            assertSame(registry.getPrimary(), ac.getBean(Handler.class));
+            assertEquals(3, ac.getBeansOfType(Handler.class).size());
+            assertThrows(MyBeanCreationException.class, () -> ac.getBean(Handler.class, "unknown"));
+        }
+    }
+
+    @Test
+    @DisplayName("hot reload: 바뀐 컴포넌트와 그 의존 빈만 새로 만들고, 영향 없는 싱글톤은 유지")
+    void hotReload(@TempDir Path tempDir) throws Exception {
+        Path classes = Files.createDirectories(tempDir.resolve("classes"));
+        compile(classes, "hot.Greeter", GREETER_SOURCE.formatted("v1"));
+        compile(classes, "hot.GreeterClient", """
+                package hot;
+                @com.normaldev.spring_container.stereotype.MyComponent
+                public class GreeterClient implements java.util.concurrent.Callable<String> {
+                    private final java.util.function.Supplier<String> greeter;
+                    public GreeterClient(java.util.function.Supplier<String> greeter) { this.greeter = greeter; }
+                    public String call() { return "client:" + greeter.get(); }
+                }
+                """);
+        compile(classes, "hot.Unrelated", """
+                package hot;
+                @com.normaldev.spring_container.stereotype.MyComponent
+                public class Unrelated implements Runnable {
+                    public void run() { }
+                }
+                """);
+
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, original)) {
+            thread.setContextClassLoader(classLoader);
+            try (MyApplicationContext ac = MyApplicationContext.builder("hot")
+                    .scanMode(ComponentScanMode.SCAN)
+                    .hotReload(true)
+                    .build()) {
+                Runnable unrelated = ac.getBean(Runnable.class);
+                assertEquals("client:v1", ac.getBean(Callable.class).call());
+
+                compile(classes, "hot.Greeter", GREETER_SOURCE.formatted("v2"));
+
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (!"v2".equals(ac.getBean(Supplier.class).get()) && System.nanoTime() < deadline) {
+                    Thread.sleep(50);
+                }
+                assertEquals("v2", ac.getBean(Supplier.class).get());
+                assertEquals("client:v2", ac.getBean(Callable.class).call());
+                assertSame(unrelated, ac.getBean(Runnable.class));
+            }
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+
+    private static final String GREETER_SOURCE = """
+            package hot;
+            @com.normaldev.spring_container.stereotype.MyComponent
+            public class Greeter implements java.util.function.Supplier<String> {
+                public String get() { return "%s"; }
+            }
+            """;
+
+    private static void compile(Path classRoot, String className, String source) throws IOException {
+        Path sourceFile = classRoot.resolveSibling("src").resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source);
+
+        int result = ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                "-d", classRoot.toString(),
+                "-cp", System.getProperty("java.class.path") + File.pathSeparator + classRoot,
+                sourceFile.toString());
+        assertEquals(0, result, "compile failed: " + className);
+    }
+}
@@ -0,0 +1,13 @@
+package com.normaldev.spring_container.context.fixture.aop;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public interface PriceCalculator {
+
+    int price(String item);
+
+    int calls();
+}
@@ -0,0 +1,22 @@
+package com.normaldev.spring_container.context.fixture.aop;
+
+import com.normaldev.spring_container.stereotype.MyComponent;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyComponent
+public class PriceClient {
+
+    private final PriceCalculator calculator;
+
+    public PriceClient(PriceCalculator calculator) {
+        this.calculator = calculator;
+    }
+
+    public PriceCalculator calculator() {
+        return calculator;
+    }
+}
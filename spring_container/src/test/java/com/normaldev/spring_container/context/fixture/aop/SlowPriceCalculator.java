@@ -0,0 +1,29 @@
+package com.normaldev.spring_container.context.fixture.aop;
+
+import com.normaldev.spring_container.aop.MyCacheable;
+import com.normaldev.spring_container.stereotype.MyComponent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyComponent
+public class SlowPriceCalculator implements PriceCalculator {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    @MyCacheable(maxSize = 2)
+    public int price(String item) {
+        calls.incrementAndGet();
+        return item.length() * 100;
+    }
+
+    @Override
+    public int calls() {
+        return calls.get();
+    }
+}
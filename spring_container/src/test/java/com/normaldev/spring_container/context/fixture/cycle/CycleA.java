@@ -0,0 +1,18 @@
+package com.normaldev.spring_container.context.fixture.cycle;
+
+import com.normaldev.spring_container.stereotype.MyComponent;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyComponent
+public class CycleA {
+
+    private final CycleB cycleB;
+
+    public CycleA(CycleB cycleB) {
+        this.cycleB = cycleB;
+    }
+}
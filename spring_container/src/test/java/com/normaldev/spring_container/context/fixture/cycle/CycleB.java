@@ -0,0 +1,16 @@
+package com.normaldev.spring_container.context.fixture.cycle;
+
+import com.normaldev.spring_container.stereotype.MyAutowired;
+import com.normaldev.spring_container.stereotype.MyComponent;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyComponent
+public class CycleB {
+
+    @MyAutowired
+    private CycleA cycleA;
+}
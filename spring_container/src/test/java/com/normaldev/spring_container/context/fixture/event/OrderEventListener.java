@@ -0,0 +1,32 @@
+package com.normaldev.spring_container.context.fixture.event;
+
+import com.normaldev.spring_container.event.MyEventListener;
+import com.normaldev.spring_container.stereotype.MyComponent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyComponent
+public class OrderEventListener {
+
+    public final CountDownLatch slowListenerStarted = new CountDownLatch(1);
+    public final CountDownLatch releaseSlowListener = new CountDownLatch(1);
+    public final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    @MyEventListener
+    void onOrder(OrderPlaced event) throws InterruptedException {
+        slowListenerStarted.countDown();
+        releaseSlowListener.await();
+    }
+
+    @MyEventListener(batchWindowMillis = 200)
+    void onOrders(List<OrderPlaced> events) {
+        batchSizes.add(events.size());
+    }
+}
@@ -0,0 +1,9 @@
+package com.normaldev.spring_container.context.fixture.event;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public record OrderPlaced(long orderId) {
+}
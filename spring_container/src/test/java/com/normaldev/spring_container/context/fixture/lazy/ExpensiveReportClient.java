@@ -0,0 +1,27 @@
+package com.normaldev.spring_container.context.fixture.lazy;
+
+import com.normaldev.spring_container.stereotype.MyComponent;
+import com.normaldev.spring_container.stereotype.MyLazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyLazy
+@MyComponent
+public class ExpensiveReportClient implements ReportClient {
+
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    public ExpensiveReportClient() {
+        CREATED.incrementAndGet();
+    }
+
+    @Override
+    public String fetch() {
+        return "report";
+    }
+}
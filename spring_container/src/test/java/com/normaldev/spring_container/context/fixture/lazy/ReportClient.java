@@ -0,0 +1,10 @@
+package com.normaldev.spring_container.context.fixture.lazy;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public interface ReportClient {
+    String fetch();
+}
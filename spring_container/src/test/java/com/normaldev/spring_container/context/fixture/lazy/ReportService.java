@@ -0,0 +1,20 @@
+package com.normaldev.spring_container.context.fixture.lazy;
+
+import com.normaldev.spring_container.stereotype.MyAutowired;
+import com.normaldev.spring_container.stereotype.MyComponent;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyComponent
+public class ReportService {
+
+    @MyAutowired
+    private ReportClient reportClient;
+
+    public String report() {
+        return reportClient.fetch();
+    }
+}
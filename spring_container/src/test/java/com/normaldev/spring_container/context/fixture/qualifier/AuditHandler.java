@@ -0,0 +1,17 @@
+package com.normaldev.spring_container.context.fixture.qualifier;
+
+import com.normaldev.spring_container.stereotype.MyComponent;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyComponent
+public class AuditHandler implements Handler {
+
+    @Override
+    public String handle() {
+        return "audit";
+    }
+}
@@ -0,0 +1,11 @@
+package com.normaldev.spring_container.context.fixture.qualifier;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public interface Handler {
+
+    String handle();
+}
@@ -0,0 +1,55 @@
+package com.normaldev.spring_container.context.fixture.qualifier;
+
+import com.normaldev.spring_container.stereotype.MyAutowired;
+import com.normaldev.spring_container.stereotype.MyComponent;
+import com.normaldev.spring_container.stereotype.MyQualifier;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 컬렉션 / @MyPrimary / @MyQualifier 주입 확인용
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyComponent
+public class HandlerRegistry {
+
+    private final List<Handler> handlers;
+    private final Map<String, Handler> handlersByName;
+    private final Handler primary;
+    private final Handler refund;
+
+    @MyAutowired
+    @MyQualifier("auditHandler")
+    private Handler audit;
+
+    public HandlerRegistry(List<Handler> handlers, Map<String, Handler> handlersByName,
+                           Handler primary, @MyQualifier("refund") Handler refund) {
+        this.handlers = handlers;
+        this.handlersByName = handlersByName;
+        this.primary = primary;
+        this.refund = refund;
+    }
+
+    public List<Handler> getHandlers() {
+        return handlers;
+    }
+
+    public Map<String, Handler> getHandlersByName() {
+        return handlersByName;
+    }
+
+    public Handler getPrimary() {
+        return primary;
+    }
+
+    public Handler getRefund() {
+        return refund;
+    }
+
+    public Handler getAudit() {
+        return audit;
+    }
+}
@@ -0,0 +1,19 @@
+package com.normaldev.spring_container.context.fixture.qualifier;
+
+import com.normaldev.spring_container.stereotype.MyComponent;
+import com.normaldev.spring_container.stereotype.MyPrimary;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyPrimary
+@MyComponent
+public class OrderHandler implements Handler {
+
+    @Override
+    public String handle() {
+        return "order";
+    }
+}
@@ -0,0 +1,14 @@
+package com.normaldev.spring_container.context.fixture.scope;
+
+import com.normaldev.spring_container.stereotype.MyComponent;
+import com.normaldev.spring_container.stereotype.MyScope;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyScope(value = MyScope.POOLED, poolMaxSize = 1)
+@MyComponent
+public class PooledParser {
+}
@@ -0,0 +1,24 @@
+package com.normaldev.spring_container.context.fixture.tenant;
+
+import com.normaldev.spring_container.context.fixture.typeindex.Store;
+import com.normaldev.spring_container.stereotype.MyComponent;
+
+/**
+ * 부모 컨텍스트(typeindex)의 Store 에 의존하는 자식 컨텍스트 컴포넌트
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyComponent
+public class TenantService {
+
+    private final Store store;
+
+    public TenantService(Store store) {
+        this.store = store;
+    }
+
+    public Store store() {
+        return store;
+    }
+}
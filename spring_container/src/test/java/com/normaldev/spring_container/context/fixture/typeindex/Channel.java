@@ -0,0 +1,9 @@
+package com.normaldev.spring_container.context.fixture.typeindex;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+public interface Channel {
+}
@@ -0,0 +1,12 @@
+package com.normaldev.spring_container.context.fixture.typeindex;
+
+import com.normaldev.spring_container.stereotype.MyComponent;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyComponent
+public class EmailChannel implements Channel {
+}
@@ -0,0 +1,22 @@
+package com.normaldev.spring_container.context.fixture.typeindex;
+
+import com.normaldev.spring_container.stereotype.MyComponent;
+
+/**
+ *
+ * @author junnukim1007gmail.com
+ * @date 26. 10. 17.
+ */
+@MyComponent
+public class StoreClient {
+
+    private final Store store;
+
+    public StoreClient(Store store) {
+        this.store = store;
+    }
+
+    public Store getStore() {
+        return store;
+    }
+}